@@ -0,0 +1,100 @@
+package com.converterframework.benchmarks;
+
+import com.converterframework.converters.CSVToExcelConverter;
+import com.converterframework.converters.CSVToJSONConverter;
+import com.converterframework.converters.JSONToCSVConverter;
+import com.converterframework.converters.JSONToXMLConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the tabular converters over generated files.
+ * Each converter runs file to file, as the application uses it, over every combination of
+ * row count, column count and quoting density.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    @Param({"5", "50"})
+    private int columns;
+
+    @Param({"0.0", "0.2"})
+    private double quoteDensity;
+
+    private final CSVToJSONConverter csvToJson = new CSVToJSONConverter();
+    private final JSONToCSVConverter jsonToCsv = new JSONToCSVConverter();
+    private final JSONToXMLConverter jsonToXml = new JSONToXMLConverter();
+    private final CSVToExcelConverter csvToExcel = new CSVToExcelConverter();
+
+    private Path directory;
+    private File csvFile;
+    private File jsonFile;
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void createInputs() throws IOException {
+        directory = Files.createTempDirectory("converter-benchmark");
+        csvFile = directory.resolve("input.csv").toFile();
+        jsonFile = directory.resolve("input.json").toFile();
+        outputFile = directory.resolve("output").toFile();
+        Datasets.writeCSV(csvFile.toPath(), rows, columns, quoteDensity);
+        Datasets.writeJSON(jsonFile.toPath(), rows, columns, quoteDensity);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInputs() throws IOException {
+        Files.deleteIfExists(csvFile.toPath());
+        Files.deleteIfExists(jsonFile.toPath());
+        Files.deleteIfExists(outputFile.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public File csvToJson() throws Exception {
+        csvToJson.convert(csvFile, outputFile);
+        return outputFile;
+    }
+
+    @Benchmark
+    public File jsonToCsv() throws Exception {
+        jsonToCsv.convert(jsonFile, outputFile);
+        return outputFile;
+    }
+
+    @Benchmark
+    public File jsonToXml() throws Exception {
+        jsonToXml.convert(jsonFile, outputFile);
+        return outputFile;
+    }
+
+    @Benchmark
+    public File csvToExcel() throws Exception {
+        csvToExcel.convert(csvFile, outputFile);
+        return outputFile;
+    }
+}
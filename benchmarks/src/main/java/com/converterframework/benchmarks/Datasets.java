@@ -0,0 +1,139 @@
+package com.converterframework.benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates benchmark input files of a controlled size and shape.
+ * Values are drawn from a fixed seed, so every run of a benchmark sees the same data.
+ * The quoting density is the fraction of values that contain a delimiter, quote or line break
+ * and therefore need quoting in CSV.
+ */
+public class Datasets {
+
+    private static final long SEED = 20240101L;
+    private static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel", "india", "juliet"
+    };
+
+    /**
+     * Writes a CSV file with a header row.
+     *
+     * @param file the file to write
+     * @param rows the number of data rows
+     * @param columns the number of columns
+     * @param quoteDensity the fraction of values that need quoting, from 0 to 1
+     * @throws IOException if writing fails
+     */
+    public static void writeCSV(Path file, int rows, int columns, double quoteDensity) throws IOException {
+        Random random = new Random(SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int c = 0; c < columns; c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                writer.write(columnName(c));
+            }
+            writer.newLine();
+
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    if (c > 0) {
+                        writer.write(',');
+                    }
+                    String value = value(random, r, c, quoteDensity);
+                    if (needsQuotes(value)) {
+                        writer.write('"');
+                        writer.write(value.replace("\"", "\"\""));
+                        writer.write('"');
+                    } else {
+                        writer.write(value);
+                    }
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes a JSON array of flat objects with the same values as {@link #writeCSV}.
+     *
+     * @param file the file to write
+     * @param rows the number of objects
+     * @param columns the number of fields per object
+     * @param quoteDensity the fraction of values containing a delimiter, quote or line break
+     * @throws IOException if writing fails
+     */
+    public static void writeJSON(Path file, int rows, int columns, double quoteDensity) throws IOException {
+        Random random = new Random(SEED);
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+            for (int r = 0; r < rows; r++) {
+                generator.writeStartObject();
+                for (int c = 0; c < columns; c++) {
+                    generator.writeStringField(columnName(c), value(random, r, c, quoteDensity));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes a plain text file of sentence-like lines.
+     *
+     * @param file the file to write
+     * @param lines the number of lines
+     * @throws IOException if writing fails
+     */
+    public static void writeText(Path file, int lines) throws IOException {
+        Random random = new Random(SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                int words = 4 + random.nextInt(12);
+                for (int w = 0; w < words; w++) {
+                    if (w > 0) {
+                        writer.write(' ');
+                    }
+                    writer.write(WORDS[random.nextInt(WORDS.length)]);
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String columnName(int column) {
+        return "column" + (column + 1);
+    }
+
+    /**
+     * Produces a mix of integers, decimals and words, with a share of values that need quoting.
+     */
+    private static String value(Random random, int row, int column, double quoteDensity) {
+        if (random.nextDouble() < quoteDensity) {
+            return switch (random.nextInt(3)) {
+                case 0 -> WORDS[random.nextInt(WORDS.length)] + ", " + WORDS[random.nextInt(WORDS.length)];
+                case 1 -> "say \"" + WORDS[random.nextInt(WORDS.length)] + "\"";
+                default -> WORDS[random.nextInt(WORDS.length)] + "\n" + row;
+            };
+        }
+        return switch (column % 3) {
+            case 0 -> Integer.toString(row * 31 + column);
+            case 1 -> Double.toString(random.nextInt(100000) / 100.0);
+            default -> WORDS[random.nextInt(WORDS.length)];
+        };
+    }
+
+    private static boolean needsQuotes(String value) {
+        return value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0;
+    }
+}
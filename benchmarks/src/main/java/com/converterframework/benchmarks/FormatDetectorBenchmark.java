@@ -0,0 +1,69 @@
+package com.converterframework.benchmarks;
+
+import com.converterframework.core.FormatDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks format detection, both on a cache hit and when the file content has to be read.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatDetectorBenchmark {
+
+    @Param({"csv", "json", "txt"})
+    private String extension;
+
+    private Path directory;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void createInput() throws IOException {
+        directory = Files.createTempDirectory("detector-benchmark");
+        file = directory.resolve("input." + extension).toFile();
+        switch (extension) {
+            case "csv" -> Datasets.writeCSV(file.toPath(), 100, 10, 0.1);
+            case "json" -> Datasets.writeJSON(file.toPath(), 100, 10, 0.1);
+            default -> Datasets.writeText(file.toPath(), 100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        FormatDetector.clearCache();
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String detectCached() {
+        return FormatDetector.detectFormat(file);
+    }
+
+    @Benchmark
+    public String detectUncached() {
+        FormatDetector.invalidate(file);
+        return FormatDetector.detectFormat(file);
+    }
+}
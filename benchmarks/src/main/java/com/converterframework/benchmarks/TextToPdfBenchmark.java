@@ -0,0 +1,64 @@
+package com.converterframework.benchmarks;
+
+import com.converterframework.converters.TextToPDFConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the text to PDF converter over generated text files.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextToPdfBenchmark {
+
+    @Param({"100", "10000"})
+    private int lines;
+
+    private final TextToPDFConverter textToPdf = new TextToPDFConverter();
+
+    private Path directory;
+    private File textFile;
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void createInput() throws IOException {
+        directory = Files.createTempDirectory("pdf-benchmark");
+        textFile = directory.resolve("input.txt").toFile();
+        outputFile = directory.resolve("output.pdf").toFile();
+        Datasets.writeText(textFile.toPath(), lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(textFile.toPath());
+        Files.deleteIfExists(outputFile.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public File textToPdf() throws Exception {
+        textToPdf.convert(textFile, outputFile);
+        return outputFile;
+    }
+}
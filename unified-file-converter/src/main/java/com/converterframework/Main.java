@@ -1,26 +1,45 @@
 package com.converterframework;
 
+import com.converterframework.cli.CommandLineRunner;
 import com.converterframework.core.ConversionManager;
-import com.converterframework.converters.*;
+import com.converterframework.interfaces.ConverterProvider;
 import com.converterframework.ui.MainFrame;
 
 import javax.swing.*;
+import java.util.ServiceLoader;
 
 /**
  * Main class to launch the application.
+ * With no arguments the GUI is started; with arguments the converter runs headless
+ * in batch mode (see {@link CommandLineRunner}).
  */
 public class Main {
 
     public static void main(String[] args) {
-        // Create and configure the conversion manager
+        if (args.length > 0) {
+            // Batch mode never touches AWT, so it also runs on machines without a display
+            System.setProperty("java.awt.headless", "true");
+            int exitCode = new CommandLineRunner(createConversionManager()).run(args);
+            System.exit(exitCode);
+        }
+
+        launchGui(createConversionManager());
+    }
+
+    /**
+     * Creates a conversion manager with every converter found on the class path registered.
+     * Converters are discovered through {@link ConverterProvider} services and created on
+     * first use, so startup does not load the libraries behind them.
+     */
+    public static ConversionManager createConversionManager() {
         ConversionManager conversionManager = new ConversionManager();
-        conversionManager.registerConverter(new CSVToJSONConverter());
-        conversionManager.registerConverter(new JSONToCSVConverter());
-        conversionManager.registerConverter(new JSONToXMLConverter());
-        conversionManager.registerConverter(new CSVToExcelConverter());
-        conversionManager.registerConverter(new TextToPDFConverter());
+        for (ConverterProvider provider : ServiceLoader.load(ConverterProvider.class)) {
+            conversionManager.registerProvider(provider);
+        }
+        return conversionManager;
+    }
 
-        // Launch the GUI
+    private static void launchGui(ConversionManager conversionManager) {
         SwingUtilities.invokeLater(() -> {
             MainFrame mainFrame = new MainFrame(conversionManager);
             mainFrame.setVisible(true);
@@ -0,0 +1,491 @@
+package com.converterframework.cli;
+
+import com.converterframework.core.CheckpointStore;
+import com.converterframework.core.ConversionCache;
+import com.converterframework.core.ConversionJob;
+import com.converterframework.core.ConversionManager;
+import com.converterframework.core.ConversionProgress;
+import com.converterframework.core.ConversionResult;
+import com.converterframework.core.FormatDetector;
+import com.converterframework.core.LoggerService;
+import com.converterframework.core.WatchFolderService;
+import com.converterframework.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch mode for running conversions from scripts and build pipelines.
+ * Inputs may be files, directories or glob patterns; formats are detected per file and
+ * the jobs run in parallel on a fixed number of worker threads. With {@code --watch} it keeps
+ * running and converts files as they land in an inbox directory.
+ * Does not touch any AWT or Swing classes.
+ */
+public class CommandLineRunner {
+
+    /**
+     * Exit code when every conversion succeeded.
+     */
+    public static final int EXIT_SUCCESS = 0;
+
+    /**
+     * Exit code when at least one conversion failed.
+     */
+    public static final int EXIT_FAILURE = 1;
+
+    /**
+     * Exit code for invalid arguments.
+     */
+    public static final int EXIT_USAGE = 2;
+
+    /**
+     * Default size budget of the conversion cache in megabytes.
+     */
+    public static final int DEFAULT_CACHE_SIZE_MB = 1024;
+
+    /**
+     * How long Ctrl+C waits for cancelled conversions to delete their partial outputs.
+     */
+    private static final int CANCEL_WAIT_SECONDS = 5;
+
+    private static final String USAGE =
+        "Usage: java -jar unified-file-converter.jar --to FORMAT [options] <file|directory|glob>...\n"
+        + "       java -jar unified-file-converter.jar --to FORMAT --watch INBOX [options]\n"
+        + "\n"
+        + "Options:\n"
+        + "  --to FORMAT      target format: CSV, JSON, XML, EXCEL, TEXT or PDF\n"
+        + "  --from FORMAT    source format (default: detected for each file)\n"
+        + "  --out DIR        output directory (default: next to each input file)\n"
+        + "  --workers N      number of parallel conversions (default: available processors)\n"
+        + "  --watch DIR      keep running and convert every file that lands in DIR\n"
+        + "  --processed DIR  where --watch moves converted inputs (default: INBOX/processed)\n"
+        + "  --failed DIR     where --watch moves inputs that failed (default: INBOX/failed)\n"
+        + "  --queue N        files --watch may queue before it stops picking up more (default: "
+        + WatchFolderService.DEFAULT_QUEUE_CAPACITY + ")\n"
+        + "  --cache DIR      reuse outputs of earlier conversions of the same content, cached in DIR\n"
+        + "  --cache-size MB  size budget of the cache (default: " + DEFAULT_CACHE_SIZE_MB + ")\n"
+        + "  --checkpoints DIR\n"
+        + "                   convert only the rows added to CSV inputs since the last run, keeping\n"
+        + "                   checkpoints in DIR\n"
+        + "  --help           show this message\n"
+        + "\n"
+        + "Files found in directories or through glob patterns are skipped when their format\n"
+        + "cannot be converted to the target format. In glob patterns, **/ matches any number of\n"
+        + "directories, including none; a pattern that matches no file is reported as an error.\n"
+        + "Inputs that would be converted to the same output file, or onto another input, are\n"
+        + "reported as an error.";
+
+    private final ConversionManager conversionManager;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private String toFormat;
+    private String fromFormat;
+    private File outputDir;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private File watchDir;
+    private File processedDir;
+    private File failedDir;
+    private int queueCapacity = WatchFolderService.DEFAULT_QUEUE_CAPACITY;
+    private File cacheDir;
+    private int cacheSizeMb = DEFAULT_CACHE_SIZE_MB;
+    private File checkpointDir;
+    private final List<String> inputs = new ArrayList<>();
+
+    public CommandLineRunner(ConversionManager conversionManager) {
+        this(conversionManager, System.out, System.err);
+    }
+
+    public CommandLineRunner(ConversionManager conversionManager, PrintStream out, PrintStream err) {
+        this.conversionManager = conversionManager;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Parses the arguments, runs the conversions and prints a summary.
+     *
+     * @param args the command-line arguments
+     * @return the process exit code
+     */
+    public int run(String[] args) {
+        try {
+            if (!parseArguments(args)) {
+                out.println(USAGE);
+                return EXIT_SUCCESS;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (cacheDir != null) {
+            try {
+                conversionManager.setCache(new ConversionCache(cacheDir.toPath(), cacheSizeMb * 1024L * 1024L));
+            } catch (IOException e) {
+                err.println("Error: cannot open cache " + cacheDir + ": " + e.getMessage());
+                return EXIT_USAGE;
+            }
+        }
+        if (checkpointDir != null) {
+            try {
+                conversionManager.setCheckpointStore(new CheckpointStore(checkpointDir.toPath()));
+            } catch (IOException e) {
+                err.println("Error: cannot open checkpoint directory " + checkpointDir + ": " + e.getMessage());
+                return EXIT_USAGE;
+            }
+        }
+
+        if (watchDir != null) {
+            return watch();
+        }
+
+        List<ConversionJob> jobs;
+        try {
+            jobs = collectJobs();
+        } catch (IllegalArgumentException | IOException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        if (jobs.isEmpty()) {
+            err.println("No files to convert to " + toFormat);
+            return EXIT_FAILURE;
+        }
+
+        long inputBytes = 0;
+        for (ConversionJob job : jobs) {
+            inputBytes += job.getInputFile().length();
+        }
+
+        // Ctrl+C cancels the running conversions, so they do not leave partial outputs behind
+        ConversionProgress progress = new ConversionProgress();
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread cancelHook = new Thread(() -> {
+            progress.cancel();
+            try {
+                finished.await(CANCEL_WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "conversion-cancel");
+        Runtime.getRuntime().addShutdownHook(cancelHook);
+
+        long startTime = System.nanoTime();
+        List<ConversionResult> results;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, jobs.size()));
+        try {
+            results = conversionManager.convertBatch(jobs, executor, progress);
+        } finally {
+            executor.shutdown();
+            finished.countDown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(cancelHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        int failed = 0;
+        for (ConversionResult result : results) {
+            ConversionJob job = result.getJob();
+            if (result.isSuccess()) {
+                out.println("OK      " + job.getInputFile().getPath() + " -> " + job.getOutputFile().getPath());
+            } else {
+                failed++;
+                err.println("FAILED  " + job.getInputFile().getPath() + ": " + result.getErrorMessage());
+            }
+        }
+
+        printSummary(results.size(), failed, inputBytes, elapsedNanos);
+        LoggerService.flush();
+        return failed == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+    }
+
+    /**
+     * Reads options and inputs.
+     *
+     * @return false if help was requested
+     */
+    private boolean parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help", "-h" -> {
+                    return false;
+                }
+                case "--to" -> toFormat = parseFormat(arg, value(args, ++i, arg));
+                case "--from" -> fromFormat = parseFormat(arg, value(args, ++i, arg));
+                case "--out" -> outputDir = new File(value(args, ++i, arg));
+                case "--workers" -> workers = parsePositive(arg, value(args, ++i, arg));
+                case "--watch" -> watchDir = new File(value(args, ++i, arg));
+                case "--processed" -> processedDir = new File(value(args, ++i, arg));
+                case "--failed" -> failedDir = new File(value(args, ++i, arg));
+                case "--queue" -> queueCapacity = parsePositive(arg, value(args, ++i, arg));
+                case "--cache" -> cacheDir = new File(value(args, ++i, arg));
+                case "--cache-size" -> cacheSizeMb = parsePositive(arg, value(args, ++i, arg));
+                case "--checkpoints" -> checkpointDir = new File(value(args, ++i, arg));
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    inputs.add(arg);
+                }
+            }
+        }
+
+        if (toFormat == null) {
+            throw new IllegalArgumentException("--to is required");
+        }
+        if (watchDir != null && !inputs.isEmpty()) {
+            throw new IllegalArgumentException("--watch cannot be combined with input files");
+        }
+        if (watchDir == null && inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input files given");
+        }
+        return true;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " requires a value");
+        }
+        return args[index];
+    }
+
+    private static int parsePositive(String option, String value) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " must be a number: " + value);
+        }
+        if (number < 1) {
+            throw new IllegalArgumentException(option + " must be at least 1");
+        }
+        return number;
+    }
+
+    private static String parseFormat(String option, String value) {
+        String format = value.toUpperCase(Locale.ROOT);
+        if (FileUtils.getFormatExtension(format) == null) {
+            throw new IllegalArgumentException("Unsupported format for " + option + ": " + value);
+        }
+        return format;
+    }
+
+    /**
+     * Runs the watch folder service until the process is stopped.
+     */
+    private int watch() {
+        Path inbox = watchDir.toPath();
+        WatchFolderService service = new WatchFolderService(conversionManager, toFormat, inbox,
+            outputDir != null ? outputDir.toPath() : inbox.resolve("output"),
+            processedDir != null ? processedDir.toPath() : inbox.resolve("processed"),
+            failedDir != null ? failedDir.toPath() : inbox.resolve("failed"));
+        service.setWorkers(workers);
+        service.setQueueCapacity(queueCapacity);
+        service.setListener(result -> {
+            ConversionJob job = result.getJob();
+            if (result.isSuccess()) {
+                out.println("OK      " + job.getInputFile().getName() + " -> " + job.getOutputFile().getPath()
+                    + " (" + result.getDurationMillis() + " ms)");
+            } else {
+                err.println("FAILED  " + job.getInputFile().getName() + ": " + result.getErrorMessage());
+            }
+        });
+
+        try {
+            service.start();
+        } catch (IOException e) {
+            err.println("Error: cannot watch " + inbox + ": " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop, "watch-folder-shutdown"));
+        out.println("Watching " + inbox.toAbsolutePath() + " for files to convert to " + toFormat + " (Ctrl+C to stop)");
+
+        while (service.isRunning()) {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        service.stop();
+        return service.getFailedCount() == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+    }
+
+    /**
+     * Expands the inputs into one job per file.
+     */
+    private List<ConversionJob> collectJobs() throws IOException {
+        if (outputDir != null) {
+            Files.createDirectories(outputDir.toPath());
+        }
+
+        List<ConversionJob> jobs = new ArrayList<>();
+        Set<Path> seen = new LinkedHashSet<>();
+        for (String input : inputs) {
+            File file = new File(input);
+            if (file.isFile()) {
+                if (seen.add(normalize(file))) {
+                    jobs.add(createJob(file, fromFormat != null ? fromFormat : FormatDetector.detectFormat(file)));
+                }
+            } else {
+                for (File found : expand(input)) {
+                    String format = fromFormat != null ? fromFormat : FormatDetector.detectFormat(found);
+                    if (conversionManager.isConversionSupported(format, toFormat) && seen.add(normalize(found))) {
+                        jobs.add(createJob(found, format));
+                    }
+                }
+            }
+        }
+        checkOutputs(jobs);
+        return jobs;
+    }
+
+    /**
+     * Checks that no two jobs write the same output and that no job overwrites an input of
+     * another, as concurrent jobs would otherwise overwrite each other's results.
+     */
+    private static void checkOutputs(List<ConversionJob> jobs) {
+        Map<Path, File> inputFiles = new HashMap<>();
+        for (ConversionJob job : jobs) {
+            inputFiles.put(normalize(job.getInputFile()), job.getInputFile());
+        }
+        Map<Path, File> outputs = new HashMap<>();
+        for (ConversionJob job : jobs) {
+            Path output = normalize(job.getOutputFile());
+            File other = outputs.putIfAbsent(output, job.getInputFile());
+            if (other != null) {
+                throw new IllegalArgumentException(other.getPath() + " and " + job.getInputFile().getPath()
+                    + " would both be converted to " + job.getOutputFile().getPath());
+            }
+            File input = inputFiles.get(output);
+            if (input != null) {
+                throw new IllegalArgumentException("Converting " + job.getInputFile().getPath()
+                    + " would overwrite the input " + input.getPath());
+            }
+        }
+    }
+
+    private static Path normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private ConversionJob createJob(File inputFile, String format) {
+        File dir = outputDir != null ? outputDir : inputFile.getAbsoluteFile().getParentFile();
+        String name = FileUtils.getFilenameWithoutExtension(inputFile.getName()) + "." + FileUtils.getFormatExtension(toFormat);
+        return new ConversionJob(inputFile, new File(dir, name), format, toFormat);
+    }
+
+    /**
+     * Lists the regular files in a directory, or the files matching a glob pattern.
+     * As in shells, {@code **}{@code /} in a pattern also matches no directory at all, so
+     * {@code reports/**}{@code /*.csv} includes the files directly in {@code reports}.
+     *
+     * @throws IllegalArgumentException if the input does not exist or a pattern matches no file
+     */
+    private static Set<File> expand(String input) throws IOException {
+        Set<File> files = new LinkedHashSet<>();
+        Path path = Paths.get(input);
+
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> entries = Files.list(path)) {
+                entries.filter(Files::isRegularFile).sorted().forEach(p -> files.add(p.toFile()));
+            }
+            return files;
+        }
+
+        int firstGlob = indexOfGlob(input);
+        if (firstGlob < 0) {
+            throw new IllegalArgumentException("Input not found: " + input);
+        }
+
+        // Walk from the deepest directory that contains no glob characters
+        int separator = Math.max(input.lastIndexOf('/', firstGlob), input.lastIndexOf(File.separatorChar, firstGlob));
+        Path base = separator >= 0 ? Paths.get(input.substring(0, separator + 1)) : Paths.get("");
+        String pattern = input.substring(separator + 1);
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String variant : withoutEmptyDirectories(pattern)) {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + variant));
+        }
+
+        Path start = base.toString().isEmpty() ? Paths.get(".") : base;
+        if (Files.isDirectory(start)) {
+            try (Stream<Path> entries = Files.walk(start)) {
+                entries.filter(Files::isRegularFile)
+                    .filter(p -> matchers.stream().anyMatch(matcher -> matcher.matches(start.relativize(p))))
+                    .sorted()
+                    .forEach(p -> files.add(p.toFile()));
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No files match " + input);
+        }
+        return files;
+    }
+
+    /**
+     * Lists a glob pattern together with every pattern made by dropping some of its
+     * {@code **}{@code /} parts, as a {@link PathMatcher} only matches them with at least one directory.
+     */
+    private static Set<String> withoutEmptyDirectories(String pattern) {
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(pattern);
+        int index = pattern.indexOf("**/");
+        while (index >= 0) {
+            if (index == 0 || pattern.charAt(index - 1) == '/') {
+                String dropped = pattern.substring(0, index) + pattern.substring(index + 3);
+                variants.addAll(withoutEmptyDirectories(dropped));
+            }
+            index = pattern.indexOf("**/", index + 1);
+        }
+        return variants;
+    }
+
+    private static int indexOfGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void printSummary(int total, int failed, long inputBytes, long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        out.println();
+        out.printf(Locale.ROOT, "Converted %d of %d files (%d failed) in %.2f s%n", total - failed, total, failed, seconds);
+        out.printf(Locale.ROOT, "Throughput: %.1f files/sec, %.2f MB/sec (%s read)%n",
+            total / seconds, inputBytes / (1024.0 * 1024.0) / seconds, FileUtils.formatFileSize(inputBytes));
+
+        ConversionCache cache = conversionManager.getCache();
+        if (cache != null) {
+            out.printf(Locale.ROOT, "Cache: %d hits, %d misses, %s of %s used%n", cache.getHitCount(),
+                cache.getMissCount(), FileUtils.formatFileSize(cache.getSize()), FileUtils.formatFileSize(cache.getMaxBytes()));
+        }
+    }
+}
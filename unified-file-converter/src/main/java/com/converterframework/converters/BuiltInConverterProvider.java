@@ -0,0 +1,77 @@
+package com.converterframework.converters;
+
+import com.converterframework.core.ConverterCapabilities;
+import com.converterframework.core.ConverterDescriptor;
+import com.converterframework.interfaces.ConverterProvider;
+import com.converterframework.records.RecordFormats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides the converters that ship with the application.
+ */
+public class BuiltInConverterProvider implements ConverterProvider {
+
+    // Relative ranking hints on a rough MB/s scale, not measurements. No two built-in converters
+    // handle the same conversion, so the values only rank the built-in converters against those
+    // of other providers. They must keep this order: text conversions above conversions that
+    // read or write workbooks, above rendering documents; and among text conversions, the
+    // dedicated converters above the generic record converter.
+    private static final double DEDICATED_TEXT_MBPS = 50;
+    private static final double RECORD_TEXT_MBPS = 30;
+    private static final double WORKBOOK_MBPS = 5;
+    private static final double DOCUMENT_MBPS = 2;
+
+    @Override
+    public List<ConverterDescriptor> getConverters() {
+        List<ConverterDescriptor> descriptors = new ArrayList<>();
+        descriptors.add(new ConverterDescriptor("CSV to JSON Converter", "CSV", "JSON", streaming(DEDICATED_TEXT_MBPS),
+            () -> new CSVToJSONConverter()));
+        descriptors.add(new ConverterDescriptor("JSON to CSV Converter", "JSON", "CSV", streaming(DEDICATED_TEXT_MBPS),
+            () -> new JSONToCSVConverter()));
+        descriptors.add(new ConverterDescriptor("JSON to XML Converter", "JSON", "XML", streaming(DEDICATED_TEXT_MBPS),
+            () -> new JSONToXMLConverter()));
+        descriptors.add(new ConverterDescriptor("CSV to Excel Converter", "CSV", "EXCEL", streaming(WORKBOOK_MBPS),
+            () -> new CSVToExcelConverter()));
+        descriptors.add(new ConverterDescriptor("Text to PDF Converter", "TEXT", "PDF", streaming(DOCUMENT_MBPS),
+            () -> new TextToPDFConverter()));
+
+        // Generic record conversions for the remaining pairs. They flatten nested values into
+        // strings, so they do not compete with the dedicated converters above. Every pair of
+        // record formats thus has a direct converter, and built-in conversions no longer chain
+        // converters through a pipeline; chains only form with converters of other providers.
+        for (String from : RecordFormats.getFormats()) {
+            for (String to : RecordFormats.getFormats()) {
+                if (!from.equals(to) && !covers(descriptors, from, to)) {
+                    descriptors.add(new ConverterDescriptor(from + " to " + to + " Record Converter", from, to,
+                        streaming(recordThroughput(from, to)), () -> new RecordConverter(from, to)));
+                }
+            }
+        }
+        return descriptors;
+    }
+
+    private static ConverterCapabilities streaming(double expectedMBps) {
+        return new ConverterCapabilities().streaming(true).expectedMBps(expectedMBps);
+    }
+
+    private static boolean covers(List<ConverterDescriptor> descriptors, String from, String to) {
+        for (ConverterDescriptor descriptor : descriptors) {
+            if (descriptor.supportsFormat(from, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ranks a record conversion by its slower side.
+     */
+    private static double recordThroughput(String from, String to) {
+        if ("EXCEL".equals(from) || "EXCEL".equals(to)) {
+            return WORKBOOK_MBPS;
+        }
+        return RECORD_TEXT_MBPS;
+    }
+}
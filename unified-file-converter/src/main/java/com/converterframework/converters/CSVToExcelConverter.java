@@ -1,22 +1,52 @@
 package com.converterframework.converters;
 
-import com.converterframework.interfaces.FileConverter;
+import com.converterframework.core.ConversionContext;
+import com.converterframework.interfaces.StreamConverter;
+import com.converterframework.utils.CSVRecordReader;
+import com.converterframework.utils.ExcelSheetWriter;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.List;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
 
 /**
  * Converter for CSV to Excel (XLSX) format.
+ * Rows are streamed through an SXSSF workbook that keeps only a small window of rows
+ * in memory and spills the rest to temporary files. Numeric, boolean and date values
+ * are written as typed cells, and data that does not fit on one sheet continues on a new one.
  */
-public class CSVToExcelConverter implements FileConverter {
+public class CSVToExcelConverter implements StreamConverter {
+
+    /**
+     * Default number of rows kept in memory before they are flushed to disk.
+     */
+    public static final int DEFAULT_ROW_WINDOW = ExcelSheetWriter.DEFAULT_ROW_WINDOW;
+
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]{0,14})(\\.[0-9]+)?([eE][-+]?[0-9]{1,3})?");
+
+    private final int rowWindow;
+
+    public CSVToExcelConverter() {
+        this(DEFAULT_ROW_WINDOW);
+    }
+
+    /**
+     * Creates a converter with a custom in-memory row window.
+     *
+     * @param rowWindow the number of rows kept in memory
+     */
+    public CSVToExcelConverter(int rowWindow) {
+        if (rowWindow < 1) {
+            throw new IllegalArgumentException("Row window must be at least 1");
+        }
+        this.rowWindow = rowWindow;
+    }
 
     @Override
     public boolean supportsFormat(String from, String to) {
@@ -24,32 +54,37 @@ public class CSVToExcelConverter implements FileConverter {
     }
 
     @Override
-    public void convert(File inputFile, File outputFile) throws IOException {
-        if (!inputFile.exists() || !inputFile.canRead()) {
-            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
-        }
-
-        List<String> lines = Files.readAllLines(inputFile.toPath());
-        if (lines.isEmpty()) {
+    public void convert(File inputFile, File outputFile) throws Exception {
+        if (inputFile.exists() && inputFile.length() == 0) {
             throw new IllegalArgumentException("Input file is empty");
         }
+        StreamConverter.super.convert(inputFile, outputFile);
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Data");
-
-            for (int i = 0; i < lines.size(); i++) {
-                String[] values = lines.get(i).split(","); // Simple CSV split
-                Row row = sheet.createRow(i);
+    @Override
+    public void convert(InputStream input, OutputStream output) throws IOException {
+        try (ExcelSheetWriter sheetWriter = new ExcelSheetWriter(rowWindow)) {
+            // Not closed, so the caller's stream stays open
+            CSVRecordReader reader = new CSVRecordReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String[] header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("No valid data found in CSV file");
+            }
+            for (String name : header) {
+                sheetWriter.addColumn(name);
+            }
 
-                for (int j = 0; j < values.length; j++) {
-                    Cell cell = row.createCell(j);
-                    cell.setCellValue(values[j]);
+            String[] values;
+            long records = 0;
+            while ((values = reader.readRecord()) != null) {
+                writeRow(sheetWriter, values);
+                if (++records % ConversionContext.RECORD_BATCH == 0) {
+                    ConversionContext.recordsProcessed(ConversionContext.RECORD_BATCH);
                 }
             }
+            ConversionContext.recordsProcessed(records % ConversionContext.RECORD_BATCH);
 
-            try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-                workbook.write(fos);
-            }
+            sheetWriter.write(output);
         }
     }
 
@@ -57,4 +92,27 @@ public class CSVToExcelConverter implements FileConverter {
     public String getConverterName() {
         return "CSV to Excel Converter";
     }
+
+    private static void writeRow(ExcelSheetWriter sheetWriter, String[] values) {
+        Row row = sheetWriter.createRow();
+        for (int j = 0; j < values.length; j++) {
+            String value = values[j];
+            if (!value.isEmpty()) {
+                setTypedValue(sheetWriter, row.createCell(j), value);
+            }
+        }
+    }
+
+    /**
+     * Writes a value as a number, boolean or date when it looks like one, otherwise as text.
+     */
+    private static void setTypedValue(ExcelSheetWriter sheetWriter, Cell cell, String value) {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            cell.setCellValue(Boolean.parseBoolean(value));
+        } else if (NUMBER.matcher(value).matches()) {
+            cell.setCellValue(Double.parseDouble(value));
+        } else {
+            sheetWriter.setText(cell, value);
+        }
+    }
 }
@@ -1,21 +1,89 @@
 package com.converterframework.converters;
 
-import com.converterframework.interfaces.FileConverter;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.converterframework.core.ConversionCheckpoint;
+import com.converterframework.core.ConversionContext;
+import com.converterframework.interfaces.IncrementalConverter;
+import com.converterframework.interfaces.StreamConverter;
+import com.converterframework.utils.CSVRecordReader;
+import com.converterframework.utils.MappedCSVTokenizer;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Converter for CSV to JSON format.
+ * Records are read one at a time and written straight to a JSON generator,
+ * so memory use does not depend on the size of the input file.
+ * Files are read through a memory-mapped tokenizer that copies field bytes to the generator
+ * without creating a string per value. Large files are split into chunks at record boundaries
+ * and the chunks are converted in parallel, then written in their original order.
+ * When a file has only grown since an earlier conversion, the new records can be appended to
+ * the existing output by replacing its closing bracket.
  */
-public class CSVToJSONConverter implements FileConverter {
+public class CSVToJSONConverter implements StreamConverter, IncrementalConverter {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Default number of bytes of CSV converted by one parallel task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Expected size of the JSON output held for chunks in flight, as JSON is usually about twice
+     * the size of the CSV it comes from.
+     */
+    private static final long MAX_PENDING_BYTES = 256L * 1024 * 1024;
+
+    private static final byte[] ARRAY_START = "[ ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARRAY_END = " ]".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARRAY_SEPARATOR = ", ".getBytes(StandardCharsets.US_ASCII);
+
+    private final JsonFactory jsonFactory = new JsonFactory()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final int chunkSize;
+
+    public CSVToJSONConverter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a converter that splits files larger than two chunks into parallel tasks.
+     *
+     * @param chunkSize the number of bytes of CSV converted by one task
+     */
+    public CSVToJSONConverter(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+    }
 
     @Override
     public boolean supportsFormat(String from, String to) {
@@ -24,49 +92,443 @@ public class CSVToJSONConverter implements FileConverter {
 
     @Override
     public void convert(File inputFile, File outputFile) throws Exception {
-        if (!inputFile.exists() || !inputFile.canRead()) {
-            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
+        convertFile(inputFile, outputFile);
+    }
+
+    @Override
+    public ConversionCheckpoint convert(File inputFile, File outputFile, ConversionCheckpoint checkpoint)
+            throws Exception {
+        if (checkpoint != null && inputFile.isFile() && MappedCSVTokenizer.isMappingReleasable()
+                && checkpoint.matches(inputFile.toPath()) && endsWith(outputFile.toPath(), ARRAY_END)) {
+            return append(inputFile.toPath(), outputFile.toPath(), checkpoint);
         }
+        return convertFile(inputFile, outputFile);
+    }
 
-        List<String> lines = Files.readAllLines(inputFile.toPath());
-        if (lines.isEmpty()) {
+    /**
+     * Converts the whole input file.
+     *
+     * @return a checkpoint at the end of the file, or null if it cannot be continued
+     */
+    private ConversionCheckpoint convertFile(File inputFile, File outputFile) throws Exception {
+        if (inputFile.exists() && inputFile.length() == 0) {
             throw new IllegalArgumentException("Input file is empty");
         }
+        // Mappings that outlive the conversion would keep the input locked on Windows
+        if (!inputFile.isFile() || !inputFile.canRead() || !MappedCSVTokenizer.isMappingReleasable()) {
+            StreamConverter.super.convert(inputFile, outputFile);
+            return null;
+        }
 
-        // Parse CSV
-        List<String[]> csvData = parseCSV(lines);
-        if (csvData.isEmpty()) {
+        // Files are tokenized straight from mapped memory without decoding to strings
+        try (MappedCSVTokenizer tokenizer = new MappedCSVTokenizer(inputFile.toPath());
+             OutputStream out = new BufferedOutputStream(ConversionContext.meter(new FileOutputStream(outputFile)))) {
+            tokenizer.setWindowListener(ConversionContext::windowMapped);
+            return convert(inputFile.toPath(), tokenizer, out);
+        }
+    }
+
+    /**
+     * Converts CSV from a mapped file tokenizer, writing each field's UTF-8 bytes directly.
+     * Produces the same output as the stream conversion.
+     *
+     * @return a checkpoint at the end of the file, or null if it cannot be continued
+     */
+    private ConversionCheckpoint convert(Path file, MappedCSVTokenizer tokenizer, OutputStream output)
+            throws IOException {
+        if (!tokenizer.nextRecord()) {
             throw new IllegalArgumentException("No valid data found in CSV file");
         }
+        String[] first = tokenizer.getFieldStrings();
+        long dataStart = tokenizer.getPosition();
+        boolean hasHeader = tokenizer.nextRecord();
+
+        long dataSize = Files.size(file) - dataStart;
+        if (hasHeader && dataSize > 2L * chunkSize && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return convertChunks(file, new FieldLayout(first), dataStart, output);
+        }
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+
+            if (hasHeader) {
+                ConversionContext.bytesConsumed(dataStart);
+                long lastRecordStart = writeRecords(generator, new FieldLayout(first), tokenizer, dataStart);
+                generator.writeEndArray();
+
+                long records = tokenizer.getRecordCount() - 1;
+                return checkpointAt(file, dataStart, lastRecordStart, tokenizer.getPosition(), records);
+            }
+
+            // No header, treat as single row
+            String[] headers = new String[first.length];
+            for (int i = 0; i < headers.length; i++) {
+                headers[i] = "field" + (i + 1);
+            }
+            writeRecord(generator, new FieldLayout(headers), first);
+            ConversionContext.recordsProcessed(1);
+            generator.writeEndArray();
+            return null;
+        }
+    }
+
+    /**
+     * Converts the records added after a checkpoint and appends them to the output array.
+     * The closing bracket of the output is overwritten by the new records, followed by a new one.
+     * If the append fails or is cancelled, the output is truncated back and its closing bracket
+     * restored, so it is left as it was.
+     *
+     * @return a checkpoint at the new end of the file, or null if it cannot be continued
+     */
+    private ConversionCheckpoint append(Path file, Path outputFile, ConversionCheckpoint checkpoint)
+            throws IOException {
+        long headerLength = checkpoint.getHeaderLength();
+        long offset = checkpoint.getInputOffset();
+        FieldLayout layout;
+        try (MappedCSVTokenizer header = new MappedCSVTokenizer(file, 0, headerLength)) {
+            if (!header.nextRecord()) {
+                throw new IllegalStateException("Checkpoint header is missing from " + file);
+            }
+            layout = new FieldLayout(header.getFieldStrings());
+        }
+        ConversionContext.resumedAt(offset);
+
+        try (MappedCSVTokenizer tokenizer = new MappedCSVTokenizer(file, offset, Long.MAX_VALUE)) {
+            tokenizer.setWindowListener(ConversionContext::windowMapped);
+            if (!tokenizer.nextRecord()) {
+                // Nothing but blank lines since the checkpoint
+                return checkpointAt(file, headerLength, offset, tokenizer.getPosition(), checkpoint.getRecordCount());
+            }
+
+            long lastRecordStart;
+            try (FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long outputSize = channel.size() - ARRAY_END.length;
+                channel.truncate(outputSize);
+                channel.position(outputSize);
+
+                try {
+                    // The new records continue the existing array, so their own opening bracket is dropped
+                    OutputStream out = new BufferedOutputStream(ConversionContext.meter(Channels.newOutputStream(channel)));
+                    out.write(ARRAY_SEPARATOR);
+                    try (JsonGenerator generator = jsonFactory.createGenerator(
+                            new SkippingOutputStream(out, ARRAY_START.length), JsonEncoding.UTF8)) {
+                        generator.useDefaultPrettyPrinter();
+                        generator.writeStartArray();
+                        lastRecordStart = writeRecords(generator, layout, tokenizer, offset);
+                        generator.writeEndArray();
+                    }
+                    out.flush();
+                } catch (IOException | RuntimeException | Error e) {
+                    restoreArrayEnd(channel, outputSize, e);
+                    throw e;
+                }
+            }
+
+            long records = tokenizer.getRecordCount();
+            return checkpointAt(file, headerLength, lastRecordStart, tokenizer.getPosition(),
+                checkpoint.getRecordCount() + records);
+        }
+    }
+
+    /**
+     * Undoes a failed append by truncating the output to its records and closing the array again.
+     * A failure to restore is added to the append's failure, which is rethrown either way.
+     *
+     * @param size the size of the output without its closing bracket
+     */
+    private static void restoreArrayEnd(FileChannel channel, long size, Throwable failure) {
+        try {
+            channel.truncate(size);
+            ByteBuffer end = ByteBuffer.wrap(ARRAY_END);
+            while (end.hasRemaining()) {
+                channel.write(end, size + end.position());
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Writes the tokenizer's current record and every record after it.
+     * Progress is reported in batches of records, which is also where the conversion can be cancelled.
+     *
+     * @param recordStart the offset the current record was read from
+     * @return the offset the last record was read from
+     */
+    private long writeRecords(JsonGenerator generator, FieldLayout layout, MappedCSVTokenizer tokenizer,
+                              long recordStart) throws IOException {
+        long lastRecordStart = recordStart;
+        long reported = recordStart;
+        int batch = 0;
+        while (true) {
+            writeRecord(generator, layout, tokenizer);
+            long nextRecordStart = tokenizer.getPosition();
+            if (++batch == ConversionContext.RECORD_BATCH) {
+                ConversionContext.bytesConsumed(nextRecordStart - reported);
+                ConversionContext.recordsProcessed(batch);
+                reported = nextRecordStart;
+                batch = 0;
+            }
+            if (!tokenizer.nextRecord()) {
+                ConversionContext.bytesConsumed(tokenizer.getPosition() - reported);
+                ConversionContext.recordsProcessed(batch);
+                return lastRecordStart;
+            }
+            lastRecordStart = nextRecordStart;
+        }
+    }
+
+    /**
+     * Takes a checkpoint at the end of the converted records if the last record is complete.
+     *
+     * @param lastRecordStart the offset the last record was read from
+     */
+    private static ConversionCheckpoint checkpointAt(Path file, long headerLength, long lastRecordStart, long end,
+                                                     long records) throws IOException {
+        boolean inQuotes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // A record that ends inside quotes has an odd number of quotes
+            inQuotes = (MappedCSVTokenizer.countQuotes(channel, lastRecordStart, end) & 1) == 1;
+        }
+        return checkpointAt(file, headerLength, end, records, inQuotes);
+    }
+
+    /**
+     * Takes a checkpoint at the end of the converted records if the last record is complete.
+     * A record is complete when it ends with a line break outside quotes; a file that ends
+     * without one may still be being written, and is converted in full next time.
+     * Outputs without records are not continued, as their array has no record to follow.
+     *
+     * @param endsInQuotes whether the converted records end inside a quoted value
+     */
+    private static ConversionCheckpoint checkpointAt(Path file, long headerLength, long end, long records,
+                                                     boolean endsInQuotes) throws IOException {
+        if (records == 0) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (endsInQuotes || !endsWithLineBreak(channel, end)) {
+                return null;
+            }
+        }
+        return ConversionCheckpoint.create(file, headerLength, end, records);
+    }
+
+    private static boolean endsWithLineBreak(FileChannel channel, long end) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        if (end == 0 || channel.read(last, end - 1) != 1) {
+            return false;
+        }
+        return last.get(0) == '\n' || last.get(0) == '\r';
+    }
+
+    private static boolean endsWith(Path file, byte[] suffix) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < suffix.length) {
+                return false;
+            }
+            ByteBuffer tail = ByteBuffer.allocate(suffix.length);
+            while (tail.hasRemaining() && channel.read(tail, size - suffix.length + tail.position()) > 0) {
+                // Read until the suffix is complete
+            }
+            return Arrays.equals(tail.array(), suffix);
+        }
+    }
+
+    /**
+     * Converts the data records of a file in parallel chunks and writes them in order.
+     * Each chunk is written as a JSON array by its own generator, and the arrays are spliced
+     * together, so the output is the same as a single generator would produce.
+     * Chunks are only started while their expected output fits in {@link #MAX_PENDING_BYTES},
+     * which bounds the memory held for output that is waiting for an earlier chunk whatever the
+     * number of processors.
+     */
+    private ConversionCheckpoint convertChunks(Path file, FieldLayout layout, long dataStart, OutputStream output)
+            throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long maxPending = Math.max(2, Math.min(pool.getParallelism() * 2L, MAX_PENDING_BYTES / (2L * chunkSize)));
+        Deque<CompletableFuture<BlockOutputStream>> pending = new ArrayDeque<>();
+        LongAdder records = new LongAdder();
+        // Chunks run on pool threads, so they report allocation to the caller's context directly
+        ConversionContext context = ConversionContext.current();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            output.write(ARRAY_START);
+            boolean hasRecords = false;
 
-        // Convert to JSON
-        ArrayNode jsonArray = objectMapper.createArrayNode();
+            // Whether the start of the next chunk is inside a quoted value
+            CompletableFuture<Boolean> inQuotes = CompletableFuture.completedFuture(false);
+            try {
+                for (long start = dataStart; start < fileSize; start += chunkSize) {
+                    long chunkStart = start;
+                    long chunkEnd = Math.min(start + chunkSize, fileSize);
 
-        if (csvData.size() > 1) { // Has header
-            String[] headers = csvData.get(0);
-            for (int i = 1; i < csvData.size(); i++) {
-                String[] values = csvData.get(i);
-                ObjectNode jsonObject = objectMapper.createObjectNode();
+                    CompletableFuture<Long> quotes = CompletableFuture.supplyAsync(
+                        () -> countQuotes(channel, chunkStart, chunkEnd, context), pool);
+                    CompletableFuture<Boolean> startInQuotes = inQuotes;
+                    pending.add(startInQuotes.thenCombineAsync(quotes, (quoted, count) -> convertChunk(
+                        file, channel, layout, chunkStart == dataStart, chunkStart, chunkEnd, quoted, count,
+                        records, context), pool));
+                    inQuotes = startInQuotes.thenCombine(quotes, (quoted, count) -> quoted ^ (count & 1) == 1);
 
-                for (int j = 0; j < headers.length && j < values.length; j++) {
-                    jsonObject.put(headers[j], values[j]);
+                    if (pending.size() >= maxPending) {
+                        hasRecords |= writeChunk(pending.removeFirst(), hasRecords, output);
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    hasRecords |= writeChunk(pending.removeFirst(), hasRecords, output);
                 }
+            } finally {
+                pending.forEach(future -> future.cancel(false));
+            }
 
-                jsonArray.add(jsonObject);
+            output.write(ARRAY_END);
+            return checkpointAt(file, dataStart, fileSize, records.sum(), inQuotes.join());
+        }
+    }
+
+    /**
+     * Converts the records of one chunk into a JSON array.
+     * The records of a chunk run from the first record boundary after its start to the first
+     * boundary after its end, so neighbouring chunks agree on where each record belongs.
+     */
+    private BlockOutputStream convertChunk(Path file, FileChannel channel, FieldLayout layout, boolean first,
+                                           long start, long end, boolean startInQuotes, long quotes,
+                                           LongAdder records, ConversionContext context) {
+        long allocatedBefore = ConversionContext.currentThreadAllocatedBytes();
+        try {
+            long fileSize = channel.size();
+            long recordsStart = first ? start : MappedCSVTokenizer.findRecordStart(channel, start, startInQuotes);
+            long recordsEnd = end >= fileSize
+                ? fileSize
+                : MappedCSVTokenizer.findRecordStart(channel, end, startInQuotes ^ (quotes & 1) == 1);
+            if (recordsStart >= recordsEnd) {
+                return null;
             }
-        } else { // No header, treat as single row
-            String[] values = csvData.get(0);
-            ObjectNode jsonObject = objectMapper.createObjectNode();
 
-            for (int i = 0; i < values.length; i++) {
-                jsonObject.put("field" + (i + 1), values[i]);
+            BlockOutputStream chunk = new BlockOutputStream(recordsEnd - recordsStart);
+            boolean hasRecords = false;
+            try (MappedCSVTokenizer tokenizer = new MappedCSVTokenizer(file, recordsStart, recordsEnd);
+                 JsonGenerator generator = jsonFactory.createGenerator(chunk, JsonEncoding.UTF8)) {
+                if (context != null) {
+                    tokenizer.setWindowListener(context::loadMapped);
+                }
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartArray();
+                long reported = recordsStart;
+                int batch = 0;
+                while (tokenizer.nextRecord()) {
+                    writeRecord(generator, layout, tokenizer);
+                    hasRecords = true;
+                    if (++batch == ConversionContext.RECORD_BATCH && context != null) {
+                        context.addBytesConsumed(tokenizer.getPosition() - reported);
+                        context.addRecords(batch);
+                        context.checkCancelled();
+                        reported = tokenizer.getPosition();
+                        batch = 0;
+                    }
+                }
+                generator.writeEndArray();
+                records.add(tokenizer.getRecordCount());
+                if (context != null) {
+                    context.addBytesConsumed(recordsEnd - reported);
+                    context.addRecords(batch);
+                }
+            }
+            return hasRecords ? chunk : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (context != null && allocatedBefore >= 0) {
+                context.addAllocatedBytes(ConversionContext.currentThreadAllocatedBytes() - allocatedBefore);
             }
+        }
+    }
 
-            jsonArray.add(jsonObject);
+    /**
+     * Waits for a chunk and writes its records without the enclosing array brackets.
+     *
+     * @return whether the chunk had any records
+     */
+    private static boolean writeChunk(CompletableFuture<BlockOutputStream> future, boolean separate,
+                                      OutputStream output) throws IOException {
+        BlockOutputStream chunk;
+        try {
+            chunk = future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+        if (chunk == null) {
+            return false;
         }
 
-        // Write JSON
-        objectMapper.writerWithDefaultPrettyPrinter().writeValue(outputFile, jsonArray);
+        if (separate) {
+            output.write(ARRAY_SEPARATOR);
+        }
+        chunk.writeTo(output, ARRAY_START.length, chunk.size() - ARRAY_END.length);
+        return true;
+    }
+
+    /**
+     * Counts the quotes in a chunk, recording its mapped reads against the conversion.
+     */
+    private static long countQuotes(FileChannel channel, long start, long end, ConversionContext context) {
+        try {
+            return MappedCSVTokenizer.countQuotes(channel, start, end, context != null ? context::loadMapped : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void convert(InputStream input, OutputStream output) throws IOException {
+        // Not closed, so the caller's stream stays open
+        CSVRecordReader reader = new CSVRecordReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String[] first = reader.readRecord();
+        if (first == null) {
+            throw new IllegalArgumentException("No valid data found in CSV file");
+        }
+        String[] values = reader.readRecord();
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+
+            if (values != null) { // Has header
+                FieldLayout layout = new FieldLayout(first);
+                int batch = 0;
+                do {
+                    writeRecord(generator, layout, values);
+                    if (++batch == ConversionContext.RECORD_BATCH) {
+                        ConversionContext.recordsProcessed(batch);
+                        batch = 0;
+                    }
+                } while ((values = reader.readRecord()) != null);
+                ConversionContext.recordsProcessed(batch);
+            } else { // No header, treat as single row
+                String[] headers = new String[first.length];
+                for (int i = 0; i < headers.length; i++) {
+                    headers[i] = "field" + (i + 1);
+                }
+                writeRecord(generator, new FieldLayout(headers), first);
+                ConversionContext.recordsProcessed(1);
+            }
+
+            generator.writeEndArray();
+        }
     }
 
     @Override
@@ -75,51 +537,189 @@ public class CSVToJSONConverter implements FileConverter {
     }
 
     /**
-     * Parses CSV lines into a list of string arrays.
+     * Writes a single CSV record as a JSON object.
+     */
+    private void writeRecord(JsonGenerator generator, FieldLayout layout, String[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < layout.names.length; i++) {
+            int column = layout.lastColumnBefore(i, values.length);
+            if (column < 0) {
+                break;
+            }
+            generator.writeStringField(layout.names[i], values[column]);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the current record of a tokenizer as a JSON object.
      */
-    private List<String[]> parseCSV(List<String> lines) {
-        return lines.stream()
-            .filter(line -> !line.trim().isEmpty())
-            .map(this::parseCSVLine)
-            .filter(row -> row.length > 0)
-            .toList();
+    private void writeRecord(JsonGenerator generator, FieldLayout layout, MappedCSVTokenizer tokenizer)
+            throws IOException {
+        int fieldCount = tokenizer.getFieldCount();
+        byte[] buffer = tokenizer.getBuffer();
+
+        generator.writeStartObject();
+        for (int i = 0; i < layout.names.length; i++) {
+            int column = layout.lastColumnBefore(i, fieldCount);
+            if (column < 0) {
+                break;
+            }
+            generator.writeFieldName(layout.names[i]);
+            generator.writeUTF8String(buffer, tokenizer.getFieldStart(column), tokenizer.getFieldLength(column));
+        }
+        generator.writeEndObject();
     }
 
     /**
-     * Parses a single CSV line into an array of values.
+     * Holds the output of a chunk in blocks, so it grows with the output without copying it,
+     * and is written out from the blocks it was written to.
      */
-    private String[] parseCSVLine(String line) {
-        // Simple CSV parser - handles quoted values and commas
-        if (line == null || line.trim().isEmpty()) {
-            return new String[0];
+    private static final class BlockOutputStream extends OutputStream {
+
+        private static final int MIN_BLOCK_SIZE = 256;
+        private static final int MAX_BLOCK_SIZE = 1024 * 1024;
+
+        private final List<byte[]> blocks = new ArrayList<>();
+        private byte[] block;
+        private int position;
+        private long size;
+
+        /**
+         * @param inputBytes the number of input bytes the output comes from, which sizes the first block
+         */
+        BlockOutputStream(long inputBytes) {
+            block = new byte[(int) Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, inputBytes * 2))];
+            blocks.add(block);
         }
 
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
+        @Override
+        public void write(int b) {
+            if (position == block.length) {
+                addBlock();
+            }
+            block[position++] = (byte) b;
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (position == block.length) {
+                    addBlock();
+                }
+                int count = Math.min(len, block.length - position);
+                System.arraycopy(b, off, block, position, count);
+                position += count;
+                off += count;
+                len -= count;
+                size += count;
+            }
+        }
 
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
+        long size() {
+            return size;
+        }
 
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // Escaped quote
-                    current.append('"');
-                    i++; // Skip next quote
-                } else {
-                    // Toggle quote state
-                    inQuotes = !inQuotes;
+        /**
+         * Writes the bytes between two offsets of the held output.
+         */
+        void writeTo(OutputStream out, long from, long to) throws IOException {
+            long blockStart = 0;
+            for (byte[] held : blocks) {
+                long blockEnd = Math.min(blockStart + held.length, size);
+                long start = Math.max(from, blockStart);
+                long end = Math.min(to, blockEnd);
+                if (start < end) {
+                    out.write(held, (int) (start - blockStart), (int) (end - start));
                 }
-            } else if (c == ',' && !inQuotes) {
-                // Field separator
-                result.add(current.toString().trim());
-                current.setLength(0);
+                blockStart = blockEnd;
+            }
+        }
+
+        private void addBlock() {
+            // Doubles the held size until blocks reach the largest block size
+            block = new byte[(int) Math.min(MAX_BLOCK_SIZE, size)];
+            blocks.add(block);
+            position = 0;
+        }
+    }
+
+    /**
+     * Drops the first bytes written through it.
+     */
+    private static final class SkippingOutputStream extends FilterOutputStream {
+
+        private int skip;
+
+        SkippingOutputStream(OutputStream out, int skip) {
+            super(out);
+            this.skip = skip;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (skip > 0) {
+                skip--;
             } else {
-                current.append(c);
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int skipped = Math.min(skip, len);
+            skip -= skipped;
+            if (len > skipped) {
+                out.write(b, off + skipped, len - skipped);
             }
         }
 
-        result.add(current.toString().trim());
-        return result.toArray(new String[0]);
+        @Override
+        public void close() throws IOException {
+            // The underlying stream is flushed and closed by its owner
+            flush();
+        }
+    }
+
+    /**
+     * Maps each distinct header name to the columns that carry it.
+     */
+    private static final class FieldLayout {
+
+        private final String[] names;
+        private final int[][] columns;
+
+        FieldLayout(String[] headers) {
+            Map<String, List<Integer>> byName = new LinkedHashMap<>();
+            for (int i = 0; i < headers.length; i++) {
+                byName.computeIfAbsent(headers[i], k -> new ArrayList<>()).add(i);
+            }
+
+            names = new String[byName.size()];
+            columns = new int[byName.size()][];
+            int index = 0;
+            for (Map.Entry<String, List<Integer>> entry : byName.entrySet()) {
+                names[index] = entry.getKey();
+                columns[index] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+                index++;
+            }
+        }
+
+        /**
+         * Picks the column that supplies a field in a record with the given number of values.
+         * Duplicate headers keep their first position and take the last value.
+         *
+         * @return the column, or -1 if the record is too short to have the field
+         */
+        int lastColumnBefore(int field, int valueCount) {
+            int[] fieldColumns = columns[field];
+            for (int j = fieldColumns.length - 1; j >= 0; j--) {
+                if (fieldColumns[j] < valueCount) {
+                    return fieldColumns[j];
+                }
+            }
+            return -1;
+        }
     }
 }
@@ -1,24 +1,71 @@
 package com.converterframework.converters;
 
-import com.converterframework.interfaces.FileConverter;
+import com.converterframework.core.ConversionContext;
+import com.converterframework.interfaces.StreamConverter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Converter for JSON to CSV format.
  * Converts a JSON array of objects into a CSV file.
+ * The array is read one element at a time, so memory use does not depend on the array size.
+ * Headers come from a declared schema or from the field names of the first few elements.
  */
-public class JSONToCSVConverter implements FileConverter {
+public class JSONToCSVConverter implements StreamConverter {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Default number of elements sampled to discover the CSV headers.
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    private final List<String> declaredHeaders;
+    private final int sampleSize;
+
+    public JSONToCSVConverter() {
+        this(DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * Creates a converter that discovers headers from the first elements of the array.
+     *
+     * @param sampleSize the maximum number of elements to sample
+     */
+    public JSONToCSVConverter(int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be at least 1");
+        }
+        this.declaredHeaders = null;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Creates a converter that writes the given columns and ignores any other fields.
+     *
+     * @param headers the declared CSV headers
+     */
+    public JSONToCSVConverter(List<String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            throw new IllegalArgumentException("Declared headers cannot be empty");
+        }
+        this.declaredHeaders = List.copyOf(headers);
+        this.sampleSize = 0;
+    }
 
     @Override
     public boolean supportsFormat(String from, String to) {
@@ -26,46 +73,59 @@ public class JSONToCSVConverter implements FileConverter {
     }
 
     @Override
-    public void convert(File inputFile, File outputFile) throws IOException {
-        if (!inputFile.exists() || !inputFile.canRead()) {
-            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
-        }
+    public void convert(InputStream input, OutputStream output) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Input JSON must be an array of objects.");
+            }
 
-        JsonNode rootNode = objectMapper.readTree(inputFile);
+            // Buffer a bounded sample of elements to discover the headers
+            List<JsonNode> sample = new ArrayList<>();
+            JsonToken token = parser.nextToken();
+            while (token != JsonToken.END_ARRAY && sample.size() < sampleSize) {
+                sample.add(readElement(parser));
+                token = parser.nextToken();
+            }
 
-        if (!rootNode.isArray()) {
-            throw new IllegalArgumentException("Input JSON must be an array of objects.");
-        }
+            if (sample.isEmpty() && token == JsonToken.END_ARRAY) {
+                // Nothing to write
+                return;
+            }
 
-        ArrayNode jsonArray = (ArrayNode) rootNode;
+            List<String> headers = declaredHeaders != null ? declaredHeaders : discoverHeaders(sample);
+            StringBuilder line = new StringBuilder();
 
-        if (jsonArray.isEmpty()) {
-            // Create an empty file
-            outputFile.createNewFile();
-            return;
-        }
+            // Flushed rather than closed, so the caller's stream stays open
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
 
-        // Get headers from the first object
-        List<String> headers = new ArrayList<>();
-        Iterator<String> fieldNames = jsonArray.get(0).fieldNames();
-        while (fieldNames.hasNext()) {
-            headers.add(fieldNames.next());
-        }
-
-        try (PrintWriter writer = new PrintWriter(outputFile)) {
             // Write header
-            writer.println(String.join(",", headers));
-
-            // Write data rows
-            for (JsonNode node : jsonArray) {
-                List<String> row = new ArrayList<>();
-                for (String header : headers) {
-                    JsonNode valueNode = node.get(header);
-                    String value = (valueNode != null && !valueNode.isNull()) ? valueNode.asText() : "";
-                    row.add(escapeCsv(value));
+            for (int i = 0; i < headers.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
                 }
-                writer.println(String.join(",", row));
+                line.append(escapeCsv(headers.get(i)));
+            }
+            writer.append(line);
+            writer.newLine();
+
+            // Write sampled rows, then stream the rest of the array
+            for (JsonNode node : sample) {
+                writeRow(writer, line, headers, node);
             }
+            ConversionContext.recordsProcessed(sample.size());
+            sample.clear();
+
+            long records = 0;
+
+            while (token != JsonToken.END_ARRAY) {
+                writeRow(writer, line, headers, readElement(parser));
+                if (++records % ConversionContext.RECORD_BATCH == 0) {
+                    ConversionContext.recordsProcessed(ConversionContext.RECORD_BATCH);
+                }
+                token = parser.nextToken();
+            }
+            writer.flush();
+            ConversionContext.recordsProcessed(records % ConversionContext.RECORD_BATCH);
         }
     }
 
@@ -74,6 +134,50 @@ public class JSONToCSVConverter implements FileConverter {
         return "JSON to CSV Converter";
     }
 
+    @Override
+    public String getCacheKey() {
+        return getClass().getName() + (declaredHeaders != null ? ":headers=" + declaredHeaders : ":sample=" + sampleSize);
+    }
+
+    /**
+     * Binds the array element the parser is positioned on.
+     */
+    private JsonNode readElement(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null) {
+            throw new IllegalArgumentException("Unexpected end of JSON input.");
+        }
+        return objectMapper.readTree(parser);
+    }
+
+    /**
+     * Collects field names from the sampled elements in order of first appearance.
+     */
+    private List<String> discoverHeaders(List<JsonNode> sample) {
+        Set<String> headers = new LinkedHashSet<>();
+        for (JsonNode node : sample) {
+            Iterator<String> fieldNames = node.fieldNames();
+            while (fieldNames.hasNext()) {
+                headers.add(fieldNames.next());
+            }
+        }
+        return new ArrayList<>(headers);
+    }
+
+    private void writeRow(BufferedWriter writer, StringBuilder line, List<String> headers, JsonNode node)
+            throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            JsonNode valueNode = node.get(headers.get(i));
+            String value = (valueNode != null && !valueNode.isNull()) ? valueNode.asText() : "";
+            line.append(escapeCsv(value));
+        }
+        writer.append(line);
+        writer.newLine();
+    }
+
     private String escapeCsv(String value) {
         if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
             return "\"" + value.replace("\"", "\"\"") + "\"";
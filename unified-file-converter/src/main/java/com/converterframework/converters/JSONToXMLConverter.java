@@ -1,20 +1,69 @@
 package com.converterframework.converters;
 
-import com.converterframework.interfaces.FileConverter;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.converterframework.core.ConversionContext;
+import com.converterframework.interfaces.StreamConverter;
+import com.converterframework.utils.XmlNames;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
-import java.io.File;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Converter for JSON to XML format.
+ * JSON tokens are copied straight to a StAX writer in a single pass, so no document tree is built.
+ * Object fields become child elements, arrays inside objects repeat the field element for each
+ * item, and items of top-level or nested arrays use a configurable item element name.
  */
-public class JSONToXMLConverter implements FileConverter {
+public class JSONToXMLConverter implements StreamConverter {
 
-    private final ObjectMapper jsonMapper = new ObjectMapper();
-    private final XmlMapper xmlMapper = new XmlMapper();
+    /**
+     * Default name of the document element.
+     */
+    public static final String DEFAULT_ROOT_ELEMENT = "root";
+
+    /**
+     * Default element name for items of top-level and nested arrays.
+     */
+    public static final String DEFAULT_ITEM_ELEMENT = "item";
+
+    private static final String AUTOMATIC_EMPTY_ELEMENTS = "org.codehaus.stax2.automaticEmptyElements";
+    private static final String INDENT = "  ";
+
+    private final JsonFactory jsonFactory = new JsonFactory()
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+    private final String rootElement;
+    private final String itemElement;
+    private final boolean prettyPrint;
+
+    public JSONToXMLConverter() {
+        this(DEFAULT_ROOT_ELEMENT, DEFAULT_ITEM_ELEMENT, true);
+    }
+
+    /**
+     * Creates a converter with custom element names.
+     *
+     * @param rootElement the name of the document element
+     * @param itemElement the element name for array items
+     * @param prettyPrint whether to indent the output
+     */
+    public JSONToXMLConverter(String rootElement, String itemElement, boolean prettyPrint) {
+        this.rootElement = XmlNames.toXmlName(rootElement);
+        this.itemElement = XmlNames.toXmlName(itemElement);
+        this.prettyPrint = prettyPrint;
+
+        if (xmlOutputFactory.isPropertySupported(AUTOMATIC_EMPTY_ELEMENTS)) {
+            xmlOutputFactory.setProperty(AUTOMATIC_EMPTY_ELEMENTS, Boolean.TRUE);
+        }
+    }
 
     @Override
     public boolean supportsFormat(String from, String to) {
@@ -22,20 +71,164 @@ public class JSONToXMLConverter implements FileConverter {
     }
 
     @Override
-    public void convert(File inputFile, File outputFile) throws IOException {
-        if (!inputFile.exists() || !inputFile.canRead()) {
-            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
-        }
+    public void convert(InputStream input, OutputStream output) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            if (parser.nextToken() == null) {
+                throw new IllegalArgumentException("Input file is empty");
+            }
 
-        // Read JSON
-        JsonNode jsonTree = jsonMapper.readTree(inputFile);
-
-        // Write XML
-        xmlMapper.writerWithDefaultPrettyPrinter().writeValue(outputFile, jsonTree);
+            // Closing a StAX writer does not close the underlying stream
+            XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(output, "UTF-8");
+            try {
+                TokenCopier copier = new TokenCopier(parser, writer);
+                copier.copy();
+                // The rest were reported in batches while copying
+                ConversionContext.recordsProcessed(copier.records % ConversionContext.RECORD_BATCH);
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML: " + e.getMessage(), e);
+        }
     }
 
     @Override
     public String getConverterName() {
         return "JSON to XML Converter";
     }
+
+    @Override
+    public String getCacheKey() {
+        return getClass().getName() + ":root=" + rootElement + ",item=" + itemElement + ",pretty=" + prettyPrint;
+    }
+
+    /**
+     * Open JSON container on the copy stack.
+     */
+    private static final class Frame {
+
+        private final boolean array;
+        private final boolean element;
+        private final String itemName;
+        private boolean hasChildren;
+
+        Frame(boolean array, boolean element, String itemName) {
+            this.array = array;
+            this.element = element;
+            this.itemName = itemName;
+        }
+    }
+
+    /**
+     * Copies tokens from the parser to the writer for one JSON value.
+     */
+    private final class TokenCopier {
+
+        private final JsonParser parser;
+        private final XMLStreamWriter writer;
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private String fieldName;
+        private int depth;
+        // Items of a top-level array, or 1 for any other value
+        private long records;
+
+        TokenCopier(JsonParser parser, XMLStreamWriter writer) {
+            this.parser = parser;
+            this.writer = writer;
+        }
+
+        void copy() throws IOException, XMLStreamException {
+            JsonToken token = parser.currentToken();
+            records = token == JsonToken.START_ARRAY ? 0 : 1;
+            do {
+                if (stack.size() == 1 && stack.peek().array
+                        && token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT
+                        && ++records % ConversionContext.RECORD_BATCH == 0) {
+                    ConversionContext.recordsProcessed(ConversionContext.RECORD_BATCH);
+                }
+                switch (token) {
+                    case FIELD_NAME -> fieldName = XmlNames.toXmlName(parser.getCurrentName());
+                    case START_OBJECT -> {
+                        startElement(nextElementName());
+                        stack.push(new Frame(false, true, null));
+                    }
+                    case START_ARRAY -> {
+                        Frame parent = stack.peek();
+                        if (parent != null && !parent.array) {
+                            // Array field: repeat the field element for each item
+                            stack.push(new Frame(true, false, fieldName));
+                        } else {
+                            startElement(nextElementName());
+                            stack.push(new Frame(true, true, itemElement));
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        Frame frame = stack.pop();
+                        if (frame.element) {
+                            endElement(frame.hasChildren);
+                        }
+                    }
+                    case VALUE_NULL -> {
+                        indent();
+                        writer.writeEmptyElement(nextElementName());
+                    }
+                    default -> {
+                        startElement(nextElementName());
+                        writer.writeCharacters(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                        endElement(false);
+                    }
+                }
+            } while (!stack.isEmpty() && (token = parser.nextToken()) != null);
+
+            if (prettyPrint) {
+                writer.writeCharacters("\n");
+            }
+        }
+
+        private String nextElementName() {
+            Frame parent = stack.peek();
+            if (parent == null) {
+                return rootElement;
+            }
+            return parent.array ? parent.itemName : fieldName;
+        }
+
+        private void startElement(String name) throws XMLStreamException {
+            indent();
+            writer.writeStartElement(name);
+            depth++;
+        }
+
+        private void endElement(boolean hasChildren) throws XMLStreamException {
+            depth--;
+            if (hasChildren && prettyPrint) {
+                newLine(depth);
+            }
+            writer.writeEndElement();
+        }
+
+        /**
+         * Marks the enclosing element as having children and indents the next one.
+         */
+        private void indent() throws XMLStreamException {
+            for (Frame frame : stack) {
+                if (frame.element) {
+                    frame.hasChildren = true;
+                    break;
+                }
+            }
+            if (prettyPrint && depth > 0) {
+                newLine(depth);
+            }
+        }
+
+        private void newLine(int level) throws XMLStreamException {
+            writer.writeCharacters("\n");
+            for (int i = 0; i < level; i++) {
+                writer.writeCharacters(INDENT);
+            }
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.converterframework.converters;
+
+import com.converterframework.core.ConversionContext;
+import com.converterframework.interfaces.StreamConverter;
+import com.converterframework.records.RecordBatch;
+import com.converterframework.records.RecordFormats;
+import com.converterframework.records.RecordReader;
+import com.converterframework.records.RecordWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Converter between any two record formats.
+ * Pairs a record reader for the source format with a record writer for the target format and
+ * passes columnar batches between them, so values keep their types across the conversion.
+ */
+public class RecordConverter implements StreamConverter {
+
+    private final String fromFormat;
+    private final String toFormat;
+
+    /**
+     * Creates a converter between two record formats.
+     *
+     * @param fromFormat the source format
+     * @param toFormat the target format
+     */
+    public RecordConverter(String fromFormat, String toFormat) {
+        if (!RecordFormats.isSupported(fromFormat) || !RecordFormats.isSupported(toFormat)) {
+            throw new IllegalArgumentException("Unsupported record conversion: " + fromFormat + " to " + toFormat);
+        }
+        if (fromFormat.equals(toFormat)) {
+            throw new IllegalArgumentException("Source and target formats must differ");
+        }
+        this.fromFormat = fromFormat;
+        this.toFormat = toFormat;
+    }
+
+    @Override
+    public boolean supportsFormat(String from, String to) {
+        return fromFormat.equals(from) && toFormat.equals(to);
+    }
+
+    @Override
+    public void convert(File inputFile, File outputFile) throws Exception {
+        if (inputFile.exists() && inputFile.length() == 0) {
+            throw new IllegalArgumentException("Input file is empty");
+        }
+        StreamConverter.super.convert(inputFile, outputFile);
+    }
+
+    @Override
+    public void convert(InputStream input, OutputStream output) throws IOException {
+        try (RecordReader reader = RecordFormats.newReader(fromFormat, input)) {
+            RecordWriter writer = RecordFormats.newWriter(toFormat, output);
+            try {
+                RecordBatch batch;
+                while ((batch = reader.readBatch()) != null) {
+                    writer.writeBatch(batch);
+                    ConversionContext.recordsProcessed(batch.getRowCount());
+                }
+                writer.finish();
+            } catch (IOException | RuntimeException e) {
+                writer.abort();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public String getConverterName() {
+        return fromFormat + " to " + toFormat + " Record Converter";
+    }
+
+    @Override
+    public String getCacheKey() {
+        return getClass().getName() + ":" + fromFormat + ":" + toFormat;
+    }
+}
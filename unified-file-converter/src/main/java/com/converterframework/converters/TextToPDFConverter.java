@@ -1,19 +1,38 @@
 package com.converterframework.converters;
 
-import com.converterframework.interfaces.FileConverter;
+import com.converterframework.core.ConversionContext;
+import com.converterframework.interfaces.StreamConverter;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Paragraph;
 
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Converter for Text to PDF format.
+ * The input is read line by line and each finished page is flushed to the output,
+ * so memory use stays proportional to a single page regardless of the file size.
  */
-public class TextToPDFConverter implements FileConverter {
+public class TextToPDFConverter implements StreamConverter {
+
+    private static final float FONT_SIZE = 12;
+
+    /**
+     * Layout trims ordinary whitespace, so a paragraph of spaces would take no room at all,
+     * while a non-breaking space keeps the height of a line.
+     */
+    private static final String BLANK_LINE = "\u00A0";
 
     @Override
     public boolean supportsFormat(String from, String to) {
@@ -21,17 +40,36 @@ public class TextToPDFConverter implements FileConverter {
     }
 
     @Override
-    public void convert(File inputFile, File outputFile) throws IOException {
-        if (!inputFile.exists() || !inputFile.canRead()) {
-            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
-        }
+    public void convert(InputStream input, OutputStream output) throws IOException {
+        // The reader is not closed, so the caller's stream stays open
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        PdfWriter writer = new PdfWriter(output);
+        writer.setCloseStream(false);
+
+        try (PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.DEFAULT, true)) {
+
+            // One font and style shared by every line
+            PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            Style lineStyle = new Style()
+                .setFont(font)
+                .setFontSize(FONT_SIZE)
+                .setMargin(0);
 
-        try (PdfWriter writer = new PdfWriter(outputFile);
-             PdfDocument pdf = new PdfDocument(writer);
-             Document document = new Document(pdf)) {
+            String line;
+            long lines = 0;
+            while ((line = reader.readLine()) != null) {
+                // Blank lines still take up a line of space
+                document.add(new Paragraph(line.isBlank() ? BLANK_LINE : line).addStyle(lineStyle));
+                if (++lines % ConversionContext.RECORD_BATCH == 0) {
+                    ConversionContext.recordsProcessed(ConversionContext.RECORD_BATCH);
+                }
+            }
+            ConversionContext.recordsProcessed(lines % ConversionContext.RECORD_BATCH);
 
-            String content = new String(Files.readAllBytes(inputFile.toPath()));
-            document.add(new Paragraph(content));
+            if (lines == 0) {
+                document.add(new Paragraph("").addStyle(lineStyle));
+            }
         }
     }
 
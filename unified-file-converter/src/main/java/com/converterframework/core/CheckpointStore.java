@@ -0,0 +1,147 @@
+package com.converterframework.core;
+
+import com.converterframework.utils.XXHash64;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Properties;
+
+/**
+ * Keeps the checkpoints of incremental conversions, one file per input and output pair.
+ * Each checkpoint is saved with the size and modification time of the output it belongs to,
+ * and is only handed out while the output is unchanged, so an output that was edited, replaced
+ * or left half-written by a failed conversion is always converted again in full.
+ */
+public class CheckpointStore {
+
+    private static final String SUFFIX = ".checkpoint";
+
+    private final Path directory;
+
+    /**
+     * Opens a checkpoint store.
+     *
+     * @param directory the directory holding the checkpoints, created if missing
+     * @throws IOException if the directory cannot be created
+     */
+    public CheckpointStore(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Checkpoint directory cannot be null");
+        }
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Loads the checkpoint of the last conversion of an input into an output.
+     *
+     * @param inputFile the input file
+     * @param outputFile the output file
+     * @param converterKey the cache key of the converter, which must match the one saved
+     * @return the checkpoint, or null if there is none or the output has changed since
+     */
+    public ConversionCheckpoint load(File inputFile, File outputFile, String converterKey) {
+        Path file = getPath(inputFile, outputFile);
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Failed to read checkpoint " + file + ": " + e.getMessage());
+            return null;
+        }
+
+        try {
+            if (!converterKey.equals(properties.getProperty("converter"))
+                    || !inputFile.getAbsolutePath().equals(properties.getProperty("input"))
+                    || !outputFile.getAbsolutePath().equals(properties.getProperty("output"))) {
+                return null;
+            }
+
+            BasicFileAttributes output = Files.readAttributes(outputFile.toPath(), BasicFileAttributes.class);
+            if (output.size() != Long.parseLong(properties.getProperty("outputSize"))
+                    || output.lastModifiedTime().toMillis() != Long.parseLong(properties.getProperty("outputLastModified"))) {
+                return null;
+            }
+
+            return new ConversionCheckpoint(
+                Long.parseLong(properties.getProperty("inputOffset")),
+                Long.parseLong(properties.getProperty("recordCount")),
+                Long.parseLong(properties.getProperty("headerLength")),
+                Long.parseUnsignedLong(properties.getProperty("headerHash"), 16),
+                Long.parseUnsignedLong(properties.getProperty("tailHash"), 16));
+        } catch (IOException e) {
+            // The output is gone
+            return null;
+        } catch (RuntimeException e) {
+            System.err.println("Ignoring invalid checkpoint " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the checkpoint of a conversion, along with the current state of its output.
+     *
+     * @param inputFile the input file
+     * @param outputFile the output file, as the conversion left it
+     * @param converterKey the cache key of the converter
+     * @param checkpoint the checkpoint to save
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void save(File inputFile, File outputFile, String converterKey, ConversionCheckpoint checkpoint)
+            throws IOException {
+        BasicFileAttributes output = Files.readAttributes(outputFile.toPath(), BasicFileAttributes.class);
+
+        Properties properties = new Properties();
+        properties.setProperty("input", inputFile.getAbsolutePath());
+        properties.setProperty("output", outputFile.getAbsolutePath());
+        properties.setProperty("converter", converterKey);
+        properties.setProperty("inputOffset", Long.toString(checkpoint.getInputOffset()));
+        properties.setProperty("recordCount", Long.toString(checkpoint.getRecordCount()));
+        properties.setProperty("headerLength", Long.toString(checkpoint.getHeaderLength()));
+        properties.setProperty("headerHash", Long.toHexString(checkpoint.getHeaderHash()));
+        properties.setProperty("tailHash", Long.toHexString(checkpoint.getTailHash()));
+        properties.setProperty("outputSize", Long.toString(output.size()));
+        properties.setProperty("outputLastModified", Long.toString(output.lastModifiedTime().toMillis()));
+
+        Path file = getPath(inputFile, outputFile);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Incremental conversion checkpoint");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Removes the checkpoint of an input and output pair, so the next conversion runs in full.
+     */
+    public void remove(File inputFile, File outputFile) {
+        Path file = getPath(inputFile, outputFile);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path getPath(File inputFile, File outputFile) {
+        long hash = XXHash64.hash(inputFile.getAbsolutePath() + "\n" + outputFile.getAbsolutePath());
+        return directory.resolve(String.format("%016x", hash) + SUFFIX);
+    }
+}
@@ -0,0 +1,463 @@
+package com.converterframework.core;
+
+import com.converterframework.utils.XXHash64;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-disk cache of conversion outputs, keyed by the content of the input file.
+ * The key combines an xxHash of the input bytes with the converters and options that produced
+ * the output, so renamed or copied inputs still hit and changed options never do.
+ * Entries are evicted least recently used first once the cache grows past its size budget;
+ * the order survives restarts because a hit touches the entry's modification time.
+ * When several threads ask for the same entry at once, one of them converts and the others
+ * wait for its result instead of repeating the work.
+ * An input whose size or modification time changes while it is hashed or converted is
+ * converted without the cache, so an output is never stored under the key of other content.
+ */
+public class ConversionCache {
+
+    /**
+     * Bumped when converter output changes, so entries written by older versions are not reused.
+     */
+    private static final int VERSION = 1;
+
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * How often a thread waiting for another conversion of the same input checks for cancellation.
+     */
+    private static final long WAIT_CHECK_MILLIS = 50;
+
+    /**
+     * Maximum number of input hashes remembered by path, size and modification time.
+     */
+    private static final int HASH_CACHE_SIZE = 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final boolean linkOutputs;
+
+    // Entry sizes by key, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final ConcurrentMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final Map<String, ContentHash> contentHashes = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ContentHash> eldest) {
+                return size() > HASH_CACHE_SIZE;
+            }
+        });
+
+    /**
+     * A task that writes a conversion's output file.
+     */
+    @FunctionalInterface
+    public interface Conversion {
+        void run() throws Exception;
+    }
+
+    /**
+     * Opens a cache that copies cached outputs into place.
+     *
+     * @param directory the directory holding the cache entries, created if missing
+     * @param maxBytes the total size the entries may take up
+     * @throws IOException if the directory cannot be created or read
+     */
+    public ConversionCache(Path directory, long maxBytes) throws IOException {
+        this(directory, maxBytes, false);
+    }
+
+    /**
+     * Opens a cache.
+     * With hard links a hit costs no more than creating a directory entry, but the output file
+     * and the cache entry are then the same file: outputs must be treated as read-only, or the
+     * change shows up in every later hit. Links fall back to copies across file systems.
+     *
+     * @param directory the directory holding the cache entries, created if missing
+     * @param maxBytes the total size the entries may take up
+     * @param linkOutputs whether to hard link outputs to cache entries instead of copying them
+     * @throws IOException if the directory cannot be created or read
+     */
+    public ConversionCache(Path directory, long maxBytes, boolean linkOutputs) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Cache directory cannot be null");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1 byte");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.linkOutputs = linkOutputs;
+
+        Files.createDirectories(directory);
+        loadEntries();
+    }
+
+    /**
+     * Produces the output of a conversion, from the cache when possible.
+     * On a miss the conversion runs and its output is added to the cache, unless the input
+     * changed while it was hashed or converted. If another thread is already converting the same
+     * input with the same key, this waits for it and copies its output; the wait ends early when
+     * the conversion bound to the calling thread is cancelled or the thread is interrupted.
+     *
+     * @param inputFile the input file
+     * @param outputFile the output file the conversion writes
+     * @param conversionKey identifies the converters and options that produce the output
+     * @param conversion writes the output file
+     * @return true if the output came from the cache
+     * @throws Exception if the conversion fails or the cache cannot be read
+     */
+    public boolean convert(File inputFile, File outputFile, String conversionKey, Conversion conversion)
+            throws Exception {
+        EntryKey entryKey = getEntryKey(inputFile.toPath(), conversionKey);
+        Path output = outputFile.toPath();
+        if (entryKey == null) {
+            // The input is being written, so no key describes its content
+            misses.increment();
+            run(conversion, output);
+            return false;
+        }
+        String key = entryKey.key;
+
+        if (copyEntry(key, output)) {
+            hits.increment();
+            return true;
+        }
+
+        CompletableFuture<Path> own = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            // Another thread is converting the same input; share its result
+            Path shared = await(running);
+            if (shared != null && copyEntry(key, output)) {
+                hits.increment();
+                return true;
+            }
+            // It failed or its output could not be cached, so convert here
+            misses.increment();
+            run(conversion, output);
+            return false;
+        }
+
+        Path stored = null;
+        try {
+            // The entry may have been added between the lookup and taking over the key
+            if (copyEntry(key, output)) {
+                hits.increment();
+                stored = getEntryPath(key);
+                return true;
+            }
+            misses.increment();
+            run(conversion, output);
+            if (entryKey.isCurrent(inputFile.toPath())) {
+                stored = store(key, output);
+            }
+            return false;
+        } finally {
+            inFlight.remove(key, own);
+            own.complete(stored);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the total size of the cached entries in bytes.
+     */
+    public synchronized long getSize() {
+        return totalBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Deletes every cache entry and resets the hit and miss counters.
+     */
+    public synchronized void clear() {
+        for (String key : new ArrayList<>(entries.keySet())) {
+            deleteEntry(key);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Builds the key of a cache entry from the input content and the conversion key.
+     *
+     * @return the key, or null if the input changed while it was hashed
+     */
+    private EntryKey getEntryKey(Path input, String conversionKey) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(input, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        EntryKey entryKey = new EntryKey(size, lastModified);
+
+        String path = input.toAbsolutePath().toString();
+        ContentHash cached = contentHashes.get(path);
+        long hash;
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            hash = cached.hash;
+        } else {
+            hash = XXHash64.hash(input);
+            // A write during hashing would tie a mix of old and new content to the old attributes
+            if (!entryKey.isCurrent(input)) {
+                return null;
+            }
+            contentHashes.put(path, new ContentHash(size, lastModified, hash));
+        }
+
+        long optionsHash = XXHash64.hash(VERSION + "\n" + size + "\n" + conversionKey);
+        entryKey.key = String.format("%016x-%016x", hash, optionsHash);
+        return entryKey;
+    }
+
+    /**
+     * Waits for another thread's conversion of the same entry.
+     *
+     * @return the entry it stored, or null if it stored none
+     */
+    private static Path await(CompletableFuture<Path> running) throws InterruptedException, ExecutionException {
+        while (true) {
+            ConversionContext.checkCurrentCancelled();
+            try {
+                return running.get(WAIT_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still converting
+            }
+        }
+    }
+
+    private Path getEntryPath(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    /**
+     * Copies or links a cached entry to the output file.
+     *
+     * @return false if there is no such entry
+     */
+    private boolean copyEntry(String key, Path output) throws IOException {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return false;
+            }
+        }
+
+        Path entry = getEntryPath(key);
+        try {
+            place(entry, output);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            // Evicted or deleted since the lookup
+            synchronized (this) {
+                Long size = entries.remove(key);
+                if (size != null) {
+                    totalBytes -= size;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void run(Conversion conversion, Path output) throws Exception {
+        if (linkOutputs) {
+            // The output may be a link to an entry from an earlier hit, which writing would corrupt
+            Files.deleteIfExists(output);
+        }
+        conversion.run();
+    }
+
+    /**
+     * Adds a conversion output to the cache and evicts old entries to stay within the budget.
+     *
+     * @return the new entry, or null if the output is larger than the whole cache
+     */
+    private Path store(String key, Path output) throws IOException {
+        long size = Files.size(output);
+        if (size > maxBytes) {
+            return null;
+        }
+
+        Path entry = getEntryPath(key);
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try {
+            Files.delete(temp);
+            place(output, temp);
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        synchronized (this) {
+            Long replaced = entries.put(key, size);
+            totalBytes += size - (replaced != null ? replaced : 0);
+            evict();
+        }
+        return entry;
+    }
+
+    /**
+     * Links or copies a file to a path, replacing whatever is there.
+     */
+    private void place(Path source, Path target) throws IOException {
+        if (linkOutputs) {
+            Files.deleteIfExists(target);
+            try {
+                Files.createLink(target, source);
+                return;
+            } catch (NoSuchFileException e) {
+                throw e;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // Different file systems, or no hard link support: copy instead
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Deletes least recently used entries until the cache fits its budget.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteFile(getEntryPath(entry.getKey()));
+        }
+    }
+
+    private void deleteEntry(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        deleteFile(getEntryPath(key));
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete cache entry " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the entries left by earlier runs in least recently used order and removes
+     * temporary files from interrupted writes.
+     */
+    private synchronized void loadEntries() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    deleteFile(file);
+                } else if (name.endsWith(ENTRY_SUFFIX) && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+
+        Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        for (Path file : files) {
+            attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+        }
+        files.sort(Comparator.comparing(file -> attributes.get(file).lastModifiedTime()));
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = attributes.get(file).size();
+            entries.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()), size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    /**
+     * Key of a cache entry, with the size and modification time of the input it was built from.
+     */
+    private static final class EntryKey {
+
+        private final long size;
+        private final long lastModified;
+        private String key;
+
+        EntryKey(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Checks that the input still has the size and modification time the key was built from.
+         */
+        boolean isCurrent(Path input) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(input, BasicFileAttributes.class);
+            return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+        }
+    }
+
+    /**
+     * Hash of a file's content at a given size and modification time.
+     */
+    private static final class ContentHash {
+
+        private final long size;
+        private final long lastModified;
+        private final long hash;
+
+        ContentHash(long size, long lastModified, long hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.converterframework.core;
+
+import com.converterframework.utils.XXHash64;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Where a conversion of an append-only input ended.
+ * Records the input offset up to which records were converted and how many there were, with
+ * hashes of the header and of the bytes just before the offset. A later conversion can continue
+ * from the offset when both hashes still match, which shows that the input has only grown.
+ */
+public class ConversionCheckpoint {
+
+    /**
+     * Number of bytes before the offset covered by the tail hash.
+     */
+    private static final int TAIL_SIZE = 4096;
+
+    private final long inputOffset;
+    private final long recordCount;
+    private final long headerLength;
+    private final long headerHash;
+    private final long tailHash;
+
+    public ConversionCheckpoint(long inputOffset, long recordCount, long headerLength, long headerHash, long tailHash) {
+        if (inputOffset < headerLength || headerLength < 0 || recordCount < 0) {
+            throw new IllegalArgumentException("Invalid checkpoint: offset " + inputOffset
+                + ", header length " + headerLength + ", records " + recordCount);
+        }
+        this.inputOffset = inputOffset;
+        this.recordCount = recordCount;
+        this.headerLength = headerLength;
+        this.headerHash = headerHash;
+        this.tailHash = tailHash;
+    }
+
+    /**
+     * Takes a checkpoint of an input file.
+     *
+     * @param input the input file
+     * @param headerLength the number of bytes of the header at the start of the file
+     * @param inputOffset the offset just past the last converted record
+     * @param recordCount the number of records converted up to the offset
+     * @return the checkpoint
+     * @throws IOException if the file cannot be read
+     */
+    public static ConversionCheckpoint create(Path input, long headerLength, long inputOffset, long recordCount)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            return new ConversionCheckpoint(inputOffset, recordCount, headerLength,
+                hashRange(channel, 0, headerLength),
+                hashRange(channel, tailStart(headerLength, inputOffset), inputOffset));
+        }
+    }
+
+    /**
+     * Checks that an input file still starts with the bytes this checkpoint was taken on.
+     *
+     * @param input the input file
+     * @return true if the header and the bytes before the offset are unchanged
+     * @throws IOException if the file cannot be read
+     */
+    public boolean matches(Path input) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            return channel.size() >= inputOffset
+                && hashRange(channel, 0, headerLength) == headerHash
+                && hashRange(channel, tailStart(headerLength, inputOffset), inputOffset) == tailHash;
+        }
+    }
+
+    public long getInputOffset() {
+        return inputOffset;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getHeaderLength() {
+        return headerLength;
+    }
+
+    public long getHeaderHash() {
+        return headerHash;
+    }
+
+    public long getTailHash() {
+        return tailHash;
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint at " + inputOffset + " after " + recordCount + " records";
+    }
+
+    private static long tailStart(long headerLength, long inputOffset) {
+        return Math.max(headerLength, inputOffset - TAIL_SIZE);
+    }
+
+    private static long hashRange(FileChannel channel, long start, long end) throws IOException {
+        XXHash64 hash = new XXHash64();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(Math.max(end - start, 1), 64 * 1024));
+        long position = start;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int count = channel.read(buffer, position);
+            if (count < 0) {
+                break;
+            }
+            hash.update(buffer.array(), 0, count);
+            position += count;
+        }
+        return hash.getValue();
+    }
+}
@@ -0,0 +1,567 @@
+package com.converterframework.core;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.MappedByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Measurements of a single conversion.
+ * The conversion manager binds a context to the converting thread, and converters report
+ * to it through the static methods, which do nothing when no conversion is being measured.
+ * Write time is the time spent in writes to the output file, measured by wrapping the file
+ * stream below any buffering; the rest of the conversion time counts as parsing.
+ * Slow reads and writes of the metered streams are also recorded as Flight Recorder events.
+ * Bytes read through the metered input stream and reported records are forwarded to the
+ * conversion's progress, and the metered streams stop with a CancellationException once the
+ * conversion is cancelled. Converters that read their input some other way report the bytes
+ * they consume themselves.
+ */
+public class ConversionContext {
+
+    private static final ThreadLocal<ConversionContext> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Number of records converters process between progress reports and cancellation checks.
+     */
+    public static final int RECORD_BATCH = 1024;
+
+    private final ConversionProgress progress;
+    private final LongAdder bytesConsumed = new LongAdder();
+
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private volatile boolean allocationMeasured;
+    private volatile long detectionNanos;
+    private volatile long conversionNanos;
+    private volatile long inputBytes;
+    private volatile long outputBytes;
+    private volatile String converterName;
+    private volatile String inputFileName;
+    private volatile String outputFileName;
+    private volatile String fromFormat;
+    private volatile String toFormat;
+    private volatile boolean cached;
+    private volatile long resumeOffset = -1;
+    private volatile long plannedBytes;
+
+    ConversionContext() {
+        this(new ConversionProgress());
+    }
+
+    ConversionContext(ConversionProgress progress) {
+        this(progress, -1);
+    }
+
+    /**
+     * @param plannedBytes the input size already added to the progress total, as when the
+     *                     conversion's batch started, or -1 if none was
+     */
+    ConversionContext(ConversionProgress progress, long plannedBytes) {
+        this.progress = progress;
+        this.plannedBytes = plannedBytes;
+    }
+
+    /**
+     * Gets the context of the conversion running on the current thread.
+     *
+     * @return the context, or null if no conversion is being measured
+     */
+    public static ConversionContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a context to the current thread.
+     *
+     * @return the context that was bound before, to restore afterwards
+     */
+    static ConversionContext bind(ConversionContext context) {
+        ConversionContext previous = CURRENT.get();
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+        return previous;
+    }
+
+    /**
+     * Wraps a conversion's output file stream so that time spent writing is measured.
+     * The file stream should be wrapped before it is buffered, so that only real writes are timed.
+     *
+     * @param output the output file stream
+     * @return the wrapped stream, or the same stream if no conversion is being measured
+     */
+    public static OutputStream meter(OutputStream output) {
+        ConversionContext context = CURRENT.get();
+        return context == null ? output : context.meterOutput(output);
+    }
+
+    /**
+     * Wraps a conversion's input file stream so that slow reads are recorded.
+     *
+     * @param input the input file stream
+     * @return the wrapped stream, or the same stream if no conversion is being measured
+     */
+    public static InputStream meter(InputStream input) {
+        ConversionContext context = CURRENT.get();
+        return context == null ? input : context.meterInput(input);
+    }
+
+    /**
+     * Records a read of a memory-mapped window of the current conversion's input.
+     *
+     * @param window the window, just mapped and not yet read
+     * @see #loadMapped(MappedByteBuffer)
+     */
+    public static void windowMapped(MappedByteBuffer window) {
+        ConversionContext context = CURRENT.get();
+        if (context != null) {
+            context.loadMapped(window);
+        }
+    }
+
+    /**
+     * Checks if Flight Recorder is running, so conversion events are worth creating.
+     * The first event class to load starts the Flight Recorder event machinery, which costs
+     * several hundred milliseconds, so events are only created once a recording has been started.
+     */
+    static boolean isRecording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Reports records read from the input by the current conversion.
+     * Long conversions should report every {@link #RECORD_BATCH} records rather than once at
+     * the end, as each report is also a point where the conversion can be cancelled.
+     *
+     * @param count the number of records
+     * @throws CancellationException if the conversion has been cancelled
+     */
+    public static void recordsProcessed(long count) {
+        ConversionContext context = CURRENT.get();
+        if (context != null) {
+            context.addRecords(count);
+            context.checkCancelled();
+        }
+    }
+
+    /**
+     * Reports input bytes consumed by the current conversion without the metered input stream,
+     * as when the input file is mapped.
+     *
+     * @param bytes the number of bytes
+     */
+    public static void bytesConsumed(long bytes) {
+        ConversionContext context = CURRENT.get();
+        if (context != null) {
+            context.addBytesConsumed(bytes);
+        }
+    }
+
+    /**
+     * Stops the current conversion if it has been cancelled.
+     * Converters should call this between batches of work that do not report records.
+     *
+     * @throws CancellationException if the conversion has been cancelled
+     */
+    public static void checkCurrentCancelled() {
+        ConversionContext context = CURRENT.get();
+        if (context != null) {
+            context.checkCancelled();
+        }
+    }
+
+    /**
+     * Reports that the current conversion continues an earlier one instead of reading the whole input.
+     *
+     * @param offset the input offset the conversion continues from
+     */
+    public static void resumedAt(long offset) {
+        ConversionContext context = CURRENT.get();
+        if (context != null) {
+            context.resumeOffset = offset;
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by the current thread.
+     *
+     * @return the byte count, or -1 where the JVM does not track it, as for virtual threads
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (Thread.currentThread().isVirtual() || !(THREADS instanceof com.sun.management.ThreadMXBean threads)) {
+            return -1;
+        }
+        return threads.isThreadAllocatedMemoryEnabled() ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Wraps an output stream so that time spent writing to it counts towards this conversion.
+     */
+    public OutputStream meterOutput(OutputStream output) {
+        return new MeteredOutputStream(output);
+    }
+
+    /**
+     * Records a read of a memory-mapped window of the input, which is read by page faults rather
+     * than through a metered stream. While Flight Recorder is running the window is loaded into
+     * memory up front so that a slow read can be timed; otherwise nothing is done.
+     * Converters report the bytes they consume from mapped input themselves, so the window does
+     * not count towards them here.
+     *
+     * @param window the window, just mapped and not yet read
+     */
+    public void loadMapped(MappedByteBuffer window) {
+        if (!isRecording()) {
+            return;
+        }
+        ConversionReadEvent event = new ConversionReadEvent();
+        event.begin();
+        window.load();
+        commitRead(event, window.capacity());
+    }
+
+    private void commitRead(ConversionReadEvent event, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.converter = converterName;
+            event.file = inputFileName;
+            event.fromFormat = fromFormat;
+            event.toFormat = toFormat;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Wraps an input stream so that slow reads from it are recorded against this conversion.
+     */
+    public InputStream meterInput(InputStream input) {
+        return new MeteredInputStream(input);
+    }
+
+    /**
+     * Adds the input size to the progress total as the conversion starts. If a size was already
+     * added when the batch started, only the change since then is added.
+     */
+    void addTotalBytes(long inputLength) {
+        long planned = plannedBytes;
+        plannedBytes = -1;
+        progress.addTotalBytes(planned < 0 ? inputLength : inputLength - planned);
+    }
+
+    /**
+     * Counts the input size added when the batch started as processed if the conversion ended
+     * before it started, so that the batch still reaches its total.
+     */
+    void skipPlannedBytes() {
+        long planned = plannedBytes;
+        plannedBytes = -1;
+        if (planned > 0) {
+            progress.addBytesProcessed(planned);
+        }
+    }
+
+    /**
+     * Adds records read from the input.
+     */
+    public void addRecords(long count) {
+        records.add(count);
+        progress.addRecords(count);
+    }
+
+    /**
+     * Adds input bytes consumed by the conversion.
+     */
+    public void addBytesConsumed(long bytes) {
+        bytesConsumed.add(bytes);
+        progress.addBytesProcessed(bytes);
+    }
+
+    /**
+     * Checks if this conversion has been cancelled, or the thread running it interrupted.
+     */
+    public boolean isCancelled() {
+        return progress.isCancelled() || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Stops the conversion if it has been cancelled. Can be called from any thread working on it.
+     *
+     * @throws CancellationException if the conversion has been cancelled
+     */
+    public void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Conversion cancelled");
+        }
+    }
+
+    /**
+     * Adds bytes allocated by a thread working on this conversion.
+     *
+     * @param bytes the byte count, or a negative value if it was not measured
+     */
+    public void addAllocatedBytes(long bytes) {
+        if (bytes >= 0) {
+            allocatedBytes.add(bytes);
+            allocationMeasured = true;
+        }
+    }
+
+    /**
+     * Sets what is being converted, for the events recorded during the conversion.
+     */
+    void describe(String converterName, File inputFile, File outputFile, String fromFormat, String toFormat) {
+        this.converterName = converterName;
+        this.inputFileName = inputFile.getName();
+        this.outputFileName = outputFile.getName();
+        this.fromFormat = fromFormat;
+        this.toFormat = toFormat;
+    }
+
+    void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    void setDetectionNanos(long nanos) {
+        this.detectionNanos = nanos;
+    }
+
+    void setConversionNanos(long nanos) {
+        this.conversionNanos = nanos;
+    }
+
+    void setInputBytes(long bytes) {
+        this.inputBytes = bytes;
+    }
+
+    void setOutputBytes(long bytes) {
+        this.outputBytes = bytes;
+    }
+
+    /**
+     * Gets the time spent detecting the source format and planning the conversion.
+     */
+    public long getDetectionNanos() {
+        return detectionNanos;
+    }
+
+    /**
+     * Gets the time spent converting, outside of output writes.
+     */
+    public long getParseNanos() {
+        return Math.max(0, conversionNanos - writeNanos.sum());
+    }
+
+    /**
+     * Gets the time spent in writes to the output file.
+     */
+    public long getWriteNanos() {
+        return Math.min(writeNanos.sum(), conversionNanos);
+    }
+
+    /**
+     * Gets the wall time of the whole conversion, including detection.
+     */
+    public long getTotalNanos() {
+        return detectionNanos + conversionNanos;
+    }
+
+    /**
+     * Gets the name of the converter, or of the chain of converters, doing the conversion.
+     *
+     * @return the name, or null if no converter was found
+     */
+    public String getConverterName() {
+        return converterName;
+    }
+
+    /**
+     * Checks if the output was copied from the conversion cache instead of being converted.
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Gets the input offset an incremental conversion continued from.
+     *
+     * @return the offset, or -1 if the whole input was converted
+     */
+    public long getResumeOffset() {
+        return resumeOffset;
+    }
+
+    /**
+     * Gets the progress this conversion reports to, which may be shared with other conversions.
+     */
+    public ConversionProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Gets the input bytes the conversion reported as consumed so far.
+     */
+    public long getBytesConsumed() {
+        return bytesConsumed.sum();
+    }
+
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    /**
+     * Gets the number of records read from the input, or 0 if the converter does not report them.
+     */
+    public long getRecordCount() {
+        return records.sum();
+    }
+
+    /**
+     * Gets the bytes allocated by the threads that did the conversion.
+     *
+     * @return the byte count, or -1 if allocation could not be measured
+     */
+    public long getAllocatedBytes() {
+        return allocationMeasured ? allocatedBytes.sum() : -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("detect %.1fms, parse %.1fms, write %.1fms, %d bytes in, %d bytes out, %d records",
+            detectionNanos / 1e6, getParseNanos() / 1e6, getWriteNanos() / 1e6, inputBytes, outputBytes, getRecordCount());
+    }
+
+    /**
+     * Input stream that counts the bytes consumed, stops once the conversion is cancelled
+     * and records reads slower than the event threshold.
+     */
+    private final class MeteredInputStream extends FilterInputStream {
+
+        MeteredInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            ConversionReadEvent event = beginRead();
+            int b = in.read();
+            commit(event, b < 0 ? 0 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            ConversionReadEvent event = beginRead();
+            int count = in.read(b, off, len);
+            commit(event, Math.max(count, 0));
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            checkCancelled();
+            long skipped = in.skip(n);
+            addBytesConsumed(skipped);
+            return skipped;
+        }
+
+        private ConversionReadEvent beginRead() {
+            if (!isRecording()) {
+                return null;
+            }
+            ConversionReadEvent event = new ConversionReadEvent();
+            event.begin();
+            return event;
+        }
+
+        private void commit(ConversionReadEvent event, long bytes) {
+            addBytesConsumed(bytes);
+            if (event != null) {
+                commitRead(event, bytes);
+            }
+        }
+    }
+
+    /**
+     * Output stream that adds the time spent in each write to the conversion, stops once the
+     * conversion is cancelled and records writes slower than the event threshold.
+     */
+    private final class MeteredOutputStream extends FilterOutputStream {
+
+        MeteredOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkCancelled();
+            ConversionWriteEvent event = beginWrite();
+            long start = System.nanoTime();
+            out.write(b);
+            writeNanos.add(System.nanoTime() - start);
+            commit(event, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            ConversionWriteEvent event = beginWrite();
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            writeNanos.add(System.nanoTime() - start);
+            commit(event, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ConversionWriteEvent event = beginWrite();
+            long start = System.nanoTime();
+            out.flush();
+            writeNanos.add(System.nanoTime() - start);
+            commit(event, 0);
+        }
+
+        private ConversionWriteEvent beginWrite() {
+            if (!isRecording()) {
+                return null;
+            }
+            ConversionWriteEvent event = new ConversionWriteEvent();
+            event.begin();
+            return event;
+        }
+
+        private void commit(ConversionWriteEvent event, long bytes) {
+            if (event == null) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.converter = converterName;
+                event.file = outputFileName;
+                event.fromFormat = fromFormat;
+                event.toFormat = toFormat;
+                event.bytes = bytes;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.converterframework.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a whole conversion, with the stage breakdown of its time.
+ */
+@Name("com.converterframework.Conversion")
+@Label("Conversion")
+@Category("Converter Framework")
+@Description("A file conversion run by the conversion manager")
+@StackTrace(false)
+class ConversionEvent extends jdk.jfr.Event {
+
+    @Label("Input File")
+    String inputFile;
+
+    @Label("Output File")
+    String outputFile;
+
+    @Label("From Format")
+    String fromFormat;
+
+    @Label("To Format")
+    String toFormat;
+
+    @Label("Converter")
+    String converter;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error Message")
+    String errorMessage;
+
+    @Label("Cached")
+    @Description("Whether the output was copied from the conversion cache")
+    boolean cached;
+
+    @Label("Input Size")
+    @DataAmount
+    long inputBytes;
+
+    @Label("Output Size")
+    @DataAmount
+    long outputBytes;
+
+    @Label("Records")
+    long records;
+
+    @Label("Detection Time")
+    @Timespan
+    long detectionTime;
+
+    @Label("Parse Time")
+    @Description("Conversion time outside of output writes")
+    @Timespan
+    long parseTime;
+
+    @Label("Write Time")
+    @Timespan
+    long writeTime;
+}
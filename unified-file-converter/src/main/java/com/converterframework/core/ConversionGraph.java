@@ -0,0 +1,283 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.FileConverter;
+import com.converterframework.interfaces.StreamConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Graph of formats connected by the registered converters.
+ * Formats are interned as small integer IDs in order of registration, and lookups read an
+ * immutable snapshot of matrices indexed by those IDs, so conversions never wait on the graph.
+ * Each registration builds a new snapshot: the candidates for every conversion are ranked,
+ * preferred converters first and then by expected throughput, and paths between every pair of
+ * formats are planned with Dijkstra's algorithm. A direct conversion may use any converter;
+ * steps in a path of several steps must be {@link StreamConverter}s so they can be piped
+ * together. Planning only reads the converter descriptors, so it never creates a converter.
+ */
+class ConversionGraph {
+
+    private final Map<String, Integer> formatIds = new HashMap<>();
+    private final List<String> formats = new ArrayList<>();
+    private final List<Registration> registrations = new ArrayList<>();
+    private volatile Snapshot snapshot;
+
+    ConversionGraph() {
+        rebuild();
+    }
+
+    /**
+     * Adds a format that converters can be looked up for, if it is not known yet.
+     */
+    synchronized void addFormat(String format) {
+        if (!formatIds.containsKey(format)) {
+            formatIds.put(format, formats.size());
+            formats.add(format);
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds a converter between two formats, next to any already registered for the same pair.
+     *
+     * @param preferred whether the converter ranks above every converter that is not preferred
+     */
+    synchronized void addConverter(String from, String to, ConverterDescriptor descriptor, boolean preferred) {
+        for (String format : List.of(from, to)) {
+            if (!formatIds.containsKey(format)) {
+                formatIds.put(format, formats.size());
+                formats.add(format);
+            }
+        }
+        registrations.add(new Registration(formatIds.get(from), formatIds.get(to), descriptor, preferred,
+            registrations.size()));
+        rebuild();
+    }
+
+    /**
+     * Gets every known format, in order of first registration.
+     */
+    List<String> getFormats() {
+        return snapshot.formats;
+    }
+
+    /**
+     * Gets the fastest converter registered for a conversion.
+     *
+     * @return the converter's descriptor, or null if no single converter handles the conversion
+     */
+    ConverterDescriptor getConverter(String from, String to) {
+        Snapshot current = snapshot;
+        Integer fromId = current.ids.get(from);
+        Integer toId = current.ids.get(to);
+        return fromId != null && toId != null ? current.converters[fromId][toId] : null;
+    }
+
+    /**
+     * Finds the cheapest chain of conversions from one format to another.
+     *
+     * @return the steps in order, or an empty list if the target cannot be reached
+     */
+    List<Edge> findPath(String from, String to) {
+        Snapshot current = snapshot;
+        Integer fromId = current.ids.get(from);
+        Integer toId = current.ids.get(to);
+        if (fromId == null || toId == null) {
+            return Collections.emptyList();
+        }
+        List<Edge> path = current.paths[fromId][toId];
+        return path != null ? path : Collections.emptyList();
+    }
+
+    /**
+     * Gets every format reachable from the given format, in order of first registration.
+     */
+    List<String> reachableFrom(String from) {
+        Snapshot current = snapshot;
+        Integer fromId = current.ids.get(from);
+        List<String> reachable = new ArrayList<>();
+        if (fromId != null) {
+            for (int to = 0; to < current.formats.size(); to++) {
+                if (current.paths[fromId][to] != null) {
+                    reachable.add(current.formats.get(to));
+                }
+            }
+        }
+        return reachable;
+    }
+
+    private void rebuild() {
+        int count = formats.size();
+
+        // Rank the candidates of each pair preferred first, then fastest; the last registered wins a tie
+        List<Registration> ranked = new ArrayList<>(registrations);
+        ranked.sort((a, b) -> {
+            int result = Boolean.compare(b.preferred, a.preferred);
+            if (result == 0) {
+                result = Double.compare(b.descriptor.getExpectedMBps(), a.descriptor.getExpectedMBps());
+            }
+            return result != 0 ? result : Integer.compare(b.sequence, a.sequence);
+        });
+        ConverterDescriptor[][] converters = new ConverterDescriptor[count][count];
+        ConverterDescriptor[][] streaming = new ConverterDescriptor[count][count];
+        for (Registration registration : ranked) {
+            if (converters[registration.from][registration.to] == null) {
+                converters[registration.from][registration.to] = registration.descriptor;
+            }
+            if (registration.descriptor.isStreaming() && streaming[registration.from][registration.to] == null) {
+                streaming[registration.from][registration.to] = registration.descriptor;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Edge>[][] paths = new List[count][count];
+        for (int from = 0; from < count; from++) {
+            plan(from, converters, streaming, paths[from]);
+        }
+        snapshot = new Snapshot(Map.copyOf(formatIds), List.copyOf(formats), converters, paths);
+    }
+
+    /**
+     * Plans the paths from one format to every other format.
+     */
+    private void plan(int from, ConverterDescriptor[][] converters, ConverterDescriptor[][] streaming, List<Edge>[] paths) {
+        int count = converters.length;
+        for (int to = 0; to < count; to++) {
+            if (to == from) {
+                continue;
+            }
+            if (converters[from][to] != null) {
+                paths[to] = List.of(new Edge(formats.get(from), formats.get(to), converters[from][to]));
+            }
+        }
+
+        // Longer chains only consist of streaming steps, each adding the same cost
+        double[] distance = new double[count];
+        int[] previous = new int[count];
+        Arrays.fill(distance, Double.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        distance[from] = 0.0;
+        PriorityQueue<Node> queue = new PriorityQueue<>();
+        queue.add(new Node(from, 0.0));
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (node.cost > distance[node.format]) {
+                continue; // Stale entry
+            }
+            for (int to = 0; to < count; to++) {
+                if (streaming[node.format][to] == null) {
+                    continue;
+                }
+                double cost = node.cost + 1.0;
+                if (cost < distance[to]) {
+                    distance[to] = cost;
+                    previous[to] = node.format;
+                    queue.add(new Node(to, cost));
+                }
+            }
+        }
+
+        for (int to = 0; to < count; to++) {
+            if (to == from || paths[to] != null || previous[to] < 0) {
+                continue;
+            }
+            List<Edge> path = new ArrayList<>();
+            for (int format = to; format != from; format = previous[format]) {
+                int step = previous[format];
+                path.add(new Edge(formats.get(step), formats.get(format), streaming[step][format]));
+            }
+            Collections.reverse(path);
+            paths[to] = Collections.unmodifiableList(path);
+        }
+    }
+
+    /**
+     * A registered conversion from one format to another.
+     */
+    static final class Edge {
+
+        private final String from;
+        private final String to;
+        private final ConverterDescriptor descriptor;
+
+        Edge(String from, String to, ConverterDescriptor descriptor) {
+            this.from = from;
+            this.to = to;
+            this.descriptor = descriptor;
+        }
+
+        String getFrom() {
+            return from;
+        }
+
+        String getTo() {
+            return to;
+        }
+
+        ConverterDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        /**
+         * Gets the converter of this step, creating it on first use.
+         */
+        FileConverter getConverter() {
+            return descriptor.getConverter();
+        }
+    }
+
+    private static final class Registration {
+
+        private final int from;
+        private final int to;
+        private final ConverterDescriptor descriptor;
+        private final boolean preferred;
+        private final int sequence;
+
+        Registration(int from, int to, ConverterDescriptor descriptor, boolean preferred, int sequence) {
+            this.from = from;
+            this.to = to;
+            this.descriptor = descriptor;
+            this.preferred = preferred;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Map<String, Integer> ids;
+        private final List<String> formats;
+        private final ConverterDescriptor[][] converters;
+        private final List<Edge>[][] paths;
+
+        Snapshot(Map<String, Integer> ids, List<String> formats, ConverterDescriptor[][] converters, List<Edge>[][] paths) {
+            this.ids = ids;
+            this.formats = formats;
+            this.converters = converters;
+            this.paths = paths;
+        }
+    }
+
+    private static final class Node implements Comparable<Node> {
+
+        private final int format;
+        private final double cost;
+
+        Node(int format, double cost) {
+            this.format = format;
+            this.cost = cost;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            return Double.compare(cost, other.cost);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.converterframework.core;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A single file conversion request.
+ */
+public class ConversionJob {
+
+    private final File inputFile;
+    private final File outputFile;
+    private final String fromFormat;
+    private final String toFormat;
+    private final File stagingFile;
+    private final Publisher publisher;
+
+    /**
+     * Moves the output of a job from its staging file to its output file once it is complete.
+     */
+    @FunctionalInterface
+    public interface Publisher {
+
+        /**
+         * Publishes the output, or drops it when the job has to run again, as when its input
+         * changed while it was converted.
+         *
+         * @return true if the output was published, false if it was dropped
+         * @throws IOException if publishing fails
+         */
+        boolean publish() throws IOException;
+    }
+
+    /**
+     * Creates a job whose source format is detected automatically.
+     *
+     * @param inputFile the input file
+     * @param outputFile the output file
+     * @param toFormat the target format
+     */
+    public ConversionJob(File inputFile, File outputFile, String toFormat) {
+        this(inputFile, outputFile, null, toFormat);
+    }
+
+    /**
+     * Creates a job.
+     *
+     * @param inputFile the input file
+     * @param outputFile the output file
+     * @param fromFormat the source format (can be null to auto-detect)
+     * @param toFormat the target format
+     */
+    public ConversionJob(File inputFile, File outputFile, String fromFormat, String toFormat) {
+        this(inputFile, outputFile, fromFormat, toFormat, null, null);
+    }
+
+    /**
+     * Creates a job that writes its output to a staging file, which the publisher moves to the
+     * output file once the conversion has succeeded. The job is logged with its output file,
+     * and only once the publisher has decided what becomes of the output.
+     *
+     * @param inputFile the input file
+     * @param outputFile the file the output is published as
+     * @param fromFormat the source format (can be null to auto-detect)
+     * @param toFormat the target format
+     * @param stagingFile the file the converter writes
+     * @param publisher moves the staging file to the output file, or drops it
+     */
+    public ConversionJob(File inputFile, File outputFile, String fromFormat, String toFormat,
+                         File stagingFile, Publisher publisher) {
+        this.inputFile = inputFile;
+        this.outputFile = outputFile;
+        this.fromFormat = fromFormat;
+        this.toFormat = toFormat;
+        this.stagingFile = stagingFile;
+        this.publisher = publisher;
+    }
+
+    public File getInputFile() {
+        return inputFile;
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    public String getFromFormat() {
+        return fromFormat;
+    }
+
+    public String getToFormat() {
+        return toFormat;
+    }
+
+    /**
+     * Gets the file the converter writes, which is the output file unless the job is staged.
+     */
+    public File getStagingFile() {
+        return stagingFile != null ? stagingFile : outputFile;
+    }
+
+    /**
+     * Gets the publisher of a staged job, or null if the converter writes the output file directly.
+     */
+    public Publisher getPublisher() {
+        return publisher;
+    }
+
+    @Override
+    public String toString() {
+        return inputFile + " -> " + outputFile + " (" + (fromFormat != null ? fromFormat : "AUTO") + " to " + toFormat + ")";
+    }
+}
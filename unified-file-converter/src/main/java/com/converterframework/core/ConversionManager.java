@@ -1,38 +1,178 @@
 package com.converterframework.core;
 
+import com.converterframework.interfaces.ConverterProvider;
 import com.converterframework.interfaces.FileConverter;
+import com.converterframework.interfaces.IncrementalConverter;
+import com.converterframework.interfaces.StreamConverter;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Central manager for file conversions.
- * Handles converter registration and coordinates the conversion process.
+ * Handles converter registration and coordinates the conversion process,
+ * either one file at a time or as a parallel batch.
+ * Registered converters form a graph of formats; when no single converter handles a conversion,
+ * the cheapest chain of stream converters is planned and its steps are piped together in memory.
+ * Converters registered through a {@link ConverterProvider} are only created the first time a
+ * conversion runs through them.
  */
 public class ConversionManager {
 
-    private final ConcurrentMap<String, FileConverter> converters = new ConcurrentHashMap<>();
-    private final List<String> supportedConversions = new ArrayList<>();
+    private static final String CANCELLED = "Conversion cancelled";
+    private static final String OUTPUT_DROPPED = "Output dropped to convert the input again";
+
+    /**
+     * Formats that converters without a fixed pair of formats are checked against.
+     */
+    private static final List<String> DEFAULT_FORMATS = List.of("CSV", "JSON", "XML", "EXCEL", "TEXT", "PDF");
+
+    private final List<ConverterDescriptor> descriptors = new CopyOnWriteArrayList<>();
+    private final ConversionGraph graph = new ConversionGraph();
+    private final ConcurrentMap<ConverterDescriptor, ConcurrencyLimit> concurrencyLimits = new ConcurrentHashMap<>();
+
+    /**
+     * Limits shared by every conversion that reads or writes a CPU-heavy format, whichever
+     * converter runs it, so workbooks and PDF documents are built or parsed at most one per core.
+     */
+    private final Map<String, ConcurrencyLimit> formatLimits = Map.of(
+        "EXCEL", new ConcurrencyLimit(Runtime.getRuntime().availableProcessors()),
+        "PDF", new ConcurrencyLimit(Runtime.getRuntime().availableProcessors()));
+    private volatile int batchConcurrency = 4 * Runtime.getRuntime().availableProcessors();
+    private volatile ConversionCache cache;
+    private volatile CheckpointStore checkpointStore;
+
+    public ConversionManager() {
+        for (String format : DEFAULT_FORMATS) {
+            graph.addFormat(format);
+        }
+    }
 
     /**
      * Registers a converter for specific format conversions.
+     * It is assumed to be parallel safe, streaming if it is a {@link StreamConverter}, and of
+     * unknown throughput. Like every converter registered this way, it takes precedence over the
+     * converters of providers, so it replaces a built-in converter for the same conversion.
      *
      * @param converter the converter to register
      */
     public void registerConverter(FileConverter converter) {
-        // Get all supported conversions for this converter
-        for (String from : getSupportedFormats()) {
-            for (String to : getSupportedFormats()) {
-                if (!from.equals(to) && converter.supportsFormat(from, to)) {
-                    String key = from + "_TO_" + to;
-                    converters.put(key, converter);
-                    supportedConversions.add(key);
+        registerConverter(converter, new ConverterCapabilities().streaming(converter instanceof StreamConverter));
+    }
+
+    /**
+     * Registers a converter for specific format conversions with declared capabilities.
+     * Converters registered this way take precedence over the converters of providers. When
+     * several of them handle the same conversion, the one with the highest expected throughput
+     * runs; converters of unknown throughput rank last, and the last one registered wins a tie.
+     *
+     * @param converter the converter to register
+     * @param capabilities what the converter can do and how fast
+     * @throws IllegalArgumentException if the converter is declared streaming but is not a {@link StreamConverter}
+     */
+    public void registerConverter(FileConverter converter, ConverterCapabilities capabilities) {
+        register(new ConverterDescriptor(converter, capabilities), true);
+    }
+
+    /**
+     * Registers the converters of a provider. They are created the first time a conversion
+     * runs through them. When several provider converters handle the same conversion, the one
+     * with the highest expected throughput runs, and the last one registered wins a tie.
+     *
+     * @param provider the provider to register
+     */
+    public void registerProvider(ConverterProvider provider) {
+        for (ConverterDescriptor descriptor : provider.getConverters()) {
+            register(descriptor, false);
+        }
+    }
+
+    private void register(ConverterDescriptor descriptor, boolean preferred) {
+        if (descriptor.getFromFormat() != null) {
+            addConverter(descriptor.getFromFormat(), descriptor.getToFormat(), descriptor, preferred);
+        } else {
+            List<String> formats = graph.getFormats();
+            for (String from : formats) {
+                for (String to : formats) {
+                    if (!from.equals(to) && descriptor.supportsFormat(from, to)) {
+                        addConverter(from, to, descriptor, preferred);
+                    }
                 }
             }
         }
+        descriptors.add(descriptor);
+    }
+
+    private void addConverter(String from, String to, ConverterDescriptor descriptor, boolean preferred) {
+        graph.addConverter(from, to, descriptor, preferred);
+        if (!descriptor.isParallelSafe()) {
+            concurrencyLimits.putIfAbsent(descriptor, new ConcurrencyLimit(1));
+        }
+    }
+
+    /**
+     * Sets the maximum number of conversions that may run at the same time on a converter.
+     * Converters that are not parallel safe default to one conversion at a time; others have no
+     * limit of their own. Independently of this, all conversions that read or write EXCEL share
+     * one permit per available processor, and so do all conversions that read or write PDF.
+     *
+     * @param converter the registered converter
+     * @param maxConcurrent the maximum number of concurrent conversions
+     */
+    public void setConcurrencyLimit(FileConverter converter, int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        ConcurrencyLimit limit = new ConcurrencyLimit(maxConcurrent);
+        for (ConverterDescriptor descriptor : descriptors) {
+            if (descriptor.isLoaded() && descriptor.getConverter() == converter) {
+                concurrencyLimits.put(descriptor, limit);
+            }
+        }
+    }
+
+    /**
+     * Sets a cache for conversion outputs. Conversions of an input that was converted before
+     * with the same converters copy the cached output instead of running again.
+     *
+     * @param cache the cache, or null to always run the converters
+     */
+    public void setCache(ConversionCache cache) {
+        this.cache = cache;
+    }
+
+    public ConversionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets a store for the checkpoints of incremental conversions. When an input is converted
+     * again by an incremental converter, only the records added since its last conversion are
+     * converted and appended to the output. These conversions do not use the output cache.
+     *
+     * @param checkpointStore the store, or null to always convert whole inputs
+     */
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
     }
 
     /**
@@ -45,15 +185,100 @@ public class ConversionManager {
      * @return true if conversion succeeded, false otherwise
      */
     public boolean convertFile(File inputFile, File outputFile, String fromFormat, String toFormat) {
+        return convert(new ConversionJob(inputFile, outputFile, fromFormat, toFormat)).isSuccess();
+    }
+
+    /**
+     * Runs a single conversion job on the calling thread.
+     * A staged job is logged once its publisher has published or dropped its output.
+     *
+     * @param job the job to run
+     * @return the result of the job
+     */
+    public ConversionResult convert(ConversionJob job) {
+        return convert(job, new ConversionProgress());
+    }
+
+    /**
+     * Runs a single conversion job on the calling thread, reporting its progress.
+     * Cancelling the progress stops the conversion and deletes its partial output.
+     *
+     * @param job the job to run
+     * @param progress the progress to report to and take cancellation from
+     * @return the result of the job
+     */
+    public ConversionResult convert(ConversionJob job, ConversionProgress progress) {
+        if (progress == null) {
+            throw new IllegalArgumentException("Progress cannot be null");
+        }
+        return convert(job, progress, -1);
+    }
+
+    /**
+     * Runs a job, recording it as a Flight Recorder event while a recording is running.
+     *
+     * @param plannedBytes the input size already added to the progress total, or -1 if none was
+     */
+    private ConversionResult convert(ConversionJob job, ConversionProgress progress, long plannedBytes) {
+        ConversionContext context = new ConversionContext(progress, plannedBytes);
+        try {
+            if (!ConversionContext.isRecording()) {
+                return convert(job, context);
+            }
+            return convertRecorded(job, context);
+        } finally {
+            // A job that failed before it started still completes its share of the batch
+            context.skipPlannedBytes();
+        }
+    }
+
+    private ConversionResult convertRecorded(ConversionJob job, ConversionContext context) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        ConversionResult result = convert(job, context);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.inputFile = job.getInputFile() != null ? job.getInputFile().getName() : null;
+            event.outputFile = job.getOutputFile() != null ? job.getOutputFile().getName() : null;
+            event.fromFormat = result.getFromFormat();
+            event.toFormat = job.getToFormat();
+            event.converter = context.getConverterName();
+            event.success = result.isSuccess();
+            event.errorMessage = result.getErrorMessage();
+            event.inputBytes = context.getInputBytes();
+            event.outputBytes = context.getOutputBytes();
+            event.records = context.getRecordCount();
+            event.cached = context.isCached();
+            event.detectionTime = context.getDetectionNanos();
+            event.parseTime = context.getParseNanos();
+            event.writeTime = context.getWriteNanos();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Runs a job, recording its measurements in the context.
+     */
+    private ConversionResult convert(ConversionJob job, ConversionContext context) {
+        long startTime = System.nanoTime();
+        File inputFile = job.getInputFile();
+        File outputFile = job.getOutputFile();
+        String fromFormat = job.getFromFormat();
+        String toFormat = job.getToFormat();
+
         if (inputFile == null || outputFile == null || toFormat == null) {
-            LoggerService.logFailure(
+            return fail(job, startTime,
                 inputFile != null ? inputFile.getAbsolutePath() : "null",
                 outputFile != null ? outputFile.getAbsolutePath() : "null",
                 fromFormat != null ? fromFormat : "UNKNOWN",
-                toFormat,
                 "Invalid input parameters"
             );
-            return false;
+        }
+        if (context.getProgress().isCancelled()) {
+            return fail(job, startTime, inputFile.getAbsolutePath(), outputFile.getAbsolutePath(),
+                fromFormat != null ? fromFormat : "UNKNOWN", CANCELLED);
         }
 
         // Auto-detect format if not provided
@@ -63,51 +288,243 @@ public class ConversionManager {
         }
 
         if ("UNKNOWN".equals(actualFromFormat)) {
-            LoggerService.logFailure(
+            return fail(job, startTime,
                 inputFile.getAbsolutePath(),
                 outputFile.getAbsolutePath(),
                 actualFromFormat,
-                toFormat,
                 "Could not detect input file format"
             );
-            return false;
         }
 
-        String conversionKey = actualFromFormat + "_TO_" + toFormat;
-        FileConverter converter = converters.get(conversionKey);
+        List<ConversionGraph.Edge> path = graph.findPath(actualFromFormat, toFormat);
+        context.setDetectionNanos(System.nanoTime() - startTime);
 
-        if (converter == null) {
-            LoggerService.logFailure(
+        if (path.isEmpty()) {
+            return fail(job, startTime,
                 inputFile.getAbsolutePath(),
                 outputFile.getAbsolutePath(),
                 actualFromFormat,
-                toFormat,
                 "No converter available for " + actualFromFormat + " to " + toFormat
             );
-            return false;
         }
 
+        // Every converter and heavy format on the path holds a permit for the whole conversion.
+        // Permits are taken in the order the limits were created, whatever the order of the path,
+        // so that two conversions never each hold a permit the other is waiting for
+        List<ConcurrencyLimit> limits = new ArrayList<>();
+        for (ConversionGraph.Edge edge : path) {
+            addLimit(limits, concurrencyLimits.get(edge.getDescriptor()));
+            addLimit(limits, formatLimits.get(edge.getFrom()));
+            addLimit(limits, formatLimits.get(edge.getTo()));
+        }
+        limits.sort(Comparator.comparingLong(limit -> limit.order));
+
+        String converterName = getConverterName(path);
+        context.describe(converterName, inputFile, outputFile, actualFromFormat, toFormat);
+        // A staged job is written to its staging file and logged with the file it is published as
+        File targetFile = job.getStagingFile();
+        long inputLength = inputFile.length();
+        context.setInputBytes(inputLength);
+        context.addTotalBytes(inputLength);
         try {
-            converter.convert(inputFile, outputFile);
+            ConversionCache resultCache = cache;
+            CheckpointStore checkpoints = checkpointStore;
+            FileConverter converter = path.size() == 1 ? path.get(0).getConverter() : null;
+            long outputBytesBefore = targetFile.length();
+            if (checkpoints != null && converter instanceof IncrementalConverter incremental) {
+                runIncremental(incremental, checkpoints, limits, inputFile, targetFile, context);
+            } else if (resultCache != null) {
+                // Bound while the cache waits for another conversion of the same input, so cancelling ends the wait
+                ConversionContext previous = ConversionContext.bind(context);
+                try {
+                    context.setCached(resultCache.convert(inputFile, targetFile, getCacheKey(path, toFormat),
+                        () -> runLimited(limits, targetFile, context, () -> runPath(path, inputFile, targetFile, context))));
+                } finally {
+                    ConversionContext.bind(previous);
+                }
+            } else {
+                runLimited(limits, targetFile, context, () -> runPath(path, inputFile, targetFile, context));
+            }
+            context.setOutputBytes(targetFile.length());
+            if (context.getResumeOffset() >= 0) {
+                // Only the appended records were read and written
+                context.setInputBytes(Math.max(0, inputFile.length() - context.getResumeOffset()));
+                context.setOutputBytes(Math.max(0, targetFile.length() - outputBytesBefore));
+            }
+            if (job.getPublisher() != null && !job.getPublisher().publish()) {
+                // Nothing is logged until the job runs again; like cancelled conversions, it stays
+                // out of the converter statistics
+                return new ConversionResult(job, actualFromFormat, false, OUTPUT_DROPPED, elapsedMillis(startTime), context);
+            }
+            if (!context.isCached()) {
+                // Cache hits say nothing about the converter, so they stay out of its statistics
+                ConversionMetrics.record(converterName, context, true);
+            }
             LoggerService.logSuccess(
                 inputFile.getAbsolutePath(),
                 outputFile.getAbsolutePath(),
                 actualFromFormat,
                 toFormat
             );
-            return true;
+            return new ConversionResult(job, actualFromFormat, true, null, elapsedMillis(startTime), context);
+        } catch (CancellationException e) {
+            // Cancelled conversions stay out of the converter statistics
+            return fail(job, startTime,
+                inputFile.getAbsolutePath(),
+                outputFile.getAbsolutePath(),
+                actualFromFormat,
+                CANCELLED
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ConversionMetrics.record(converterName, context, false);
+            return fail(job, startTime,
+                inputFile.getAbsolutePath(),
+                outputFile.getAbsolutePath(),
+                actualFromFormat,
+                "Conversion interrupted"
+            );
         } catch (Exception e) {
-            LoggerService.logFailure(
+            ConversionMetrics.record(converterName, context, false);
+            return fail(job, startTime,
                 inputFile.getAbsolutePath(),
                 outputFile.getAbsolutePath(),
                 actualFromFormat,
-                toFormat,
                 e.getMessage()
             );
-            return false;
+        } finally {
+            // Whatever was not reported, as for cached, resumed or failed conversions, is done now
+            context.getProgress().addBytesProcessed(Math.max(0, inputLength - context.getBytesConsumed()));
+        }
+    }
+
+    /**
+     * Sets how many jobs of a {@link #convertBatch(List)} batch may run at once. Each running job
+     * holds its input and output files open, so this keeps large batches within the limit of
+     * open files. Defaults to four jobs per available processor.
+     *
+     * @param maxConcurrent the maximum number of jobs running at once
+     */
+    public void setBatchConcurrency(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Batch concurrency must be at least 1");
+        }
+        this.batchConcurrency = maxConcurrent;
+    }
+
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+
+    /**
+     * Runs a batch of conversion jobs in parallel on virtual threads, starting at most
+     * {@link #getBatchConcurrency()} of them at once. Concurrency limits still apply, so
+     * conversions reading or writing EXCEL or PDF run at most one per core.
+     * <p>
+     * Jobs run on virtual threads because they mostly wait on files and on those limits, and a
+     * waiting virtual thread does not hold a platform thread. The trade-off is that the JVM cannot
+     * measure allocation on virtual threads, so it is reported as unavailable for these jobs; run
+     * the batch on a platform thread executor with {@link #convertBatch(List, ExecutorService)}
+     * to measure it.
+     *
+     * @param jobs the jobs to run
+     * @return one result per job, in the same order as the jobs
+     */
+    public List<ConversionResult> convertBatch(List<ConversionJob> jobs) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return convertBatch(jobs, executor, new ConversionProgress(), new Semaphore(batchConcurrency));
         }
     }
 
+    /**
+     * Runs a batch of conversion jobs on the given executor.
+     * The executor is not shut down. Allocation is not recorded for jobs run on virtual threads.
+     *
+     * @param jobs the jobs to run
+     * @param executor the executor to run the jobs on
+     * @return one result per job, in the same order as the jobs
+     */
+    public List<ConversionResult> convertBatch(List<ConversionJob> jobs, ExecutorService executor) {
+        return convertBatch(jobs, executor, new ConversionProgress());
+    }
+
+    /**
+     * Runs a batch of conversion jobs on the given executor, reporting their combined progress.
+     * The input sizes of all jobs are added to the progress total before any job starts, so the
+     * fraction done only grows as the batch runs. Cancelling the progress stops the running jobs,
+     * deletes their partial outputs and fails the jobs that have not started yet. The executor
+     * is not shut down.
+     *
+     * @param jobs the jobs to run
+     * @param executor the executor to run the jobs on
+     * @param progress the progress shared by every job
+     * @return one result per job, in the same order as the jobs
+     */
+    public List<ConversionResult> convertBatch(List<ConversionJob> jobs, ExecutorService executor,
+                                               ConversionProgress progress) {
+        return convertBatch(jobs, executor, progress, null);
+    }
+
+    /**
+     * Runs a batch, submitting a job only once it can take one of the running slots.
+     *
+     * @param running the slots of jobs running at once, or null to submit every job at once
+     */
+    private List<ConversionResult> convertBatch(List<ConversionJob> jobs, ExecutorService executor,
+                                                ConversionProgress progress, Semaphore running) {
+        long[] plannedBytes = new long[jobs.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            File inputFile = jobs.get(i).getInputFile();
+            plannedBytes[i] = inputFile != null ? inputFile.length() : 0;
+            progress.addTotalBytes(plannedBytes[i]);
+        }
+
+        List<Future<ConversionResult>> futures = new ArrayList<>(jobs.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            ConversionJob job = jobs.get(i);
+            long planned = plannedBytes[i];
+            if (running == null) {
+                futures.add(executor.submit(() -> convert(job, progress, planned)));
+                continue;
+            }
+            try {
+                running.acquire();
+            } catch (InterruptedException e) {
+                // The jobs not submitted yet fail with the ones already running
+                Thread.currentThread().interrupt();
+                break;
+            }
+            futures.add(executor.submit(() -> {
+                try {
+                    return convert(job, progress, planned);
+                } finally {
+                    running.release();
+                }
+            }));
+        }
+
+        List<ConversionResult> results = new ArrayList<>(jobs.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            if (i >= futures.size()) {
+                results.add(new ConversionResult(jobs.get(i), jobs.get(i).getFromFormat(), false, "Conversion interrupted", 0));
+                continue;
+            }
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                results.add(new ConversionResult(jobs.get(i), jobs.get(i).getFromFormat(), false, "Conversion interrupted", 0));
+            } catch (ExecutionException e) {
+                results.add(new ConversionResult(jobs.get(i), jobs.get(i).getFromFormat(), false,
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), 0));
+            } catch (CancellationException e) {
+                results.add(new ConversionResult(jobs.get(i), jobs.get(i).getFromFormat(), false, CANCELLED, 0));
+            }
+        }
+        return results;
+    }
+
     /**
      * Gets all supported source formats.
      *
@@ -115,9 +532,8 @@ public class ConversionManager {
      */
     public List<String> getSupportedFromFormats() {
         List<String> formats = new ArrayList<>();
-        for (String conversion : supportedConversions) {
-            String fromFormat = conversion.split("_TO_")[0];
-            if (!formats.contains(fromFormat)) {
+        for (String fromFormat : graph.getFormats()) {
+            if (!graph.reachableFrom(fromFormat).isEmpty()) {
                 formats.add(fromFormat);
             }
         }
@@ -131,16 +547,7 @@ public class ConversionManager {
      * @return list of supported target formats
      */
     public List<String> getSupportedToFormats(String fromFormat) {
-        List<String> formats = new ArrayList<>();
-        for (String conversion : supportedConversions) {
-            if (conversion.startsWith(fromFormat + "_TO_")) {
-                String toFormat = conversion.split("_TO_")[1];
-                if (!formats.contains(toFormat)) {
-                    formats.add(toFormat);
-                }
-            }
-        }
-        return formats;
+        return graph.reachableFrom(fromFormat);
     }
 
     /**
@@ -151,7 +558,7 @@ public class ConversionManager {
      * @return true if conversion is supported
      */
     public boolean isConversionSupported(String fromFormat, String toFormat) {
-        return supportedConversions.contains(fromFormat + "_TO_" + toFormat);
+        return !graph.findPath(fromFormat, toFormat).isEmpty();
     }
 
     /**
@@ -160,31 +567,208 @@ public class ConversionManager {
      * @return list of all supported conversion keys
      */
     public List<String> getSupportedConversions() {
-        return new ArrayList<>(supportedConversions);
+        List<String> conversions = new ArrayList<>();
+        for (String fromFormat : graph.getFormats()) {
+            for (String toFormat : graph.reachableFrom(fromFormat)) {
+                conversions.add(fromFormat + "_TO_" + toFormat);
+            }
+        }
+        return conversions;
+    }
+
+    /**
+     * Plans the chain of converters for a conversion, creating any of them that were not used yet.
+     *
+     * @param fromFormat the source format
+     * @param toFormat the target format
+     * @return the converters in the order they run, or an empty list if the conversion is not supported
+     */
+    public List<FileConverter> planConversion(String fromFormat, String toFormat) {
+        List<FileConverter> plan = new ArrayList<>();
+        for (ConversionGraph.Edge edge : graph.findPath(fromFormat, toFormat)) {
+            plan.add(edge.getConverter());
+        }
+        return plan;
     }
 
     /**
-     * Gets the converter for a specific conversion.
+     * Gets the fastest converter for a specific conversion, creating it if it was not used yet.
      *
      * @param fromFormat the source format
      * @param toFormat the target format
      * @return the converter, or null if not found
      */
     public FileConverter getConverter(String fromFormat, String toFormat) {
-        return converters.get(fromFormat + "_TO_" + toFormat);
+        ConverterDescriptor descriptor = graph.getConverter(fromFormat, toFormat);
+        return descriptor != null ? descriptor.getConverter() : null;
+    }
+
+    private static void addLimit(List<ConcurrencyLimit> limits, ConcurrencyLimit limit) {
+        if (limit != null && !limits.contains(limit)) {
+            limits.add(limit);
+        }
     }
 
     /**
-     * Gets all supported formats in the system.
+     * Continues the last conversion of an input from its checkpoint, then saves the new one.
+     * A failed conversion drops the checkpoint, so the next one starts over.
      */
-    private List<String> getSupportedFormats() {
-        List<String> formats = new ArrayList<>();
-        formats.add("CSV");
-        formats.add("JSON");
-        formats.add("XML");
-        formats.add("EXCEL");
-        formats.add("TEXT");
-        formats.add("PDF");
-        return formats;
+    private static void runIncremental(IncrementalConverter converter, CheckpointStore checkpoints,
+                                       List<ConcurrencyLimit> limits, File inputFile, File outputFile,
+                                       ConversionContext context) throws Exception {
+        String converterKey = converter.getCacheKey();
+        ConversionCheckpoint checkpoint = checkpoints.load(inputFile, outputFile, converterKey);
+        ConversionCheckpoint[] next = new ConversionCheckpoint[1];
+        try {
+            runLimited(limits, outputFile, context,
+                () -> next[0] = converter.convert(inputFile, outputFile, checkpoint));
+        } catch (Exception e) {
+            checkpoints.remove(inputFile, outputFile);
+            throw e;
+        }
+
+        if (next[0] == null) {
+            checkpoints.remove(inputFile, outputFile);
+            return;
+        }
+        try {
+            checkpoints.save(inputFile, outputFile, converterKey, next[0]);
+        } catch (IOException e) {
+            // The output is complete; only the next conversion loses its head start
+            System.err.println("Failed to save checkpoint for " + inputFile + ": " + e.getMessage());
+            checkpoints.remove(inputFile, outputFile);
+        }
+    }
+
+    /**
+     * Runs a conversion while holding a permit from each of its converters' concurrency limits.
+     * The context is bound to the calling thread while the conversion runs.
+     */
+    private static void runLimited(List<ConcurrencyLimit> limits, File outputFile, ConversionContext context,
+                                   ConversionCache.Conversion conversion) throws Exception {
+        int acquired = 0;
+        try {
+            for (ConcurrencyLimit limit : limits) {
+                limit.permits.acquire();
+                acquired++;
+            }
+            run(outputFile, context, conversion);
+        } finally {
+            for (int i = 0; i < acquired; i++) {
+                limits.get(i).permits.release();
+            }
+        }
+    }
+
+    /**
+     * Runs a single converter directly, or pipes a chain of stream converters together.
+     */
+    private static void runPath(List<ConversionGraph.Edge> path, File inputFile, File outputFile,
+                                ConversionContext context) throws Exception {
+        if (path.size() == 1) {
+            path.get(0).getConverter().convert(inputFile, outputFile);
+            return;
+        }
+
+        List<StreamConverter> steps = new ArrayList<>(path.size());
+        for (ConversionGraph.Edge edge : path) {
+            steps.add((StreamConverter) edge.getConverter());
+        }
+        new ConversionPipeline(steps).run(inputFile, outputFile, context);
+    }
+
+    /**
+     * Runs a conversion with the context bound to the calling thread, measuring its time and allocation.
+     * A conversion that is cancelled once it has started has its partial output deleted, unless
+     * it was continuing an earlier output, which the converter restores instead.
+     */
+    private static void run(File outputFile, ConversionContext context, ConversionCache.Conversion conversion)
+            throws Exception {
+        // The output is left alone when the conversion is cancelled before it starts
+        context.checkCancelled();
+        ConversionContext previous = ConversionContext.bind(context);
+        long allocatedBefore = ConversionContext.currentThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+        try {
+            conversion.run();
+        } catch (Exception e) {
+            if (e instanceof CancellationException || context.isCancelled()) {
+                // A resumed conversion has already undone its append, and the output still holds
+                // the records of earlier runs
+                if (context.getResumeOffset() < 0) {
+                    deletePartialOutput(outputFile);
+                }
+                throw e instanceof CancellationException ? e : new CancellationException("Conversion cancelled");
+            }
+            throw e;
+        } finally {
+            context.setConversionNanos(System.nanoTime() - startTime);
+            if (allocatedBefore >= 0) {
+                context.addAllocatedBytes(ConversionContext.currentThreadAllocatedBytes() - allocatedBefore);
+            }
+            ConversionContext.bind(previous);
+        }
+    }
+
+    /**
+     * Builds the cache key of a path from the keys of its converters and the target format.
+     */
+    private static String getCacheKey(List<ConversionGraph.Edge> path, String toFormat) {
+        StringBuilder key = new StringBuilder();
+        for (ConversionGraph.Edge edge : path) {
+            key.append(edge.getConverter().getCacheKey()).append(" -> ");
+        }
+        return key.append(toFormat).toString();
+    }
+
+    /**
+     * Names the converter of a path, joining the names of a chain with " -> ".
+     */
+    private static String getConverterName(List<ConversionGraph.Edge> path) {
+        StringBuilder name = new StringBuilder();
+        for (ConversionGraph.Edge edge : path) {
+            if (name.length() > 0) {
+                name.append(" -> ");
+            }
+            name.append(edge.getDescriptor().getConverterName());
+        }
+        return name.toString();
+    }
+
+    /**
+     * Logs a failed job and builds its result.
+     */
+    private ConversionResult fail(ConversionJob job, long startTime, String inputPath, String outputPath,
+                                  String fromFormat, String errorMessage) {
+        LoggerService.logFailure(inputPath, outputPath, fromFormat, job.getToFormat(), errorMessage);
+        return new ConversionResult(job, fromFormat, false, errorMessage, elapsedMillis(startTime));
+    }
+
+    private static void deletePartialOutput(File outputFile) {
+        try {
+            Files.deleteIfExists(outputFile.toPath());
+        } catch (IOException e) {
+            System.err.println("Failed to delete partial output " + outputFile + ": " + e.getMessage());
+        }
+    }
+
+    private static long elapsedMillis(long startTime) {
+        return (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    /**
+     * Permits for the conversions running on a converter, or on a format, at once.
+     * Limits are numbered as they are created, which gives the global order their permits are taken in.
+     */
+    private static final class ConcurrencyLimit {
+
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final long order = SEQUENCE.getAndIncrement();
+        private final Semaphore permits;
+
+        ConcurrencyLimit(int permits) {
+            this.permits = new Semaphore(permits);
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.converterframework.core;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Registry of per-converter statistics.
+ * Each converter's statistics are published on the platform MBean server as
+ * {@code com.converterframework:type=ConverterStats,name=<converter name>} when the converter
+ * is first used, so they can be read with any JMX client. Publishing happens on a background
+ * thread, since creating the platform MBean server takes several hundred milliseconds and would
+ * otherwise delay the first conversion.
+ */
+public class ConversionMetrics {
+
+    private static final String DOMAIN = "com.converterframework";
+    private static final ConcurrentMap<String, ConverterStats> STATS = new ConcurrentHashMap<>();
+    private static final ExecutorService PUBLISHER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "converter-stats-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Gets the statistics of a converter, creating and publishing them on first use.
+     *
+     * @param converterName the converter name, or the names of a chain joined by " -> "
+     * @return the statistics
+     */
+    public static ConverterStats getStats(String converterName) {
+        return STATS.computeIfAbsent(converterName, name -> {
+            ConverterStats stats = new ConverterStats(name);
+            PUBLISHER.execute(() -> register(stats));
+            return stats;
+        });
+    }
+
+    /**
+     * Gets the statistics of every converter used so far.
+     */
+    public static List<ConverterStats> getAllStats() {
+        return new ArrayList<>(STATS.values());
+    }
+
+    /**
+     * Adds a finished conversion to the statistics of its converter.
+     */
+    static void record(String converterName, ConversionContext context, boolean success) {
+        getStats(converterName).record(context, success);
+    }
+
+    private static void register(ConverterStats stats) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=ConverterStats,name=" + ObjectName.quote(stats.getConverterName()));
+            server.registerMBean(stats, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // Published by another class loader in the same JVM; keep counting locally
+        } catch (JMException e) {
+            System.err.println("Failed to publish converter statistics: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.StreamConverter;
+import com.converterframework.utils.BytePipe;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a chain of stream converters with each step on its own thread.
+ * Intermediate results flow through in-memory pipes, so a multi-step conversion reads the
+ * input file once and writes the output file once.
+ */
+class ConversionPipeline {
+
+    private final List<StreamConverter> steps;
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    ConversionPipeline(List<StreamConverter> steps) {
+        if (steps.size() < 2) {
+            throw new IllegalArgumentException("A pipeline needs at least two steps");
+        }
+        this.steps = steps;
+    }
+
+    /**
+     * Converts the input file through every step into the output file.
+     * If several steps fail, the exception of the step that failed first is thrown; the others
+     * usually fail only because a neighbouring pipe was closed.
+     */
+    void run(File inputFile, File outputFile, ConversionContext context) throws Exception {
+        if (!inputFile.exists() || !inputFile.canRead()) {
+            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
+        }
+
+        List<Thread> threads = new ArrayList<>(steps.size() - 1);
+        InputStream source = context.meterInput(new FileInputStream(inputFile));
+
+        try {
+            // Every step but the last writes into a pipe read by the next step
+            for (int i = 0; i < steps.size() - 1; i++) {
+                BytePipe pipe = new BytePipe();
+                StreamConverter step = steps.get(i);
+                InputStream in = source;
+                OutputStream out = pipe.getOutputStream();
+                // Only the first step reads the input, so only it reports records to the context
+                ConversionContext stepContext = i == 0 ? context : null;
+                threads.add(Thread.ofVirtual().name("conversion-pipeline-step-" + (i + 1))
+                    .start(() -> runStep(step, in, out, stepContext)));
+                source = pipe.getInputStream();
+            }
+
+            try (OutputStream out = new BufferedOutputStream(context.meterOutput(new FileOutputStream(outputFile)))) {
+                runStep(steps.get(steps.size() - 1), source, out, null);
+            }
+        } finally {
+            source.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        Exception error = failure.get();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Runs one step and closes both of its streams, which tells the neighbouring steps it has ended.
+     */
+    private void runStep(StreamConverter step, InputStream in, OutputStream out, ConversionContext context) {
+        ConversionContext previous = ConversionContext.bind(context);
+        try {
+            step.convert(in, out);
+            // Let the previous step finish writing even if this one did not need the rest
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // Nothing more to read
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            }
+            ConversionContext.bind(previous);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.converterframework.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a conversion or a batch of conversions, and the token that cancels them.
+ * Converters report the input bytes they consume and the records they write to the conversion
+ * context, which forwards them here, so progress can be read from any thread while they run.
+ * Cancelling is cooperative: converters check for it between batches of records and on every
+ * read and write of their input and output files, and stop with a
+ * {@link java.util.concurrent.CancellationException}. The conversion manager then deletes the
+ * partial output, except when only new records were being appended to an earlier output,
+ * which is restored instead.
+ */
+public class ConversionProgress {
+
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder bytesProcessed = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private volatile boolean cancelled;
+
+    /**
+     * Asks the conversions to stop. Conversions that have not started yet fail right away.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the combined input size of the conversions started so far. A batch adds the input
+     * sizes of all its jobs as it starts.
+     */
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+
+    /**
+     * Gets the number of input bytes processed so far.
+     */
+    public long getBytesProcessed() {
+        return bytesProcessed.sum();
+    }
+
+    /**
+     * Gets the number of records processed so far, or 0 if the converters do not report them.
+     */
+    public long getRecordCount() {
+        return records.sum();
+    }
+
+    /**
+     * Gets the fraction of the input processed so far.
+     *
+     * @return a value between 0 and 1, or -1 if no conversion has started
+     */
+    public double getFraction() {
+        long total = totalBytes.sum();
+        if (total <= 0) {
+            return -1;
+        }
+        return Math.min(1.0, (double) bytesProcessed.sum() / total);
+    }
+
+    void addTotalBytes(long bytes) {
+        totalBytes.add(bytes);
+    }
+
+    void addBytesProcessed(long bytes) {
+        bytesProcessed.add(bytes);
+    }
+
+    void addRecords(long count) {
+        records.add(count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d of %d bytes, %d records%s", getBytesProcessed(), getTotalBytes(), getRecordCount(),
+            cancelled ? ", cancelled" : "");
+    }
+}
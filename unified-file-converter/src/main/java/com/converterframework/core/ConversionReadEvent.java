@@ -0,0 +1,36 @@
+package com.converterframework.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a read from a converter's input file.
+ * Like the JDK's file read event, only reads that take longer than the threshold are recorded.
+ */
+@Name("com.converterframework.ConversionRead")
+@Label("Conversion Read")
+@Category("Converter Framework")
+@Threshold("20 ms")
+@StackTrace(false)
+class ConversionReadEvent extends jdk.jfr.Event {
+
+    @Label("Converter")
+    String converter;
+
+    @Label("File")
+    String file;
+
+    @Label("From Format")
+    String fromFormat;
+
+    @Label("To Format")
+    String toFormat;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,77 @@
+package com.converterframework.core;
+
+/**
+ * Outcome of a single conversion job.
+ */
+public class ConversionResult {
+
+    private final ConversionJob job;
+    private final String fromFormat;
+    private final boolean success;
+    private final String errorMessage;
+    private final long durationMillis;
+    private final ConversionContext context;
+
+    ConversionResult(ConversionJob job, String fromFormat, boolean success, String errorMessage, long durationMillis) {
+        this(job, fromFormat, success, errorMessage, durationMillis, null);
+    }
+
+    ConversionResult(ConversionJob job, String fromFormat, boolean success, String errorMessage, long durationMillis,
+                     ConversionContext context) {
+        this.job = job;
+        this.fromFormat = fromFormat;
+        this.success = success;
+        this.errorMessage = errorMessage;
+        this.durationMillis = durationMillis;
+        this.context = context;
+    }
+
+    /**
+     * Gets the job this result belongs to.
+     */
+    public ConversionJob getJob() {
+        return job;
+    }
+
+    /**
+     * Gets the source format that was used, which may have been detected.
+     */
+    public String getFromFormat() {
+        return fromFormat;
+    }
+
+    /**
+     * Checks if the conversion succeeded.
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * Gets the error message, or null if the conversion succeeded.
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Gets the time spent on the job in milliseconds.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Gets the measurements of a successful conversion, such as phase times and byte counts.
+     *
+     * @return the measurements, or null if the conversion did not run
+     */
+    public ConversionContext getContext() {
+        return context;
+    }
+
+    @Override
+    public String toString() {
+        return job + ": " + (success ? "SUCCESS" : "FAILED - " + errorMessage) + " in " + durationMillis + "ms";
+    }
+}
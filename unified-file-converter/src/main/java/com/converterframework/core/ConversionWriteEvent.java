@@ -0,0 +1,36 @@
+package com.converterframework.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a write to a converter's output file.
+ * Like the JDK's file write event, only writes that take longer than the threshold are recorded.
+ */
+@Name("com.converterframework.ConversionWrite")
+@Label("Conversion Write")
+@Category("Converter Framework")
+@Threshold("20 ms")
+@StackTrace(false)
+class ConversionWriteEvent extends jdk.jfr.Event {
+
+    @Label("Converter")
+    String converter;
+
+    @Label("File")
+    String file;
+
+    @Label("From Format")
+    String fromFormat;
+
+    @Label("To Format")
+    String toFormat;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,59 @@
+package com.converterframework.core;
+
+/**
+ * What a converter can do and how fast, as declared by its {@link ConverterDescriptor}.
+ * When several converters handle the same conversion, the conversion manager runs the one with
+ * the highest expected throughput that can take part in the planned conversion.
+ */
+public class ConverterCapabilities {
+
+    private boolean streaming;
+    private boolean parallelSafe = true;
+    private double expectedMBps;
+
+    /**
+     * Sets whether the converter is a {@link com.converterframework.interfaces.StreamConverter},
+     * so it can be a step in a chain of conversions.
+     */
+    public ConverterCapabilities streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    /**
+     * Sets whether one converter instance can run several conversions at the same time.
+     * Converters that cannot are limited to one conversion at a time.
+     */
+    public ConverterCapabilities parallelSafe(boolean parallelSafe) {
+        this.parallelSafe = parallelSafe;
+        return this;
+    }
+
+    /**
+     * Sets the typical throughput in megabytes of input per second, or 0 if unknown.
+     */
+    public ConverterCapabilities expectedMBps(double expectedMBps) {
+        if (!(expectedMBps >= 0) || Double.isInfinite(expectedMBps)) {
+            throw new IllegalArgumentException("Expected throughput must be a non-negative number");
+        }
+        this.expectedMBps = expectedMBps;
+        return this;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public boolean isParallelSafe() {
+        return parallelSafe;
+    }
+
+    public double getExpectedMBps() {
+        return expectedMBps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("streaming=%s, parallelSafe=%s, expectedMBps=%.1f", streaming, parallelSafe, expectedMBps);
+    }
+}
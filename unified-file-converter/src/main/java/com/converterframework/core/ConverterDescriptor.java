@@ -0,0 +1,158 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.FileConverter;
+import com.converterframework.interfaces.StreamConverter;
+
+import java.util.function.Supplier;
+
+/**
+ * Describes a registered converter without necessarily having created it.
+ * The conversion manager plans conversions from descriptors alone, and creates the converter
+ * the first time a conversion runs through it, so the classes of converters that are never
+ * used are never loaded.
+ */
+public final class ConverterDescriptor {
+
+    private final String converterName;
+    private final String fromFormat;
+    private final String toFormat;
+    private final boolean streaming;
+    private final boolean parallelSafe;
+    private final double expectedMBps;
+    private final Supplier<? extends FileConverter> factory;
+    private volatile FileConverter converter;
+
+    /**
+     * Describes a converter that is created on first use.
+     * The factory should be a lambda rather than a constructor reference: a lambda's body is
+     * only linked when it runs, while a constructor reference loads the converter class as
+     * soon as the descriptor is created.
+     *
+     * @param converterName the name of the converter
+     * @param fromFormat the source format
+     * @param toFormat the target format
+     * @param capabilities what the converter can do and how fast
+     * @param factory creates the converter
+     */
+    public ConverterDescriptor(String converterName, String fromFormat, String toFormat,
+                               ConverterCapabilities capabilities, Supplier<? extends FileConverter> factory) {
+        if (converterName == null || fromFormat == null || toFormat == null || capabilities == null || factory == null) {
+            throw new IllegalArgumentException("Converter descriptor fields cannot be null");
+        }
+        if (fromFormat.equals(toFormat)) {
+            throw new IllegalArgumentException("Source and target formats must differ");
+        }
+        this.converterName = converterName;
+        this.fromFormat = fromFormat;
+        this.toFormat = toFormat;
+        this.streaming = capabilities.isStreaming();
+        this.parallelSafe = capabilities.isParallelSafe();
+        this.expectedMBps = capabilities.getExpectedMBps();
+        this.factory = factory;
+    }
+
+    /**
+     * Describes a converter that already exists, for any of the conversions it supports.
+     */
+    ConverterDescriptor(FileConverter converter, ConverterCapabilities capabilities) {
+        if (capabilities.isStreaming() && !(converter instanceof StreamConverter)) {
+            throw new IllegalArgumentException(converter.getConverterName() + " is not a StreamConverter");
+        }
+        this.converterName = converter.getConverterName();
+        this.fromFormat = null;
+        this.toFormat = null;
+        this.streaming = capabilities.isStreaming();
+        this.parallelSafe = capabilities.isParallelSafe();
+        this.expectedMBps = capabilities.getExpectedMBps();
+        this.factory = () -> converter;
+        this.converter = converter;
+    }
+
+    /**
+     * Checks if the described converter handles a conversion.
+     */
+    public boolean supportsFormat(String from, String to) {
+        if (fromFormat == null) {
+            return converter.supportsFormat(from, to);
+        }
+        return fromFormat.equals(from) && toFormat.equals(to);
+    }
+
+    public String getConverterName() {
+        return converterName;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public boolean isParallelSafe() {
+        return parallelSafe;
+    }
+
+    /**
+     * Gets the typical throughput in megabytes of input per second, or 0 if unknown.
+     */
+    public double getExpectedMBps() {
+        return expectedMBps;
+    }
+
+    /**
+     * Gets the source format, or null if the converter is asked with {@link FileConverter#supportsFormat}.
+     */
+    String getFromFormat() {
+        return fromFormat;
+    }
+
+    /**
+     * Gets the target format, or null if the converter is asked with {@link FileConverter#supportsFormat}.
+     */
+    String getToFormat() {
+        return toFormat;
+    }
+
+    /**
+     * Checks if the converter has been created.
+     */
+    public boolean isLoaded() {
+        return converter != null;
+    }
+
+    /**
+     * Gets the converter, creating it on first use.
+     *
+     * @throws IllegalStateException if the factory fails or creates a converter that does not match the description
+     */
+    public FileConverter getConverter() {
+        FileConverter result = converter;
+        if (result == null) {
+            synchronized (this) {
+                result = converter;
+                if (result == null) {
+                    result = create();
+                    converter = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private FileConverter create() {
+        FileConverter created = factory.get();
+        if (created == null) {
+            throw new IllegalStateException("Factory of " + converterName + " returned null");
+        }
+        if (streaming && !(created instanceof StreamConverter)) {
+            throw new IllegalStateException(converterName + " is described as streaming but is not a StreamConverter");
+        }
+        if (!created.supportsFormat(fromFormat, toFormat)) {
+            throw new IllegalStateException(converterName + " does not support " + fromFormat + " to " + toFormat);
+        }
+        return created;
+    }
+
+    @Override
+    public String toString() {
+        return converterName + (fromFormat != null ? " (" + fromFormat + " to " + toFormat + ")" : "");
+    }
+}
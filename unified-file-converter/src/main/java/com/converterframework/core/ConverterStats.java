@@ -0,0 +1,182 @@
+package com.converterframework.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated measurements of the conversions done by one converter, or one chain of converters.
+ */
+public class ConverterStats implements ConverterStatsMXBean {
+
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private final String converterName;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram detection = new LatencyHistogram();
+    private final LatencyHistogram parse = new LatencyHistogram();
+    private final LatencyHistogram write = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder inputBytes = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder allocationMeasured = new LongAdder();
+    private final LongAdder conversionNanos = new LongAdder();
+
+    ConverterStats(String converterName) {
+        this.converterName = converterName;
+    }
+
+    /**
+     * Adds the measurements of a finished conversion.
+     */
+    void record(ConversionContext context, boolean success) {
+        if (!success) {
+            failures.increment();
+            return;
+        }
+        latency.record(context.getTotalNanos());
+        detection.record(context.getDetectionNanos());
+        parse.record(context.getParseNanos());
+        write.record(context.getWriteNanos());
+        inputBytes.add(context.getInputBytes());
+        outputBytes.add(context.getOutputBytes());
+        records.add(context.getRecordCount());
+        conversionNanos.add(context.getParseNanos() + context.getWriteNanos());
+        // Conversions on virtual threads have no allocation figure and are left out of it
+        if (context.getAllocatedBytes() >= 0) {
+            allocatedBytes.add(context.getAllocatedBytes());
+            allocationMeasured.increment();
+        }
+    }
+
+    @Override
+    public String getConverterName() {
+        return converterName;
+    }
+
+    @Override
+    public long getConversions() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public double getLatencyMeanMillis() {
+        return latency.getMeanMillis();
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latency.getPercentileMillis(0.50);
+    }
+
+    @Override
+    public double getLatencyP90Millis() {
+        return latency.getPercentileMillis(0.90);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latency.getPercentileMillis(0.99);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public double getDetectionP50Millis() {
+        return detection.getPercentileMillis(0.50);
+    }
+
+    @Override
+    public double getDetectionP99Millis() {
+        return detection.getPercentileMillis(0.99);
+    }
+
+    @Override
+    public double getParseP50Millis() {
+        return parse.getPercentileMillis(0.50);
+    }
+
+    @Override
+    public double getParseP99Millis() {
+        return parse.getPercentileMillis(0.99);
+    }
+
+    @Override
+    public double getWriteP50Millis() {
+        return write.getPercentileMillis(0.50);
+    }
+
+    @Override
+    public double getWriteP99Millis() {
+        return write.getPercentileMillis(0.99);
+    }
+
+    @Override
+    public long getInputBytes() {
+        return inputBytes.sum();
+    }
+
+    @Override
+    public long getOutputBytes() {
+        return outputBytes.sum();
+    }
+
+    @Override
+    public long getRecordsProcessed() {
+        return records.sum();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    @Override
+    public long getAllocationMeasuredConversions() {
+        return allocationMeasured.sum();
+    }
+
+    @Override
+    public double getAllocatedBytesPerConversion() {
+        long measured = allocationMeasured.sum();
+        return measured == 0 ? -1 : (double) allocatedBytes.sum() / measured;
+    }
+
+    @Override
+    public double getInputMegabytesPerSecond() {
+        return megabytesPerSecond(inputBytes.sum());
+    }
+
+    @Override
+    public double getOutputMegabytesPerSecond() {
+        return megabytesPerSecond(outputBytes.sum());
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        detection.reset();
+        parse.reset();
+        write.reset();
+        failures.reset();
+        inputBytes.reset();
+        outputBytes.reset();
+        records.reset();
+        allocatedBytes.reset();
+        allocationMeasured.reset();
+        conversionNanos.reset();
+    }
+
+    private double megabytesPerSecond(long bytes) {
+        long nanos = conversionNanos.sum();
+        return nanos == 0 ? 0 : bytes / BYTES_PER_MEGABYTE / (nanos / 1e9);
+    }
+}
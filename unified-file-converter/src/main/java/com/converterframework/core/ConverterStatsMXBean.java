@@ -0,0 +1,75 @@
+package com.converterframework.core;
+
+/**
+ * Management interface for the statistics of one converter, or one chain of converters.
+ * Latencies are in milliseconds and cover successful conversions only.
+ */
+public interface ConverterStatsMXBean {
+
+    String getConverterName();
+
+    long getConversions();
+
+    long getFailures();
+
+    double getLatencyMeanMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP90Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    double getDetectionP50Millis();
+
+    double getDetectionP99Millis();
+
+    double getParseP50Millis();
+
+    double getParseP99Millis();
+
+    double getWriteP50Millis();
+
+    double getWriteP99Millis();
+
+    long getInputBytes();
+
+    long getOutputBytes();
+
+    long getRecordsProcessed();
+
+    /**
+     * Gets the bytes allocated by conversions on threads where allocation is tracked.
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Gets the number of conversions whose allocation was measured. Conversions run on virtual
+     * threads are not measured, so their allocation is not available.
+     */
+    long getAllocationMeasuredConversions();
+
+    /**
+     * Gets the mean bytes allocated by a conversion whose allocation was measured.
+     *
+     * @return the mean, or -1 if no conversion was measured
+     */
+    double getAllocatedBytesPerConversion();
+
+    /**
+     * Gets the input bytes converted per second of conversion time.
+     */
+    double getInputMegabytesPerSecond();
+
+    /**
+     * Gets the output bytes written per second of conversion time.
+     */
+    double getOutputMegabytesPerSecond();
+
+    /**
+     * Clears all statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,30 @@
+package com.converterframework.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for detecting the format of a file.
+ */
+@Name("com.converterframework.FormatDetection")
+@Label("Format Detection")
+@Category("Converter Framework")
+@StackTrace(false)
+class FormatDetectionEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Format")
+    String format;
+
+    @Label("Cached")
+    boolean cached;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+}
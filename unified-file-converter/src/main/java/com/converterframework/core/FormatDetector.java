@@ -3,16 +3,50 @@ package com.converterframework.core;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Utility class for detecting file formats based on extension and content.
+ * Content checks run against a single fixed-size prefix of the file, and results are cached
+ * by path, size and modification time so unchanged files are never read twice.
  */
 public class FormatDetector {
 
     private static final Map<String, String> EXTENSION_TO_FORMAT = new HashMap<>();
 
+    /**
+     * Number of bytes read from the start of a file for content checks.
+     */
+    private static final int PREFIX_SIZE = 8 * 1024;
+
+    /**
+     * Maximum number of detection results kept in the cache.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    /**
+     * PDF readers accept the header anywhere in the first 1024 bytes.
+     */
+    private static final int PDF_HEADER_LIMIT = 1024;
+
+    private static final byte[] ZIP_MAGIC = {0x50, 0x4B, 0x03, 0x04};
+    private static final byte[] OLE2_MAGIC = {
+        (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1
+    };
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+
+    private static final Map<String, CachedFormat> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFormat> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+
     static {
         // Initialize extension to format mapping
         EXTENSION_TO_FORMAT.put("csv", "CSV");
@@ -31,29 +65,77 @@ public class FormatDetector {
      * @return the detected format, or "UNKNOWN" if not detected
      */
     public static String detectFormat(File file) {
-        if (file == null || !file.exists()) {
+        if (!ConversionContext.isRecording()) {
+            return detectFormat(file, null);
+        }
+
+        FormatDetectionEvent event = new FormatDetectionEvent();
+        event.begin();
+        String format = detectFormat(file, event);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.file = file != null ? file.getName() : null;
+            event.format = format;
+            event.commit();
+        }
+        return format;
+    }
+
+    private static String detectFormat(File file, FormatDetectionEvent event) {
+        if (file == null) {
             return "UNKNOWN";
         }
 
         String extension = getFileExtension(file.getName()).toLowerCase();
         String format = EXTENSION_TO_FORMAT.get(extension);
+        if (format == null) {
+            return "UNKNOWN";
+        }
 
-        if (format != null) {
-            // For some formats, do a quick content check
-            if ("CSV".equals(format)) {
-                return isCSVFile(file) ? "CSV" : "UNKNOWN";
-            } else if ("JSON".equals(format)) {
-                return isJSONFile(file) ? "JSON" : "UNKNOWN";
-            } else if ("XML".equals(format)) {
-                return isXMLFile(file) ? "XML" : "UNKNOWN";
-            } else if ("EXCEL".equals(format)) {
-                return isExcelFile(file) ? "EXCEL" : "UNKNOWN";
-            } else if ("TEXT".equals(format)) {
-                return isTextFile(file) ? "TEXT" : "UNKNOWN";
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return "UNKNOWN";
+        }
+
+        String key = file.getAbsolutePath();
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        CachedFormat cached = CACHE.get(key);
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            if (event != null) {
+                event.cached = true;
             }
+            return cached.format;
+        }
+
+        if (event != null) {
+            event.bytesRead = Math.min(size, PREFIX_SIZE);
         }
+        String detected = detectContent(file.toPath(), format);
+        CACHE.put(key, new CachedFormat(size, lastModified, detected));
+        return detected;
+    }
 
-        return format != null ? format : "UNKNOWN";
+    /**
+     * Removes a file from the detection cache.
+     *
+     * @param file the file to forget
+     */
+    public static void invalidate(File file) {
+        if (file != null) {
+            CACHE.remove(file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Clears all cached detection results.
+     */
+    public static void clearCache() {
+        CACHE.clear();
     }
 
     /**
@@ -68,81 +150,118 @@ public class FormatDetector {
     }
 
     /**
-     * Checks if a file is a valid CSV file by reading the first few lines.
+     * Reads the file prefix once and runs the content check for the expected format.
      */
-    private static boolean isCSVFile(File file) {
-        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
-            String firstLine = reader.readLine();
-            if (firstLine == null) return false;
-
-            // Check if line contains comma-separated values
-            return firstLine.contains(",") || firstLine.contains(";") || firstLine.contains("\t");
+    private static String detectContent(Path path, String format) {
+        byte[] prefix;
+        try (InputStream in = Files.newInputStream(path)) {
+            prefix = in.readNBytes(PREFIX_SIZE);
         } catch (IOException e) {
-            return false;
+            return "UNKNOWN";
         }
+
+        boolean matches = switch (format) {
+            case "CSV" -> isCSVFile(prefix);
+            case "JSON" -> isJSONFile(prefix);
+            case "XML" -> isXMLFile(prefix);
+            case "EXCEL" -> isExcelFile(prefix);
+            case "PDF" -> isPDFFile(prefix);
+            default -> true; // Any readable file is accepted as text
+        };
+        return matches ? format : "UNKNOWN";
     }
 
     /**
-     * Checks if a file is a valid JSON file.
+     * Checks if the first line contains comma, semicolon or tab separated values.
      */
-    private static boolean isJSONFile(File file) {
-        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
-            String firstLine = reader.readLine();
-            if (firstLine == null) return false;
+    private static boolean isCSVFile(byte[] prefix) {
+        if (prefix.length == 0) return false;
 
-            // Check if line starts with '{' or '['
-            return firstLine.trim().startsWith("{") || firstLine.trim().startsWith("[");
-        } catch (IOException e) {
-            return false;
+        for (byte b : prefix) {
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            if (b == ',' || b == ';' || b == '\t') {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
-     * Checks if a file is a valid XML file.
+     * Checks if the content starts with '{' or '['.
      */
-    private static boolean isXMLFile(File file) {
-        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
-            String firstLine = reader.readLine();
-            if (firstLine == null) return false;
+    private static boolean isJSONFile(byte[] prefix) {
+        int first = firstSignificantByte(prefix);
+        return first == '{' || first == '[';
+    }
 
-            // Check if line starts with XML declaration or root element
-            return firstLine.trim().startsWith("<?xml") || firstLine.trim().startsWith("<");
-        } catch (IOException e) {
-            return false;
-        }
+    /**
+     * Checks if the content starts with an XML declaration or root element.
+     */
+    private static boolean isXMLFile(byte[] prefix) {
+        return firstSignificantByte(prefix) == '<';
     }
 
     /**
-     * Checks if a file is a valid Excel file by checking the magic bytes.
+     * Checks for the ZIP (XLSX) or OLE2 (XLS) magic bytes.
      */
-    private static boolean isExcelFile(File file) {
-        try {
-            byte[] header = Files.readAllBytes(file.toPath());
-            if (header.length < 8) return false;
+    private static boolean isExcelFile(byte[] prefix) {
+        return startsWith(prefix, 0, ZIP_MAGIC) || startsWith(prefix, 0, OLE2_MAGIC);
+    }
 
-            // Check for Excel file signatures
-            // XLSX files start with "PK" (ZIP format)
-            if (header[0] == 'P' && header[1] == 'K') {
+    /**
+     * Checks for the "%PDF-" header.
+     */
+    private static boolean isPDFFile(byte[] prefix) {
+        int limit = Math.min(prefix.length, PDF_HEADER_LIMIT) - PDF_MAGIC.length;
+        for (int i = 0; i <= limit; i++) {
+            if (startsWith(prefix, i, PDF_MAGIC)) {
                 return true;
             }
+        }
+        return false;
+    }
 
-            // XLS files have different signatures, but for simplicity we'll just check extension
-            return true;
-        } catch (IOException e) {
+    /**
+     * Returns the first byte after an optional UTF-8 BOM and leading whitespace, or -1.
+     */
+    private static int firstSignificantByte(byte[] prefix) {
+        int i = 0;
+        if (prefix.length >= 3 && (prefix[0] & 0xFF) == 0xEF && (prefix[1] & 0xFF) == 0xBB && (prefix[2] & 0xFF) == 0xBF) {
+            i = 3;
+        }
+        while (i < prefix.length && Character.isWhitespace(prefix[i])) {
+            i++;
+        }
+        return i < prefix.length ? prefix[i] : -1;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] magic) {
+        if (data.length - offset < magic.length) {
             return false;
         }
+        for (int i = 0; i < magic.length; i++) {
+            if (data[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Checks if a file is a text file.
+     * Detection result for a file at a given size and modification time.
      */
-    private static boolean isTextFile(File file) {
-        try {
-            // Try to read as UTF-8, if it fails, it's probably not a text file
-            Files.newBufferedReader(file.toPath());
-            return true;
-        } catch (IOException e) {
-            return false;
+    private static final class CachedFormat {
+
+        private final long size;
+        private final long lastModified;
+        private final String format;
+
+        CachedFormat(long size, long lastModified, String format) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.format = format;
         }
     }
 }
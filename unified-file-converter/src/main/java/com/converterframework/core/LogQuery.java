@@ -0,0 +1,108 @@
+package com.converterframework.core;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter for reading entries from the conversion log.
+ * Unset criteria match every entry. Sealed log segments are skipped when the log manifest shows
+ * they have no entry in the time range, or no entry with the status and formats, of the query.
+ * Segments that may match are read in full, as are the active log and segments sealed before
+ * the manifest recorded statuses and formats.
+ */
+public class LogQuery {
+
+    private String status;
+    private String fromFormat;
+    private String toFormat;
+    private LocalDateTime since;
+    private LocalDateTime until;
+    private int limit = 100;
+
+    /**
+     * Only matches entries with the given status (SUCCESS, FAILED).
+     */
+    public LogQuery status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Only matches entries for the given conversion. Either format may be null to match any.
+     */
+    public LogQuery formats(String fromFormat, String toFormat) {
+        this.fromFormat = fromFormat;
+        this.toFormat = toFormat;
+        return this;
+    }
+
+    /**
+     * Only matches entries logged within the given time range. Either bound may be null.
+     *
+     * @param since the earliest timestamp, inclusive
+     * @param until the latest timestamp, inclusive
+     */
+    public LogQuery between(LocalDateTime since, LocalDateTime until) {
+        this.since = since;
+        this.until = until;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of entries to return. The most recent matches are kept.
+     */
+    public LogQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getFromFormat() {
+        return fromFormat;
+    }
+
+    public String getToFormat() {
+        return toFormat;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks if an entry logged at the given time is after the range of this query.
+     */
+    boolean isAfterRange(LocalDateTime timestamp) {
+        return until != null && timestamp.isAfter(until);
+    }
+
+    /**
+     * Checks if an entry logged at the given time is before the range of this query.
+     * Since the log is written in time order, older entries cannot match either.
+     */
+    boolean isBeforeRange(LocalDateTime timestamp) {
+        return since != null && timestamp.isBefore(since);
+    }
+
+    /**
+     * Checks the status and format criteria against a parsed log entry.
+     */
+    boolean matches(String[] entry) {
+        return (status == null || status.equals(entry[5]))
+            && (fromFormat == null || fromFormat.equals(entry[3]))
+            && (toFormat == null || toFormat.equals(entry[4]));
+    }
+}
@@ -0,0 +1,83 @@
+package com.converterframework.core;
+
+import java.time.Duration;
+
+/**
+ * Rotation, compression and retention settings for the conversion log.
+ * The active log file is sealed into a segment once it reaches the size or age limit.
+ * Sealed segments are kept forever unless a segment count or retention period is set.
+ */
+public class LogSegmentPolicy {
+
+    private long maxSegmentBytes = 10L * 1024 * 1024;
+    private Duration maxSegmentAge = Duration.ofDays(1);
+    private boolean compressSealedSegments = true;
+    private int maxSegments = Integer.MAX_VALUE;
+    private Duration retention;
+
+    /**
+     * Seals the active log once it grows past the given size.
+     */
+    public LogSegmentPolicy maxSegmentBytes(long maxSegmentBytes) {
+        if (maxSegmentBytes < 1) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        this.maxSegmentBytes = maxSegmentBytes;
+        return this;
+    }
+
+    /**
+     * Seals the active log once its first entry is older than the given age, or never if null.
+     */
+    public LogSegmentPolicy maxSegmentAge(Duration maxSegmentAge) {
+        this.maxSegmentAge = maxSegmentAge;
+        return this;
+    }
+
+    /**
+     * Sets whether sealed segments are gzip-compressed.
+     */
+    public LogSegmentPolicy compressSealedSegments(boolean compressSealedSegments) {
+        this.compressSealedSegments = compressSealedSegments;
+        return this;
+    }
+
+    /**
+     * Keeps at most the given number of sealed segments; older ones are deleted.
+     */
+    public LogSegmentPolicy maxSegments(int maxSegments) {
+        if (maxSegments < 0) {
+            throw new IllegalArgumentException("Segment count cannot be negative");
+        }
+        this.maxSegments = maxSegments;
+        return this;
+    }
+
+    /**
+     * Deletes sealed segments whose newest entry is older than the given duration, or never if null.
+     */
+    public LogSegmentPolicy retention(Duration retention) {
+        this.retention = retention;
+        return this;
+    }
+
+    public long getMaxSegmentBytes() {
+        return maxSegmentBytes;
+    }
+
+    public Duration getMaxSegmentAge() {
+        return maxSegmentAge;
+    }
+
+    public boolean isCompressSealedSegments() {
+        return compressSealedSegments;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+}
@@ -0,0 +1,586 @@
+package com.converterframework.core;
+
+import com.converterframework.utils.CSVRecordReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Segmented storage for the conversion log.
+ * New entries go to the active log file. When it passes the size or age limit of the
+ * {@link LogSegmentPolicy}, it is sealed into the segment directory, optionally compressed,
+ * and recorded in a manifest together with the time range it covers and the statuses and
+ * format pairs of its entries. Queries read the active file and then only the sealed segments
+ * that overlap the requested time range and hold entries of the requested status and formats.
+ * Appends are made by the single log writer thread; queries may run on any thread.
+ * Queries read the active file only up to its size at the last flush, so they never see
+ * a line the writer is still in the middle of writing.
+ */
+class LogStore {
+
+    private static final String MANIFEST_FILE = "manifest.csv";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int LINE_SEPARATOR_BYTES = System.lineSeparator().length();
+
+    private final Path activeFile;
+    private final Path segmentDir;
+    private final Path manifestFile;
+    private final String header;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile List<Segment> segments;
+    private volatile LogSegmentPolicy policy = new LogSegmentPolicy();
+    // Length of the complete lines in the active file that queries may read
+    private volatile long readableBytes;
+
+    // Writer thread state
+    private BufferedWriter writer;
+    private long activeBytes;
+    private LocalDateTime activeFirst;
+    private LocalDateTime activeLast;
+    private Summary activeSummary = new Summary();
+
+    LogStore(Path activeFile, Path segmentDir, String header) {
+        this.activeFile = activeFile;
+        this.segmentDir = segmentDir;
+        this.manifestFile = segmentDir.resolve(MANIFEST_FILE);
+        this.header = header;
+        this.segments = loadManifest();
+        this.readableBytes = activeFile.toFile().length();
+    }
+
+    void setPolicy(LogSegmentPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Appends one formatted entry, sealing the active file first if it is full or too old.
+     * The status and formats of the entry are recorded in the summary of its segment.
+     *
+     * @return true if the active file was sealed first, which wrote out every earlier entry
+     */
+    boolean append(String line, LocalDateTime timestamp, String status, String fromFormat, String toFormat)
+            throws IOException {
+        if (writer == null) {
+            open();
+        }
+        boolean sealed = false;
+        if (activeFirst != null && shouldRotate(timestamp)) {
+            rotate();
+            open();
+            sealed = true;
+        }
+
+        writer.write(line);
+        writer.newLine();
+        activeBytes += encodedLength(line);
+        if (activeFirst == null) {
+            activeFirst = timestamp;
+        }
+        activeLast = timestamp;
+        activeSummary.add(status, fromFormat, toFormat);
+        return sealed;
+    }
+
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            readableBytes = activeBytes;
+        }
+    }
+
+    /**
+     * Closes the active file; the next append reopens it.
+     */
+    void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+                readableBytes = activeBytes;
+            } catch (IOException e) {
+                System.err.println("Failed to close log file: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * Closes the active file after a failed write and cuts it back to its last flushed line, so
+     * the entries that were not flushed can be appended again without leaving a partial line or
+     * writing an entry twice. The next append reopens the file.
+     */
+    void discardUnflushed() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Whatever part of the buffer did reach the file is cut off below
+            }
+            writer = null;
+        }
+        try (FileChannel channel = FileChannel.open(activeFile, StandardOpenOption.WRITE)) {
+            if (channel.size() > readableBytes) {
+                channel.truncate(readableBytes);
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing was written
+        } catch (IOException e) {
+            System.err.println("Failed to discard unflushed log entries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the most recent entries matching a query, newest segment first.
+     *
+     * @return matching entries, oldest first
+     */
+    List<String[]> query(LogQuery query) {
+        List<String[]> logs = new ArrayList<>();
+        if (query.getLimit() == 0) {
+            return logs;
+        }
+
+        lock.readLock().lock();
+        try {
+            boolean done = scanReverse(activeFile, readableBytes, query, logs);
+
+            List<Segment> sealed = segments;
+            for (int i = sealed.size() - 1; i >= 0 && !done; i--) {
+                Segment segment = sealed.get(i);
+                if (query.getSince() != null && segment.last.isBefore(query.getSince())) {
+                    break;
+                }
+                if (query.getUntil() != null && segment.first.isAfter(query.getUntil())) {
+                    continue;
+                }
+                if (!segment.summary.mayMatch(query)) {
+                    continue;
+                }
+
+                Path path = segmentDir.resolve(segment.fileName);
+                done = segment.fileName.endsWith(".gz")
+                    ? scanCompressed(path, query, logs)
+                    : scanReverse(path, Long.MAX_VALUE, query, logs);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Collections.reverse(logs);
+        return logs;
+    }
+
+    private boolean shouldRotate(LocalDateTime timestamp) {
+        LogSegmentPolicy current = policy;
+        if (activeBytes >= current.getMaxSegmentBytes()) {
+            return true;
+        }
+        return current.getMaxSegmentAge() != null
+            && !activeFirst.plus(current.getMaxSegmentAge()).isAfter(timestamp);
+    }
+
+    /**
+     * Opens the active file for appending and restores its time range and summary if it
+     * already has entries.
+     */
+    private void open() throws IOException {
+        boolean isNew = !Files.exists(activeFile) || Files.size(activeFile) == 0;
+        activeFirst = null;
+        activeLast = null;
+        activeSummary = new Summary();
+        activeBytes = 0;
+
+        if (!isNew) {
+            activeBytes = Files.size(activeFile);
+            readableBytes = activeBytes;
+            // The active file is bounded by the segment size, so it is read once in full
+            try (BufferedReader reader = Files.newBufferedReader(activeFile)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LocalDateTime timestamp = parseTimestamp(line);
+                    String[] parts = timestamp != null ? CSVRecordReader.parseLine(line, ',') : null;
+                    if (parts == null || parts.length < 6) {
+                        continue;
+                    }
+                    if (activeFirst == null) {
+                        activeFirst = timestamp;
+                    }
+                    activeLast = timestamp;
+                    activeSummary.add(parts[5], parts[3], parts[4]);
+                }
+            }
+        }
+
+        writer = Files.newBufferedWriter(activeFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (isNew) {
+            writer.write(header);
+            writer.newLine();
+            activeBytes = encodedLength(header);
+        }
+    }
+
+    /**
+     * Seals the active file into a new segment and applies the retention policy.
+     */
+    private void rotate() throws IOException {
+        close();
+        LogSegmentPolicy current = policy;
+
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(segmentDir);
+            List<Segment> updated = new ArrayList<>(segments);
+            long sequence = updated.isEmpty() ? 1 : updated.get(updated.size() - 1).sequence + 1;
+            String fileName = String.format("segment-%06d.csv", sequence);
+            Path sealed = segmentDir.resolve(fileName);
+
+            Files.move(activeFile, sealed, StandardCopyOption.REPLACE_EXISTING);
+            readableBytes = 0;
+            if (current.isCompressSealedSegments()) {
+                Path compressed = segmentDir.resolve(fileName + ".gz");
+                try (InputStream in = Files.newInputStream(sealed);
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                    in.transferTo(out);
+                }
+                Files.delete(sealed);
+                fileName = fileName + ".gz";
+            }
+
+            updated.add(new Segment(sequence, fileName, activeFirst, activeLast != null ? activeLast : activeFirst,
+                activeSummary));
+            applyRetention(updated, current, activeLast != null ? activeLast : activeFirst);
+            writeManifest(updated);
+            segments = Collections.unmodifiableList(updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the oldest segments beyond the count limit and segments past the retention period.
+     */
+    private void applyRetention(List<Segment> updated, LogSegmentPolicy current, LocalDateTime now) throws IOException {
+        while (!updated.isEmpty()) {
+            Segment oldest = updated.get(0);
+            boolean tooMany = updated.size() > current.getMaxSegments();
+            boolean expired = current.getRetention() != null
+                && oldest.last.plus(current.getRetention()).isBefore(now);
+            if (!tooMany && !expired) {
+                break;
+            }
+            Files.deleteIfExists(segmentDir.resolve(oldest.fileName));
+            updated.remove(0);
+        }
+    }
+
+    private void writeManifest(List<Segment> updated) throws IOException {
+        Path temp = segmentDir.resolve(MANIFEST_FILE + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp)) {
+            out.write("Sequence,File,First Entry,Last Entry,Statuses,Formats");
+            out.newLine();
+            for (Segment segment : updated) {
+                out.write(segment.sequence + "," + segment.fileName + ","
+                    + segment.first.format(FORMATTER) + "," + segment.last.format(FORMATTER) + ","
+                    + segment.summary.formatStatuses() + "," + segment.summary.formatPairs());
+                out.newLine();
+            }
+        }
+        try {
+            Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private List<Segment> loadManifest() {
+        List<Segment> loaded = new ArrayList<>();
+        if (!Files.exists(manifestFile)) {
+            return Collections.unmodifiableList(loaded);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile)) {
+            reader.readLine(); // Skip header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",", -1);
+                if (parts.length == 4 || parts.length == 6) {
+                    // Manifests written before summaries were kept match every query
+                    Summary summary = parts.length == 6 ? Summary.parse(parts[4], parts[5]) : Summary.unknown();
+                    loaded.add(new Segment(Long.parseLong(parts[0]), parts[1],
+                        LocalDateTime.parse(parts[2], FORMATTER), LocalDateTime.parse(parts[3], FORMATTER), summary));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to read log manifest: " + e.getMessage());
+        }
+        return Collections.unmodifiableList(loaded);
+    }
+
+    /**
+     * Scans a plain log file from its last line before an offset to its first.
+     *
+     * @return true once the query is satisfied or has passed the start of its time range
+     */
+    private boolean scanReverse(Path path, long end, LogQuery query, List<String[]> logs) {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (ReverseLineReader reader = new ReverseLineReader(path, end)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (accept(line, query, logs)) {
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            // Segment can't be read, skip it
+        }
+        return false;
+    }
+
+    /**
+     * Scans a compressed segment. Segments are bounded in size, so its lines are decompressed
+     * in full and then visited from last to first.
+     */
+    private boolean scanCompressed(Path path, LogQuery query, List<String[]> logs) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            // Segment can't be read, skip it
+            return false;
+        }
+
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            if (accept(lines.get(i), query, logs)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a line to the results if it matches.
+     *
+     * @return true once the query is satisfied or has passed the start of its time range
+     */
+    private boolean accept(String line, LogQuery query, List<String[]> logs) {
+        if (line.equals(header)) {
+            return false; // Skip header
+        }
+
+        String[] parts = CSVRecordReader.parseLine(line, ',');
+        if (parts == null || parts.length < 6) {
+            return false;
+        }
+
+        LocalDateTime timestamp = parseTimestamp(parts[0]);
+        if (timestamp != null) {
+            if (query.isBeforeRange(timestamp)) {
+                return true;
+            }
+            if (query.isAfterRange(timestamp)) {
+                return false;
+            }
+        } else if (query.getSince() != null || query.getUntil() != null) {
+            return false;
+        }
+
+        if (query.matches(parts)) {
+            logs.add(parts);
+            return logs.size() >= query.getLimit();
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of bytes a line takes up in the log file, including its line separator.
+     * The log is written in UTF-8.
+     */
+    static long encodedLength(String line) {
+        long bytes = LINE_SEPARATOR_BYTES;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < line.length()
+                    && Character.isLowSurrogate(line.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Parses the timestamp at the start of a log line, or returns null if there is none.
+     */
+    private static LocalDateTime parseTimestamp(String line) {
+        if (line.length() < 19) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(line.substring(0, 19), FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A sealed log segment, the time range of its entries and their summary.
+     */
+    private static final class Segment {
+
+        private final long sequence;
+        private final String fileName;
+        private final LocalDateTime first;
+        private final LocalDateTime last;
+        private final Summary summary;
+
+        Segment(long sequence, String fileName, LocalDateTime first, LocalDateTime last, Summary summary) {
+            this.sequence = sequence;
+            this.fileName = fileName;
+            this.first = first;
+            this.last = last;
+            this.summary = summary;
+        }
+
+    }
+
+    /**
+     * The distinct statuses and format pairs of the entries in a segment, so that queries can
+     * skip segments with no entry they could match. A summary that grows too large, or holds a
+     * value the manifest cannot store, is dropped and then matches every query.
+     */
+    private static final class Summary {
+
+        private static final int MAX_VALUES = 64;
+        private static final String PAIR_SEPARATOR = ">";
+        private static final String VALUE_SEPARATOR = "|";
+        private static final String UNKNOWN = "*";
+
+        // Null once the summary is unknown
+        private Set<String> statuses = new TreeSet<>();
+        private Set<String> pairs = new TreeSet<>();
+
+        static Summary unknown() {
+            Summary summary = new Summary();
+            summary.statuses = null;
+            summary.pairs = null;
+            return summary;
+        }
+
+        static Summary parse(String statuses, String pairs) {
+            if (statuses.equals(UNKNOWN) || pairs.equals(UNKNOWN)) {
+                return unknown();
+            }
+            Summary summary = new Summary();
+            summary.statuses.addAll(split(statuses));
+            summary.pairs.addAll(split(pairs));
+            return summary;
+        }
+
+        void add(String status, String fromFormat, String toFormat) {
+            if (statuses == null) {
+                return;
+            }
+            if (!isStorable(status) || !isStorable(fromFormat) || !isStorable(toFormat)) {
+                statuses = null;
+                pairs = null;
+                return;
+            }
+            statuses.add(status);
+            pairs.add(fromFormat + PAIR_SEPARATOR + toFormat);
+            if (statuses.size() > MAX_VALUES || pairs.size() > MAX_VALUES) {
+                statuses = null;
+                pairs = null;
+            }
+        }
+
+        /**
+         * Checks if the segment may hold an entry matching the status and format criteria of a query.
+         */
+        boolean mayMatch(LogQuery query) {
+            if (statuses == null) {
+                return true;
+            }
+            if (query.getStatus() != null && !statuses.contains(query.getStatus())) {
+                return false;
+            }
+            if (query.getFromFormat() == null && query.getToFormat() == null) {
+                return true;
+            }
+            for (String pair : pairs) {
+                int separator = pair.indexOf(PAIR_SEPARATOR);
+                if ((query.getFromFormat() == null || query.getFromFormat().equals(pair.substring(0, separator)))
+                        && (query.getToFormat() == null || query.getToFormat().equals(pair.substring(separator + 1)))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String formatStatuses() {
+            return statuses == null ? UNKNOWN : String.join(VALUE_SEPARATOR, statuses);
+        }
+
+        String formatPairs() {
+            return pairs == null ? UNKNOWN : String.join(VALUE_SEPARATOR, pairs);
+        }
+
+        private static List<String> split(String values) {
+            List<String> split = new ArrayList<>();
+            int start = 0;
+            while (start < values.length()) {
+                int end = values.indexOf(VALUE_SEPARATOR, start);
+                if (end < 0) {
+                    end = values.length();
+                }
+                split.add(values.substring(start, end));
+                start = end + 1;
+            }
+            return split;
+        }
+
+        /**
+         * Checks that a value can be stored in the manifest and read back unchanged.
+         */
+        private static boolean isStorable(String value) {
+            return value != null && !value.isEmpty() && !value.equals(UNKNOWN)
+                && value.indexOf(',') < 0 && value.indexOf('|') < 0 && value.indexOf('>') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.converterframework.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a batch of entries written to the conversion log.
+ */
+@Name("com.converterframework.LogWrite")
+@Label("Conversion Log Write")
+@Category("Converter Framework")
+@StackTrace(false)
+class LogWriteEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Entries")
+    long entries;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+}
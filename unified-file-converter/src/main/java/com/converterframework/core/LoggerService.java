@@ -1,24 +1,54 @@
 package com.converterframework.core;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Service for logging conversion operations to a CSV file.
+ * Entries are queued without blocking and written by a single background thread,
+ * which flushes them in batches when enough entries are waiting or a short interval has passed.
+ * Entries of a batch that fails to be written are kept and written again after the log file is
+ * reopened, so a transient error delays entries instead of losing them.
+ * The log is rotated into sealed segments according to a {@link LogSegmentPolicy}.
  */
 public class LoggerService {
 
     private static final String LOG_FILE = "conversion_log.csv";
+    private static final String SEGMENT_DIR = "conversion_log";
+    private static final String HEADER = "Date,Input File,Output File,From Format,To Format,Status,Error Message";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /**
+     * Number of pending entries that wakes the writer before the flush interval ends.
+     */
+    private static final int BATCH_SIZE = 256;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final LogStore STORE = new LogStore(Paths.get(LOG_FILE), Paths.get(SEGMENT_DIR), HEADER);
+    private static final Queue<LogEntry> QUEUE = new ConcurrentLinkedQueue<>();
+    // Entries taken from the queue but not written yet, in order; only used by the writer thread
+    private static final List<LogEntry> UNWRITTEN = new ArrayList<>();
+    private static boolean failing;
+    private static final AtomicLong ENQUEUED = new AtomicLong();
+    private static volatile long written;
+    private static volatile boolean shutdown;
+    private static final Thread WRITER = startWriter();
+
     /**
      * Logs a conversion operation.
+     * The entry is queued and written asynchronously; this method never blocks on file I/O.
      *
      * @param inputFile the input file path
      * @param outputFile the output file path
@@ -29,28 +59,11 @@ public class LoggerService {
      */
     public static void logConversion(String inputFile, String outputFile, String fromFormat,
                                    String toFormat, String status, String errorMessage) {
-        try {
-            // Ensure log directory exists
-            Path logPath = Paths.get(LOG_FILE);
-            if (!Files.exists(logPath)) {
-                Files.createFile(logPath);
-                // Write header if new file
-                writeLogEntry("Date,Input File,Output File,From Format,To Format,Status,Error Message");
-            }
+        QUEUE.offer(new LogEntry(System.currentTimeMillis(), inputFile, outputFile, fromFormat,
+            toFormat, status, errorMessage));
 
-            String logEntry = String.format("%s,%s,%s,%s,%s,%s,%s",
-                LocalDateTime.now().format(FORMATTER),
-                escapeCSV(inputFile),
-                escapeCSV(outputFile),
-                fromFormat,
-                toFormat,
-                status,
-                escapeCSV(errorMessage != null ? errorMessage : "")
-            );
-
-            writeLogEntry(logEntry);
-        } catch (IOException e) {
-            System.err.println("Failed to write to log file: " + e.getMessage());
+        if (ENQUEUED.incrementAndGet() - written >= BATCH_SIZE) {
+            LockSupport.unpark(WRITER);
         }
     }
 
@@ -70,90 +83,218 @@ public class LoggerService {
     }
 
     /**
-     * Reads recent log entries.
+     * Reads the most recent log entries.
      *
      * @param limit maximum number of entries to return
-     * @return list of log entries
+     * @return list of log entries, oldest first
      */
     public static List<String[]> getRecentLogs(int limit) {
-        List<String[]> logs = new ArrayList<>();
-
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(LOG_FILE))) {
-            String line;
-            boolean isHeader = true;
+        return queryLogs(new LogQuery().limit(limit));
+    }
 
-            while ((line = reader.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue; // Skip header
-                }
+    /**
+     * Reads the most recent log entries that match a query.
+     * The active log is read backwards from its end, followed by sealed segments from newest
+     * to oldest. Segments outside the query's time range, or without any entry of its status
+     * and formats, are skipped, and reading stops once the limit is reached or the start of
+     * the time range is passed.
+     *
+     * @param query the filter to apply
+     * @return list of matching log entries, oldest first
+     */
+    public static List<String[]> queryLogs(LogQuery query) {
+        flush();
+        return STORE.query(query);
+    }
 
-                String[] parts = parseCSVLine(line);
-                if (parts.length >= 6) {
-                    logs.add(parts);
-                    if (logs.size() >= limit) {
-                        break;
-                    }
-                }
-            }
-        } catch (IOException e) {
-            // File doesn't exist or can't be read, return empty list
+    /**
+     * Sets how the log is rotated, compressed and pruned.
+     * The policy takes effect with the next entry written.
+     *
+     * @param policy the segment policy
+     */
+    public static void setSegmentPolicy(LogSegmentPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Segment policy cannot be null");
         }
-
-        return logs;
+        STORE.setPolicy(policy);
     }
 
     /**
      * Escapes special characters in CSV values.
+     * Line breaks are replaced with spaces so every entry stays on a single line.
      */
     private static String escapeCSV(String value) {
         if (value == null) return "";
 
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            value = value.replace("\r\n", " ").replace('\r', ' ').replace('\n', ' ');
+        }
+        if (value.contains(",") || value.contains("\"")) {
             return "\"" + value.replace("\"", "\"\"") + "\"";
         }
         return value;
     }
 
     /**
-     * Parses a CSV line into an array of values.
+     * Waits until every entry queued before this call has been written to the log file.
+     *
+     * @return true if they were written, false if writing them failed until the wait timed out
+     *         or the writer has stopped
+     */
+    public static boolean flush() {
+        long target = ENQUEUED.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        LockSupport.unpark(WRITER);
+        while (written < target && WRITER.isAlive() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return written >= target;
+    }
+
+    /**
+     * Writes all pending entries and stops the writer thread.
+     * Entries logged afterwards are not written.
+     */
+    public static void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(WRITER);
+        try {
+            WRITER.join(TimeUnit.NANOSECONDS.toMillis(FLUSH_TIMEOUT_NANOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread startWriter() {
+        Thread thread = new Thread(LoggerService::runWriter, "conversion-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(LoggerService::shutdown, "conversion-log-shutdown"));
+        return thread;
+    }
+
+    /**
+     * Writer thread loop: sleeps until the flush interval ends or a batch is ready, then drains the queue.
+     */
+    private static void runWriter() {
+        StringBuilder line = new StringBuilder(256);
+
+        while (true) {
+            boolean stopping = shutdown;
+            if (!QUEUE.isEmpty() || !UNWRITTEN.isEmpty()) {
+                drain(line);
+            }
+            if (stopping) {
+                break;
+            }
+            LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+        }
+        if (!UNWRITTEN.isEmpty()) {
+            System.err.println("Failed to write " + UNWRITTEN.size() + " log entries before shutdown");
+        }
+        STORE.close();
+    }
+
+    /**
+     * Writes the entries left over from a failed batch and every queued entry, then flushes once.
+     * If writing fails, the entries that did not reach the file are kept for the next batch.
      */
-    private static String[] parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // Escaped quote
-                    current.append('"');
-                    i++; // Skip next quote
-                } else {
-                    // Toggle quote state
-                    inQuotes = !inQuotes;
+    private static void drain(StringBuilder line) {
+        LogWriteEvent event = ConversionContext.isRecording() ? new LogWriteEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        LogEntry queued;
+        while ((queued = QUEUE.poll()) != null) {
+            UNWRITTEN.add(queued);
+        }
+
+        // Entries before this index, taking up this many bytes, are in the file
+        int count = 0;
+        long bytes = 0;
+        long attemptedBytes = 0;
+        try {
+            for (int i = 0; i < UNWRITTEN.size(); i++) {
+                LogEntry entry = UNWRITTEN.get(i);
+                LocalDateTime dateTime = entry.getDateTime();
+                line.setLength(0);
+                entry.appendTo(line, dateTime);
+                if (STORE.append(line.toString(), dateTime, entry.status, entry.fromFormat, entry.toFormat)) {
+                    // Sealing the active file wrote out the entries before this one
+                    count = i;
+                    bytes = attemptedBytes;
                 }
-            } else if (c == ',' && !inQuotes) {
-                // Field separator
-                result.add(current.toString());
-                current.setLength(0);
-            } else {
-                current.append(c);
+                attemptedBytes += LogStore.encodedLength(line.toString());
             }
+            STORE.flush();
+            count = UNWRITTEN.size();
+            bytes = attemptedBytes;
+            if (failing) {
+                System.err.println("Writing to log file again");
+                failing = false;
+            }
+        } catch (IOException e) {
+            if (!failing) {
+                System.err.println("Failed to write to log file, will retry: " + e.getMessage());
+                failing = true;
+            }
+            // Cut the file back to its last flushed line, so the retry neither repeats entries
+            // nor continues a partial line
+            STORE.discardUnflushed();
         }
+        UNWRITTEN.subList(0, count).clear();
+        written += count;
 
-        result.add(current.toString());
-        return result.toArray(new String[0]);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = LOG_FILE;
+            event.entries = count;
+            event.bytes = bytes;
+            event.success = !failing;
+            event.commit();
+        }
     }
 
     /**
-     * Writes a line to the log file.
+     * A queued log entry, formatted on the writer thread.
      */
-    private static void writeLogEntry(String entry) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(LOG_FILE, true))) {
-            writer.println(entry);
+    private static final class LogEntry {
+
+        private final long timestamp;
+        private final String inputFile;
+        private final String outputFile;
+        private final String fromFormat;
+        private final String toFormat;
+        private final String status;
+        private final String errorMessage;
+
+        LogEntry(long timestamp, String inputFile, String outputFile, String fromFormat,
+                 String toFormat, String status, String errorMessage) {
+            this.timestamp = timestamp;
+            this.inputFile = inputFile;
+            this.outputFile = outputFile;
+            this.fromFormat = fromFormat;
+            this.toFormat = toFormat;
+            this.status = status;
+            this.errorMessage = errorMessage;
+        }
+
+        LocalDateTime getDateTime() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+        }
+
+        void appendTo(StringBuilder line, LocalDateTime dateTime) {
+            FORMATTER.formatTo(dateTime, line);
+            line.append(',').append(escapeCSV(inputFile))
+                .append(',').append(escapeCSV(outputFile))
+                .append(',').append(fromFormat)
+                .append(',').append(toFormat)
+                .append(',').append(status)
+                .append(',').append(escapeCSV(errorMessage != null ? errorMessage : ""));
         }
     }
 }
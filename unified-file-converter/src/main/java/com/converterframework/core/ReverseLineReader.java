@@ -0,0 +1,132 @@
+package com.converterframework.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the lines of a file from the last one to the first, one block at a time.
+ * Reading the last N lines costs O(N) regardless of the file size.
+ * Lines are separated by LF; a CR before the LF is dropped.
+ */
+class ReverseLineReader implements Closeable {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private byte[] line = new byte[256];
+
+    private long blockStart;
+    private int position;
+    private boolean hasLine;
+
+    ReverseLineReader(Path path) throws IOException {
+        this(path, Long.MAX_VALUE);
+    }
+
+    /**
+     * Opens a file to read the lines that end before an offset, ignoring anything written after it.
+     */
+    ReverseLineReader(Path path, long end) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.blockStart = Math.min(channel.size(), end);
+        this.hasLine = blockStart > 0;
+
+        if (hasLine) {
+            loadPreviousBlock();
+            if (block[position - 1] == '\n') {
+                // Ignore the terminator of the last line in the file
+                position--;
+            }
+        }
+    }
+
+    /**
+     * Reads the previous line.
+     *
+     * @return the line without its terminator, or null once the start of the file is reached
+     */
+    String readLine() throws IOException {
+        if (!hasLine) {
+            return null;
+        }
+
+        // The line is assembled from right to left at the end of the line buffer
+        int lineStart = line.length;
+        while (true) {
+            if (position == 0) {
+                if (blockStart == 0) {
+                    hasLine = false;
+                    return decode(lineStart);
+                }
+                loadPreviousBlock();
+            }
+
+            int end = position;
+            int i = end - 1;
+            while (i >= 0 && block[i] != '\n') {
+                i--;
+            }
+
+            lineStart = prepend(lineStart, i + 1, end);
+            if (i >= 0) {
+                position = i;
+                return decode(lineStart);
+            }
+            position = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void loadPreviousBlock() throws IOException {
+        int length = (int) Math.min(BLOCK_SIZE, blockStart);
+        blockStart -= length;
+
+        ByteBuffer buffer = ByteBuffer.wrap(block, 0, length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, blockStart + buffer.position()) < 0) {
+                throw new IOException("Log file was truncated while reading");
+            }
+        }
+        position = length;
+    }
+
+    /**
+     * Copies block bytes in front of the partial line, growing the line buffer if needed.
+     */
+    private int prepend(int lineStart, int from, int to) {
+        int length = to - from;
+        if (length > lineStart) {
+            int used = line.length - lineStart;
+            byte[] grown = new byte[Math.max(line.length * 2, used + length)];
+            System.arraycopy(line, lineStart, grown, grown.length - used, used);
+            lineStart = grown.length - used;
+            line = grown;
+        }
+        lineStart -= length;
+        System.arraycopy(block, from, line, lineStart, length);
+        return lineStart;
+    }
+
+    private String decode(int lineStart) {
+        int end = line.length;
+        if (end > lineStart && line[end - 1] == '\r') {
+            end--;
+        }
+        String result = new String(line, lineStart, end - lineStart, StandardCharsets.UTF_8);
+        if (line.length > 64 * 1024) {
+            // Do not keep a buffer grown for one unusually long line
+            line = new byte[256];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,444 @@
+package com.converterframework.core;
+
+import com.converterframework.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Watches an inbox directory and converts every file that lands in it.
+ * A file is picked up once its size and modification time have stopped changing, so partially
+ * written files are never converted. Stable files are queued to a fixed pool of workers; when the
+ * queue is full the watcher waits, which holds back further pickups until a worker frees up.
+ * Outputs are written to the output directory, and inputs are moved to the processed or failed
+ * directory depending on the result. Each input is converted to a temporary file of its own that
+ * is renamed once complete, so when inputs such as {@code a.csv} and {@code a.json} have the same
+ * output name, the output of the one converted last replaces the other and is never mixed with it.
+ * A file that is replaced or changed while it is being converted stays in the inbox and is picked
+ * up again once it is stable, rather than moving its unconverted content out of the inbox.
+ */
+public class WatchFolderService {
+
+    /**
+     * Default capacity of the queue between the watcher and the workers.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * How long a file's size and modification time must stay unchanged before it is converted.
+     */
+    private static final long STABLE_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long POLL_MILLIS = 50;
+    private static final Path STOP = Path.of("");
+
+    private final ConversionManager conversionManager;
+    private final String toFormat;
+    private final Path inbox;
+    private final Path outputDir;
+    private final Path processedDir;
+    private final Path failedDir;
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private Consumer<ConversionResult> listener = result -> { };
+
+    private final Map<Path, Observation> pending = new LinkedHashMap<>();
+    // Files queued or being converted, with their size and modification time when they were queued
+    private final ConcurrentMap<Path, Observation> inFlight = new ConcurrentHashMap<>();
+    // Files that changed while they were converted, for the watcher to observe again
+    private final Queue<Path> changed = new ConcurrentLinkedQueue<>();
+    private final AtomicLong converted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private BlockingQueue<Path> queue;
+    private WatchService watchService;
+    private Thread watcher;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Creates a service that converts files in the inbox to the given format.
+     *
+     * @param conversionManager the manager that runs the conversions
+     * @param toFormat the target format
+     * @param inbox the directory to watch
+     * @param outputDir the directory for converted files
+     * @param processedDir the directory that successfully converted inputs are moved to
+     * @param failedDir the directory that inputs of failed conversions are moved to
+     */
+    public WatchFolderService(ConversionManager conversionManager, String toFormat, Path inbox,
+                              Path outputDir, Path processedDir, Path failedDir) {
+        if (conversionManager == null || toFormat == null || inbox == null
+                || outputDir == null || processedDir == null || failedDir == null) {
+            throw new IllegalArgumentException("Watch folder settings cannot be null");
+        }
+        if (FileUtils.getFormatExtension(toFormat) == null) {
+            throw new IllegalArgumentException("Unsupported target format: " + toFormat);
+        }
+        this.conversionManager = conversionManager;
+        this.toFormat = toFormat;
+        this.inbox = inbox.toAbsolutePath();
+        this.outputDir = outputDir.toAbsolutePath();
+        this.processedDir = processedDir.toAbsolutePath();
+        this.failedDir = failedDir.toAbsolutePath();
+    }
+
+    /**
+     * Sets the number of worker threads. Must be called before {@link #start()}.
+     */
+    public void setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Sets how many stable files may wait for a worker. Must be called before {@link #start()}.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Sets a callback that receives the result of every conversion, on the worker thread.
+     */
+    public void setListener(Consumer<ConversionResult> listener) {
+        this.listener = listener != null ? listener : result -> { };
+    }
+
+    /**
+     * Creates the directories, starts the watcher and workers, and picks up files already in the inbox.
+     *
+     * @throws IOException if the directories cannot be created or watched
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Watch folder service is already running");
+        }
+
+        Files.createDirectories(inbox);
+        Files.createDirectories(outputDir);
+        Files.createDirectories(processedDir);
+        Files.createDirectories(failedDir);
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        watchService = FileSystems.getDefault().newWatchService();
+        inbox.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+
+        for (int i = 0; i < workers; i++) {
+            Thread worker = new Thread(this::runWorker, "watch-folder-worker-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workerThreads.add(worker);
+        }
+
+        watcher = new Thread(this::runWatcher, "watch-folder-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching, lets the workers finish the files already queued, and waits for them.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close watch service: " + e.getMessage());
+        }
+
+        try {
+            watcher.join();
+            for (int i = 0; i < workerThreads.size(); i++) {
+                queue.put(STOP);
+            }
+            for (Thread worker : workerThreads) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workerThreads.clear();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getConvertedCount() {
+        return converted.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Collects watch events and hands files to the queue once they are stable.
+     */
+    private void runWatcher() {
+        scanInbox();
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            if (key != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were dropped while we were blocked; look at the directory instead
+                        scanInbox();
+                    } else {
+                        observe(inbox.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    System.err.println("Watch folder is no longer accessible: " + inbox);
+                    running = false;
+                    break;
+                }
+            }
+
+            // Events for these files were ignored while they were in flight
+            Path file;
+            while ((file = changed.poll()) != null) {
+                observe(file);
+            }
+
+            if (!dispatchStableFiles()) {
+                break;
+            }
+        }
+    }
+
+    private void scanInbox() {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(inbox)) {
+            for (Path entry : entries) {
+                observe(entry);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to scan watch folder: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the current size and modification time of a file, restarting its quiet period if it changed.
+     */
+    private void observe(Path file) {
+        if (inFlight.containsKey(file) || file.getFileName().toString().startsWith(".")) {
+            return;
+        }
+
+        BasicFileAttributes attributes = readAttributes(file);
+        if (attributes == null || !attributes.isRegularFile()) {
+            pending.remove(file);
+            return;
+        }
+
+        Observation previous = pending.get(file);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (previous == null || previous.size != size || previous.lastModified != lastModified) {
+            pending.put(file, new Observation(size, lastModified, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Queues every pending file whose size and modification time have been stable long enough.
+     * Blocks while the queue is full.
+     *
+     * @return false if interrupted
+     */
+    private boolean dispatchStableFiles() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Observation>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Observation> entry = iterator.next();
+            Observation observation = entry.getValue();
+            if (now - observation.since < STABLE_NANOS) {
+                continue;
+            }
+
+            // Check again in case the writer changed the file without a watch event reaching us yet
+            Path file = entry.getKey();
+            BasicFileAttributes attributes = readAttributes(file);
+            if (attributes == null) {
+                iterator.remove();
+                continue;
+            }
+            if (attributes.size() != observation.size || attributes.lastModifiedTime().toMillis() != observation.lastModified) {
+                entry.setValue(new Observation(attributes.size(), attributes.lastModifiedTime().toMillis(), now));
+                continue;
+            }
+
+            iterator.remove();
+            inFlight.put(file, observation);
+            try {
+                queue.put(file);
+            } catch (InterruptedException e) {
+                inFlight.remove(file);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void runWorker() {
+        while (true) {
+            Path file;
+            try {
+                file = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (file == STOP) {
+                return;
+            }
+
+            boolean done = true;
+            try {
+                done = process(file, inFlight.get(file));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to process " + file + ": " + e.getMessage());
+            } finally {
+                inFlight.remove(file);
+            }
+            if (!done) {
+                changed.add(file);
+            }
+        }
+    }
+
+    /**
+     * Converts one file to a temporary name in the output directory, then publishes the output
+     * and moves the input out of the inbox. The conversion is logged once it is clear which of
+     * these happened.
+     *
+     * @param observation the size and modification time the file was queued with
+     * @return false if the file changed during the conversion and was left in the inbox
+     */
+    private boolean process(Path file, Observation observation) {
+        String fileName = file.getFileName().toString();
+        String outputName = FileUtils.getFilenameWithoutExtension(fileName) + "." + FileUtils.getFormatExtension(toFormat);
+        // Named after the whole input name, as inputs with the same output name may be converted at once
+        Path partial = outputDir.resolve("." + fileName + ".part");
+        Path output = outputDir.resolve(outputName);
+        boolean[] changed = new boolean[1];
+
+        ConversionResult result = conversionManager.convert(new ConversionJob(
+            file.toFile(), output.toFile(), null, toFormat, partial.toFile(), () -> {
+                // A new file with the same name may have arrived while this one was converted
+                BasicFileAttributes attributes = readAttributes(file);
+                if (attributes != null && (attributes.size() != observation.size
+                        || attributes.lastModifiedTime().toMillis() != observation.lastModified)) {
+                    changed[0] = true;
+                    return false;
+                }
+                try {
+                    Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new IOException("Failed to publish output: " + e.getMessage(), e);
+                }
+                try {
+                    Files.move(file, processedDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new IOException("Failed to move input: " + e.getMessage(), e);
+                }
+                return true;
+            }));
+
+        if (changed[0]) {
+            deletePartial(partial);
+            System.err.println(fileName + " changed while it was converted; it will be converted again");
+            return false;
+        }
+
+        if (result.isSuccess()) {
+            converted.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+            deletePartial(partial);
+            if (Files.exists(file)) {
+                try {
+                    Files.move(file, failedDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    System.err.println("Failed to move " + fileName + ": " + e.getMessage());
+                }
+            }
+        }
+        listener.accept(result);
+        return true;
+    }
+
+    private static void deletePartial(Path partial) {
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + partial + ": " + e.getMessage());
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Size and modification time of a pending file, and when they were first seen.
+     */
+    private static final class Observation {
+
+        private final long size;
+        private final long lastModified;
+        private final long since;
+
+        Observation(long size, long lastModified, long since) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.since = since;
+        }
+    }
+}
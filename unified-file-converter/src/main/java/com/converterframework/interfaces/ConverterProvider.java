@@ -0,0 +1,26 @@
+package com.converterframework.interfaces;
+
+import com.converterframework.core.ConverterDescriptor;
+
+import java.util.List;
+
+/**
+ * Service provider interface for converters, discovered with {@link java.util.ServiceLoader}.
+ * Implementations are listed in
+ * {@code META-INF/services/com.converterframework.interfaces.ConverterProvider} and describe
+ * their converters without creating them, so the libraries a converter depends on are only
+ * loaded the first time a conversion uses it. Providers should therefore not reference their
+ * converter classes outside of the descriptor factories.
+ */
+public interface ConverterProvider {
+
+    /**
+     * Describes the converters of this provider.
+     * When several descriptors cover the same conversion, the one with the highest expected
+     * throughput is used. Converters registered directly with the conversion manager take
+     * precedence over every provider.
+     *
+     * @return the descriptors, in registration order
+     */
+    List<ConverterDescriptor> getConverters();
+}
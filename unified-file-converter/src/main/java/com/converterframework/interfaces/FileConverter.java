@@ -1,10 +1,18 @@
 package com.converterframework.interfaces;
 
+import com.converterframework.core.ConversionContext;
+
 import java.io.File;
 
 /**
  * Interface for file format converters.
  * Implementations should handle specific conversion types.
+ * <p>
+ * Converters report their progress and honour cancellation through the static methods of
+ * {@link ConversionContext}: records are reported every {@link ConversionContext#RECORD_BATCH}
+ * records, and input that is not read through a metered stream is reported as consumed bytes.
+ * Each record report checks for cancellation, as do the metered streams, and a cancelled
+ * conversion stops with a {@link java.util.concurrent.CancellationException}.
  */
 public interface FileConverter {
 
@@ -32,4 +40,15 @@ public interface FileConverter {
      * @return the converter name
      */
     String getConverterName();
+
+    /**
+     * Gets a key that identifies this converter and any options that change its output.
+     * Cached conversion outputs are only reused for converters with the same key, so converters
+     * with such options should include them.
+     *
+     * @return the cache key
+     */
+    default String getCacheKey() {
+        return getClass().getName();
+    }
 }
@@ -0,0 +1,27 @@
+package com.converterframework.interfaces;
+
+import com.converterframework.core.ConversionCheckpoint;
+
+import java.io.File;
+
+/**
+ * A converter that can continue an earlier conversion of an append-only input.
+ * Instead of converting the whole input again, only the records added since a checkpoint
+ * are converted and appended to the existing output, so the cost scales with the new data.
+ */
+public interface IncrementalConverter extends FileConverter {
+
+    /**
+     * Converts an input file, continuing from a checkpoint when the input has only grown since
+     * it was taken. Otherwise the whole input is converted. Callers only pass a checkpoint if the
+     * output file has not changed since the conversion that took it. If continuing fails or is
+     * cancelled, the output must be left as it was before, as it still holds the earlier records.
+     *
+     * @param inputFile the input file to convert
+     * @param outputFile the output file to create or extend
+     * @param checkpoint where the previous conversion ended, or null to convert the whole input
+     * @return where this conversion ended, or null if it cannot be continued later
+     * @throws Exception if conversion fails
+     */
+    ConversionCheckpoint convert(File inputFile, File outputFile, ConversionCheckpoint checkpoint) throws Exception;
+}
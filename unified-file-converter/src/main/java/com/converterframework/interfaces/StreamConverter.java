@@ -0,0 +1,86 @@
+package com.converterframework.interfaces;
+
+import com.converterframework.core.ConversionContext;
+import com.converterframework.utils.BufferPool;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A converter that can read its input from a stream and write its output to a stream.
+ * Stream converters can be chained without intermediate files, and can convert data that is
+ * already in memory or arrives over a channel. Implementations only provide the stream method;
+ * the file, channel and byte array methods adapt to it.
+ */
+public interface StreamConverter extends FileConverter {
+
+    /**
+     * Converts the data read from one stream and writes the result to another.
+     * Neither stream is closed.
+     *
+     * @param input the source data
+     * @param output where the converted data is written
+     * @throws Exception if conversion fails
+     */
+    void convert(InputStream input, OutputStream output) throws Exception;
+
+    /**
+     * Performs the file conversion by streaming the input file into the output file.
+     *
+     * @param inputFile the input file to convert
+     * @param outputFile the output file to create
+     * @throws Exception if conversion fails
+     */
+    @Override
+    default void convert(File inputFile, File outputFile) throws Exception {
+        if (!inputFile.exists() || !inputFile.canRead()) {
+            throw new IllegalArgumentException("Input file does not exist or cannot be read: " + inputFile.getPath());
+        }
+
+        try (InputStream in = ConversionContext.meter(new FileInputStream(inputFile));
+             OutputStream out = new BufferedOutputStream(ConversionContext.meter(new FileOutputStream(outputFile)))) {
+            convert(in, out);
+        }
+    }
+
+    /**
+     * Converts the data read from one channel and writes the result to another.
+     * Neither channel is closed.
+     *
+     * @param input the source channel
+     * @param output the target channel
+     * @throws Exception if conversion fails
+     */
+    default void convert(ReadableByteChannel input, WritableByteChannel output) throws Exception {
+        // Closing these wrappers would close the channels, so they are only flushed
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(output));
+        convert(Channels.newInputStream(input), out);
+        out.flush();
+    }
+
+    /**
+     * Converts data held in memory.
+     * The output is collected in a pooled buffer, so repeated calls reuse the same memory.
+     *
+     * @param input the source data
+     * @return the converted data
+     * @throws Exception if conversion fails
+     */
+    default byte[] convert(byte[] input) throws Exception {
+        BufferPool.PooledBuffer output = BufferPool.acquire();
+        try {
+            convert(new ByteArrayInputStream(input), output);
+            return output.toByteArray();
+        } finally {
+            BufferPool.release(output);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.converterframework.records;
+
+import com.converterframework.utils.CSVRecordReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads CSV with a header row into record batches.
+ * Values beyond the header are dropped, and a header that appears more than once keeps its
+ * first position and takes the last value, as in the CSV to JSON converter.
+ */
+public class CSVBatchReader implements RecordReader {
+
+    private final CSVRecordReader reader;
+    private final RecordBatchBuilder builder;
+    private int[] columns;
+
+    public CSVBatchReader(InputStream input) {
+        this(input, RecordBatch.DEFAULT_SIZE);
+    }
+
+    public CSVBatchReader(InputStream input, int batchSize) {
+        // Not closed, so the caller's stream stays open
+        this.reader = new CSVRecordReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.builder = new RecordBatchBuilder(batchSize);
+    }
+
+    @Override
+    public RecordBatch readBatch() throws IOException {
+        if (columns == null) {
+            String[] header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("No valid data found in CSV file");
+            }
+            columns = new int[header.length];
+            for (int i = 0; i < header.length; i++) {
+                columns[i] = builder.column(header[i]);
+            }
+        }
+
+        String[] values;
+        while (!builder.isFull() && (values = reader.readRecord()) != null) {
+            int count = Math.min(values.length, columns.length);
+            for (int i = 0; i < count; i++) {
+                builder.setText(columns[i], values[i]);
+            }
+            builder.endRow();
+        }
+        return builder.isEmpty() ? null : builder.build();
+    }
+}
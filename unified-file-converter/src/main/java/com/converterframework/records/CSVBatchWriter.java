@@ -0,0 +1,112 @@
+package com.converterframework.records;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes record batches as CSV.
+ * The header comes from the columns of the first batch. Later batches are matched to it by
+ * column name, and columns that first appear in a later batch are not written.
+ */
+public class CSVBatchWriter implements RecordWriter {
+
+    private final BufferedWriter writer;
+    private final StringBuilder line = new StringBuilder();
+    private String[] header;
+    private Map<String, Integer> headerIndex;
+    private int[] columns = new int[0];
+
+    public CSVBatchWriter(OutputStream output) {
+        // Flushed rather than closed, so the caller's stream stays open
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeBatch(RecordBatch batch) throws IOException {
+        if (header == null) {
+            writeHeader(batch);
+        }
+        mapColumns(batch);
+
+        for (int r = 0; r < batch.getRowCount(); r++) {
+            line.setLength(0);
+            for (int i = 0; i < header.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                int column = columns[i];
+                String value = column < 0 ? null : batch.getString(column, r);
+                if (value != null) {
+                    appendEscaped(value);
+                }
+            }
+            writer.append(line);
+            writer.newLine();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeHeader(RecordBatch batch) throws IOException {
+        header = new String[batch.getColumnCount()];
+        headerIndex = new HashMap<>();
+        line.setLength(0);
+        for (int i = 0; i < header.length; i++) {
+            header[i] = batch.getColumnName(i);
+            headerIndex.put(header[i], i);
+            if (i > 0) {
+                line.append(',');
+            }
+            appendEscaped(header[i]);
+        }
+        writer.append(line);
+        writer.newLine();
+    }
+
+    /**
+     * Finds the batch column for each header column.
+     */
+    private void mapColumns(RecordBatch batch) {
+        if (columns.length != header.length) {
+            columns = new int[header.length];
+        }
+        Arrays.fill(columns, -1);
+        for (int c = 0; c < batch.getColumnCount(); c++) {
+            Integer index = headerIndex.get(batch.getColumnName(c));
+            if (index != null) {
+                columns[index] = c;
+            }
+        }
+    }
+
+    private void appendEscaped(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,27 @@
+package com.converterframework.records;
+
+/**
+ * Storage type of a column in a {@link RecordBatch}.
+ */
+public enum ColumnType {
+
+    /**
+     * Whole numbers, stored in a {@code long[]}.
+     */
+    LONG,
+
+    /**
+     * Decimal numbers, stored in a {@code double[]}.
+     */
+    DOUBLE,
+
+    /**
+     * True or false values, stored in a {@code boolean[]}.
+     */
+    BOOLEAN,
+
+    /**
+     * Any other value, stored in a {@code String[]}.
+     */
+    STRING
+}
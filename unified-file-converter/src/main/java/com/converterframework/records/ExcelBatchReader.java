@@ -0,0 +1,304 @@
+package com.converterframework.records;
+
+import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads an XLSX workbook into record batches.
+ * Sheet XML is read with a pull parser instead of building the workbook model, so only the
+ * shared strings and styles are held in memory. The first row of the first sheet is the header;
+ * later sheets continue the data and skip their first row if it repeats the header, as written
+ * by the CSV to Excel converter. Numeric cells keep their type and date cells become ISO text.
+ */
+public class ExcelBatchReader implements RecordReader {
+
+    private static final String SHEET_NS_ELEMENT_ROW = "row";
+    private static final String SHEET_NS_ELEMENT_CELL = "c";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final OPCPackage workbook;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final StylesTable styles;
+    private final Iterator<InputStream> sheets;
+    private final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+    private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+    private final RecordBatchBuilder builder;
+
+    private InputStream sheetStream;
+    private XMLStreamReader sheet;
+    private int sheetRowCount;
+    private String[] header;
+    private int[] columns = new int[0];
+
+    // Current row
+    private int cellCount;
+    private int[] cellColumns = new int[16];
+    private String[] cellValues = new String[16];
+    private ColumnType[] cellTypes = new ColumnType[16];
+    private boolean firstRowOfSheet;
+
+    public ExcelBatchReader(InputStream input) throws IOException {
+        this(input, RecordBatch.DEFAULT_SIZE);
+    }
+
+    public ExcelBatchReader(InputStream input, int batchSize) throws IOException {
+        try {
+            this.workbook = OPCPackage.open(input);
+        } catch (NotOfficeXmlFileException e) {
+            throw new IllegalArgumentException("Only XLSX workbooks can be read");
+        } catch (OpenXML4JException e) {
+            throw new IOException("Failed to open workbook: " + e.getMessage(), e);
+        }
+
+        try {
+            XSSFReader reader = new XSSFReader(workbook);
+            this.sharedStrings = new ReadOnlySharedStringsTable(workbook);
+            this.styles = reader.getStylesTable();
+            this.sheets = reader.getSheetsData();
+        } catch (OpenXML4JException | SAXException e) {
+            workbook.revert();
+            throw new IOException("Failed to read workbook: " + e.getMessage(), e);
+        }
+
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.builder = new RecordBatchBuilder(batchSize);
+    }
+
+    @Override
+    public RecordBatch readBatch() throws IOException {
+        try {
+            while (!builder.isFull() && readRow()) {
+                if (header == null) {
+                    header = rowAsHeader();
+                    continue;
+                }
+                if (firstRowOfSheet && Arrays.equals(header, rowAsHeader())) {
+                    continue; // Header repeated on a continuation sheet
+                }
+
+                for (int i = 0; i < cellCount; i++) {
+                    builder.set(columnFor(cellColumns[i]), cellValues[i], cellTypes[i]);
+                }
+                builder.endRow();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read sheet: " + e.getMessage(), e);
+        }
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSheet();
+        // Opened read-only from a stream, so there is nothing to save
+        workbook.revert();
+    }
+
+    /**
+     * Reads the next row of the current or following sheets.
+     *
+     * @return false once every sheet has been read
+     */
+    private boolean readRow() throws IOException, XMLStreamException {
+        while (true) {
+            if (sheet == null) {
+                if (!sheets.hasNext()) {
+                    return false;
+                }
+                sheetStream = sheets.next();
+                sheet = xmlInputFactory.createXMLStreamReader(sheetStream);
+                sheetRowCount = 0;
+            }
+
+            while (sheet.hasNext()) {
+                int event = sheet.next();
+                if (event == XMLStreamConstants.START_ELEMENT && SHEET_NS_ELEMENT_ROW.equals(sheet.getLocalName())) {
+                    readCells();
+                    firstRowOfSheet = sheetRowCount == 0;
+                    sheetRowCount++;
+                    return true;
+                }
+            }
+            closeSheet();
+        }
+    }
+
+    /**
+     * Reads the cells of the row the sheet is positioned on.
+     */
+    private void readCells() throws XMLStreamException {
+        cellCount = 0;
+        int nextColumn = 0;
+
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && SHEET_NS_ELEMENT_ROW.equals(sheet.getLocalName())) {
+                return;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !SHEET_NS_ELEMENT_CELL.equals(sheet.getLocalName())) {
+                continue;
+            }
+
+            String reference = sheet.getAttributeValue(null, "r");
+            String type = sheet.getAttributeValue(null, "t");
+            String style = sheet.getAttributeValue(null, "s");
+            int column = reference != null ? columnIndex(reference) : nextColumn;
+            nextColumn = column + 1;
+
+            String value = readCellText();
+            if (value != null && !value.isEmpty()) {
+                addCell(column, type, style, value);
+            }
+        }
+    }
+
+    /**
+     * Collects the value or inline string text of the cell the sheet is positioned on.
+     */
+    private String readCellText() throws XMLStreamException {
+        StringBuilder text = null;
+        boolean inValue = false;
+
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                inValue = "v".equals(name) || "t".equals(name);
+                if (inValue && text == null) {
+                    text = new StringBuilder();
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS && inValue) {
+                text.append(sheet.getTextCharacters(), sheet.getTextStart(), sheet.getTextLength());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (SHEET_NS_ELEMENT_CELL.equals(sheet.getLocalName())) {
+                    break;
+                }
+                inValue = false;
+            }
+        }
+        return text != null ? text.toString() : null;
+    }
+
+    private void addCell(int column, String type, String style, String value) {
+        String text;
+        ColumnType columnType;
+
+        if ("s".equals(type)) {
+            text = sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+            columnType = ColumnType.STRING;
+        } else if ("b".equals(type)) {
+            text = "1".equals(value) ? "true" : "false";
+            columnType = ColumnType.BOOLEAN;
+        } else if (type != null && !"n".equals(type)) {
+            // Inline strings, formula strings and errors
+            text = value;
+            columnType = ColumnType.STRING;
+        } else {
+            double number = Double.parseDouble(value);
+            if (style != null && isDateStyle(Integer.parseInt(style))) {
+                LocalDateTime dateTime = DateUtil.getLocalDateTime(number);
+                text = dateTime.toLocalTime().toSecondOfDay() == 0 ? dateTime.format(DATE) : dateTime.format(DATE_TIME);
+                columnType = ColumnType.STRING;
+            } else {
+                text = RecordBatch.formatDouble(number);
+                columnType = text.indexOf('.') < 0 && text.indexOf('E') < 0 ? ColumnType.LONG : ColumnType.DOUBLE;
+            }
+        }
+
+        if (cellCount == cellColumns.length) {
+            cellColumns = Arrays.copyOf(cellColumns, cellCount * 2);
+            cellValues = Arrays.copyOf(cellValues, cellCount * 2);
+            cellTypes = Arrays.copyOf(cellTypes, cellCount * 2);
+        }
+        cellColumns[cellCount] = column;
+        cellValues[cellCount] = text;
+        cellTypes[cellCount] = columnType;
+        cellCount++;
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        return dateStyles.computeIfAbsent(styleIndex, index -> {
+            XSSFCellStyle style = styles.getStyleAt(index);
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        });
+    }
+
+    /**
+     * Gets the header names of the current row, indexed by sheet column.
+     */
+    private String[] rowAsHeader() {
+        int width = cellCount == 0 ? 0 : cellColumns[cellCount - 1] + 1;
+        String[] names = new String[width];
+        for (int i = 0; i < cellCount; i++) {
+            names[cellColumns[i]] = cellValues[i];
+        }
+        return names;
+    }
+
+    /**
+     * Maps a sheet column to a batch column, naming columns without a header by position.
+     */
+    private int columnFor(int sheetColumn) {
+        if (sheetColumn >= columns.length) {
+            int oldLength = columns.length;
+            columns = Arrays.copyOf(columns, Math.max(sheetColumn + 1, oldLength * 2));
+            Arrays.fill(columns, oldLength, columns.length, -1);
+        }
+        if (columns[sheetColumn] < 0) {
+            String name = sheetColumn < header.length ? header[sheetColumn] : null;
+            columns[sheetColumn] = builder.column(name != null ? name : "field" + (sheetColumn + 1));
+        }
+        return columns[sheetColumn];
+    }
+
+    /**
+     * Converts the letters of a cell reference such as "AB12" to a zero-based column index.
+     */
+    private static int columnIndex(String reference) {
+        int index = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    private void closeSheet() throws IOException {
+        if (sheet != null) {
+            try {
+                sheet.close();
+            } catch (XMLStreamException e) {
+                // The stream is closed below
+            }
+            sheet = null;
+        }
+        if (sheetStream != null) {
+            sheetStream.close();
+            sheetStream = null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.converterframework.records;
+
+import com.converterframework.utils.ExcelSheetWriter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes record batches to an XLSX workbook.
+ * Rows are streamed through an SXSSF workbook, numeric and boolean columns become typed cells,
+ * and text that looks like a date becomes a formatted date cell. The header row is repeated
+ * on every sheet, and data that does not fit on one sheet continues on a new one.
+ * The workbook is only written to the stream when the writer finishes.
+ */
+public class ExcelBatchWriter implements RecordWriter {
+
+    /**
+     * Default number of rows kept in memory before they are flushed to disk.
+     */
+    public static final int DEFAULT_ROW_WINDOW = ExcelSheetWriter.DEFAULT_ROW_WINDOW;
+
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private final OutputStream output;
+    private final ExcelSheetWriter sheetWriter;
+
+    public ExcelBatchWriter(OutputStream output) {
+        this(output, DEFAULT_ROW_WINDOW);
+    }
+
+    public ExcelBatchWriter(OutputStream output, int rowWindow) {
+        this.sheetWriter = new ExcelSheetWriter(rowWindow);
+        this.output = output;
+    }
+
+    @Override
+    public void writeBatch(RecordBatch batch) throws IOException {
+        // Columns only ever grow, and new ones are added to the header of later sheets
+        for (int c = sheetWriter.getColumnCount(); c < batch.getColumnCount(); c++) {
+            sheetWriter.addColumn(batch.getColumnName(c));
+        }
+
+        for (int r = 0; r < batch.getRowCount(); r++) {
+            Row row = sheetWriter.createRow();
+            for (int c = 0; c < batch.getColumnCount(); c++) {
+                if (!batch.isNull(c, r)) {
+                    setValue(row.createCell(c), batch, c, r);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            sheetWriter.write(output);
+            output.flush();
+        } finally {
+            abort();
+        }
+    }
+
+    @Override
+    public void abort() throws IOException {
+        sheetWriter.close();
+    }
+
+    private void setValue(Cell cell, RecordBatch batch, int column, int row) {
+        switch (batch.getColumnType(column)) {
+            case LONG -> {
+                long value = batch.getLong(column, row);
+                if (value > MAX_EXACT_DOUBLE || value < -MAX_EXACT_DOUBLE) {
+                    // Excel stores numbers as doubles, so keep every digit as text
+                    cell.setCellValue(Long.toString(value));
+                } else {
+                    cell.setCellValue(value);
+                }
+            }
+            case DOUBLE -> cell.setCellValue(batch.getDouble(column, row));
+            case BOOLEAN -> cell.setCellValue(batch.getBoolean(column, row));
+            case STRING -> sheetWriter.setText(cell, batch.getString(column, row));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.converterframework.records;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON array of objects into record batches.
+ * Field names become columns in order of first appearance. Numbers and booleans keep their
+ * JSON type, nested objects and arrays are kept as JSON text, and items that are not objects
+ * go into a column named "value".
+ */
+public class JSONBatchReader implements RecordReader {
+
+    private static final String VALUE_COLUMN = "value";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    private final JsonParser parser;
+    private final RecordBatchBuilder builder;
+    private boolean started;
+    private boolean finished;
+
+    public JSONBatchReader(InputStream input) throws IOException {
+        this(input, RecordBatch.DEFAULT_SIZE);
+    }
+
+    public JSONBatchReader(InputStream input, int batchSize) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(input);
+        this.builder = new RecordBatchBuilder(batchSize);
+    }
+
+    @Override
+    public RecordBatch readBatch() throws IOException {
+        if (!started) {
+            started = true;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Input JSON must be an array of objects.");
+            }
+        }
+
+        while (!finished && !builder.isFull()) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IllegalArgumentException("Unexpected end of JSON input.");
+            }
+            if (token == JsonToken.END_ARRAY) {
+                finished = true;
+                break;
+            }
+
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    int column = builder.column(parser.getCurrentName());
+                    parser.nextToken();
+                    setValue(column);
+                }
+            } else {
+                setValue(builder.column(VALUE_COLUMN));
+            }
+            builder.endRow();
+        }
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * Sets the value the parser is positioned on.
+     */
+    private void setValue(int column) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL -> builder.setNull(column);
+            case VALUE_TRUE -> builder.setBoolean(column, true);
+            case VALUE_FALSE -> builder.setBoolean(column, false);
+            case VALUE_NUMBER_INT -> {
+                JsonParser.NumberType numberType = parser.getNumberType();
+                if (numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG) {
+                    builder.setLong(column, parser.getLongValue());
+                } else {
+                    builder.setString(column, parser.getText());
+                }
+            }
+            case VALUE_NUMBER_FLOAT -> builder.setDouble(column, parser.getDoubleValue());
+            case START_OBJECT, START_ARRAY -> builder.setString(column, objectMapper.readTree(parser).toString());
+            default -> builder.setString(column, parser.getText());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.converterframework.records;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes record batches as a JSON array of objects.
+ * Numbers and booleans are written as JSON numbers and booleans, and missing values are left out.
+ */
+public class JSONBatchWriter implements RecordWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+
+    public JSONBatchWriter(OutputStream output) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+        generator.useDefaultPrettyPrinter();
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void writeBatch(RecordBatch batch) throws IOException {
+        int columnCount = batch.getColumnCount();
+        for (int r = 0; r < batch.getRowCount(); r++) {
+            generator.writeStartObject();
+            for (int c = 0; c < columnCount; c++) {
+                if (batch.isNull(c, r)) {
+                    continue;
+                }
+                generator.writeFieldName(batch.getColumnName(c));
+                switch (batch.getColumnType(c)) {
+                    case LONG -> generator.writeNumber(batch.getLong(c, r));
+                    case DOUBLE -> generator.writeNumber(batch.getString(c, r));
+                    case BOOLEAN -> generator.writeBoolean(batch.getBoolean(c, r));
+                    case STRING -> generator.writeString(batch.getString(c, r));
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
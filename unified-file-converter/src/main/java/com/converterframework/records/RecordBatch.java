@@ -0,0 +1,106 @@
+package com.converterframework.records;
+
+/**
+ * A batch of rows stored column by column.
+ * Each column has a single {@link ColumnType} for the whole batch, and numeric and boolean
+ * columns are kept in primitive arrays rather than as one object per value. Columns may
+ * have a different type in the next batch from the same reader.
+ */
+public class RecordBatch {
+
+    /**
+     * Default number of rows per batch.
+     */
+    public static final int DEFAULT_SIZE = 1024;
+
+    /**
+     * Largest magnitude a long can have and still convert to a double exactly.
+     */
+    static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private final String[] columnNames;
+    private final ColumnType[] types;
+    private final Object[] values;
+    private final boolean[][] nulls;
+    private final int rowCount;
+
+    RecordBatch(String[] columnNames, ColumnType[] types, Object[] values, boolean[][] nulls, int rowCount) {
+        this.columnNames = columnNames;
+        this.types = types;
+        this.values = values;
+        this.nulls = nulls;
+        this.rowCount = rowCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    public ColumnType getColumnType(int column) {
+        return types[column];
+    }
+
+    /**
+     * Checks if a row has no value for a column.
+     */
+    public boolean isNull(int column, int row) {
+        return nulls[column][row];
+    }
+
+    /**
+     * Gets a value of a {@link ColumnType#LONG} column.
+     */
+    public long getLong(int column, int row) {
+        return ((long[]) values[column])[row];
+    }
+
+    /**
+     * Gets a value of a {@link ColumnType#DOUBLE} column.
+     */
+    public double getDouble(int column, int row) {
+        return ((double[]) values[column])[row];
+    }
+
+    /**
+     * Gets a value of a {@link ColumnType#BOOLEAN} column.
+     */
+    public boolean getBoolean(int column, int row) {
+        return ((boolean[]) values[column])[row];
+    }
+
+    /**
+     * Gets a value as text, whatever the column type.
+     *
+     * @return the value, or null if the row has no value for the column
+     */
+    public String getString(int column, int row) {
+        if (nulls[column][row]) {
+            return null;
+        }
+        return switch (types[column]) {
+            case LONG -> Long.toString(getLong(column, row));
+            case DOUBLE -> formatDouble(getDouble(column, row));
+            case BOOLEAN -> Boolean.toString(getBoolean(column, row));
+            case STRING -> ((String[]) values[column])[row];
+        };
+    }
+
+    /**
+     * Formats a double, writing whole numbers without a fraction so that integers in a
+     * column that also holds decimals keep their original text.
+     */
+    static String formatDouble(double value) {
+        if (value == Math.rint(value) && Math.abs(value) <= MAX_EXACT_DOUBLE) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
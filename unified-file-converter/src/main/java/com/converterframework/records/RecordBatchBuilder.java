@@ -0,0 +1,366 @@
+package com.converterframework.records;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects rows for a {@link RecordBatch} and picks the narrowest type for each column.
+ * Values arrive as text, optionally with the type the source format declared for them, or
+ * as primitives. Each column's type is joined as its values arrive, and numbers and booleans
+ * go straight into the primitive array of that type; only columns that turn out to hold text
+ * keep a string per value. Text without a declared type is only stored as a number or boolean
+ * when it converts back to exactly the same text, so a round trip through a batch never
+ * changes a value.
+ * Columns are kept between batches, so a reader sees a stable column order.
+ */
+public class RecordBatchBuilder {
+
+    private final int capacity;
+    private final List<String> columnNames = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final List<Column> columns = new ArrayList<>();
+    private int rowCount;
+
+    public RecordBatchBuilder() {
+        this(RecordBatch.DEFAULT_SIZE);
+    }
+
+    public RecordBatchBuilder(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the index of a column, adding it if it is new.
+     */
+    public int column(String name) {
+        Integer index = columnIndex.get(name);
+        if (index == null) {
+            index = columnNames.size();
+            columnNames.add(name);
+            columnIndex.put(name, index);
+            columns.add(new Column());
+        }
+        return index;
+    }
+
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    /**
+     * Sets a value of the current row from text, inferring its type. Empty text counts as no value.
+     */
+    public void setText(int column, String value) {
+        if (value == null || value.isEmpty()) {
+            setNull(column);
+            return;
+        }
+
+        char first = value.charAt(0);
+        if (first == 't' || first == 'f') {
+            if (value.equals("true") || value.equals("false")) {
+                setBoolean(column, first == 't');
+            } else {
+                setString(column, value);
+            }
+            return;
+        }
+        if (first != '-' && (first < '0' || first > '9')) {
+            setString(column, value);
+            return;
+        }
+
+        if (isCanonicalLong(value)) {
+            setLong(column, Long.parseLong(value));
+            return;
+        }
+        double number = parseCanonicalDouble(value);
+        if (Double.isNaN(number)) {
+            setString(column, value);
+        } else {
+            setDouble(column, number);
+        }
+    }
+
+    /**
+     * Sets a value of the current row with the type declared by the source.
+     * Numbers and booleans are stored by value, so they are written back in their usual form.
+     *
+     * @param column the column index
+     * @param value the value as text, or null for no value
+     * @param type the type of the value
+     */
+    public void set(int column, String value, ColumnType type) {
+        if (value == null) {
+            setNull(column);
+            return;
+        }
+        switch (type) {
+            case LONG -> setLong(column, Long.parseLong(value));
+            case DOUBLE -> setDouble(column, Double.parseDouble(value));
+            case BOOLEAN -> setBoolean(column, Boolean.parseBoolean(value));
+            case STRING -> setString(column, value);
+        }
+    }
+
+    /**
+     * Sets a value of the current row to no value.
+     */
+    public void setNull(int column) {
+        Column target = columns.get(column);
+        if (target.nulls != null) {
+            target.nulls[rowCount] = true;
+        }
+    }
+
+    /**
+     * Sets a whole number in the current row.
+     */
+    public void setLong(int column, long value) {
+        Column target = columns.get(column);
+        if (value > RecordBatch.MAX_EXACT_DOUBLE || value < -RecordBatch.MAX_EXACT_DOUBLE) {
+            // A column mixing this with decimals cannot be stored as doubles without losing digits
+            target.inexactLongs = true;
+        }
+        switch (target.accept(ColumnType.LONG, rowCount, capacity)) {
+            case LONG -> target.longs[rowCount] = value;
+            case DOUBLE -> target.doubles[rowCount] = value;
+            default -> target.strings[rowCount] = Long.toString(value);
+        }
+    }
+
+    /**
+     * Sets a decimal number in the current row.
+     */
+    public void setDouble(int column, double value) {
+        Column target = columns.get(column);
+        if (target.accept(ColumnType.DOUBLE, rowCount, capacity) == ColumnType.DOUBLE) {
+            target.doubles[rowCount] = value;
+        } else {
+            target.strings[rowCount] = RecordBatch.formatDouble(value);
+        }
+    }
+
+    /**
+     * Sets a boolean in the current row.
+     */
+    public void setBoolean(int column, boolean value) {
+        Column target = columns.get(column);
+        if (target.accept(ColumnType.BOOLEAN, rowCount, capacity) == ColumnType.BOOLEAN) {
+            target.booleans[rowCount] = value;
+        } else {
+            target.strings[rowCount] = Boolean.toString(value);
+        }
+    }
+
+    /**
+     * Sets text in the current row, which makes its column a text column for this batch.
+     */
+    public void setString(int column, String value) {
+        if (value == null) {
+            setNull(column);
+            return;
+        }
+        Column target = columns.get(column);
+        target.accept(ColumnType.STRING, rowCount, capacity);
+        target.strings[rowCount] = value;
+    }
+
+    /**
+     * Finishes the current row.
+     */
+    public void endRow() {
+        rowCount++;
+    }
+
+    public boolean isFull() {
+        return rowCount >= capacity;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    /**
+     * Hands the collected rows to a batch and starts a new one with the same columns.
+     */
+    public RecordBatch build() {
+        int columnCount = columnNames.size();
+        ColumnType[] types = new ColumnType[columnCount];
+        Object[] values = new Object[columnCount];
+        boolean[][] nulls = new boolean[columnCount][];
+
+        for (int c = 0; c < columnCount; c++) {
+            Column column = columns.get(c);
+            if (column.type == null) {
+                // No row had a value
+                types[c] = ColumnType.STRING;
+                values[c] = new String[rowCount];
+                nulls[c] = new boolean[rowCount];
+                Arrays.fill(nulls[c], true);
+            } else {
+                types[c] = column.type;
+                values[c] = column.values();
+                nulls[c] = column.nulls;
+            }
+            column.clear();
+        }
+
+        RecordBatch batch = new RecordBatch(columnNames.toArray(new String[0]), types, values, nulls, rowCount);
+        rowCount = 0;
+        return batch;
+    }
+
+    /**
+     * Parses a decimal number that formats back to exactly the same text.
+     *
+     * @return the number, or NaN if the text is not such a number
+     */
+    private static double parseCanonicalDouble(String value) {
+        try {
+            double number = Double.parseDouble(value);
+            if (!Double.isNaN(number) && !Double.isInfinite(number) && RecordBatch.formatDouble(number).equals(value)) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Not a number
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Checks for an integer of at most 18 digits with no sign other than '-' and no leading zeros.
+     */
+    private static boolean isCanonicalLong(String value) {
+        int start = value.charAt(0) == '-' ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits == 0 || digits > 18 || (value.charAt(start) == '0' && (digits > 1 || start == 1))) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ColumnType join(ColumnType a, ColumnType b) {
+        if (a == b) {
+            return a;
+        }
+        if ((a == ColumnType.LONG || a == ColumnType.DOUBLE) && (b == ColumnType.LONG || b == ColumnType.DOUBLE)) {
+            return ColumnType.DOUBLE;
+        }
+        return ColumnType.STRING;
+    }
+
+    /**
+     * The values of one column in the current batch, kept in the array of the column's type.
+     * The arrays are handed to the batch when it is built, so each batch gets new ones.
+     */
+    private static final class Column {
+
+        private ColumnType type;
+        private boolean[] nulls;
+        private long[] longs;
+        private double[] doubles;
+        private boolean[] booleans;
+        private String[] strings;
+        private boolean inexactLongs;
+
+        /**
+         * Joins the type of a new value into the column's type, moving the values set so far
+         * to the array of the joined type if it changes, and marks the row as having a value.
+         *
+         * @return the joined type, which the value has to be stored as
+         */
+        ColumnType accept(ColumnType valueType, int row, int capacity) {
+            if (nulls == null) {
+                nulls = new boolean[capacity];
+                Arrays.fill(nulls, true);
+            }
+            ColumnType joined = type == null ? valueType : join(type, valueType);
+            if (joined == ColumnType.DOUBLE && inexactLongs) {
+                joined = ColumnType.STRING;
+            }
+            if (joined != type) {
+                convert(joined, row, capacity);
+            }
+            nulls[row] = false;
+            return joined;
+        }
+
+        private void convert(ColumnType to, int rows, int capacity) {
+            switch (to) {
+                case LONG -> longs = new long[capacity];
+                case DOUBLE -> {
+                    doubles = new double[capacity];
+                    if (type == ColumnType.LONG) {
+                        for (int r = 0; r < rows; r++) {
+                            doubles[r] = longs[r];
+                        }
+                    }
+                }
+                case BOOLEAN -> booleans = new boolean[capacity];
+                case STRING -> {
+                    strings = new String[capacity];
+                    if (type != null) {
+                        for (int r = 0; r < rows; r++) {
+                            if (!nulls[r]) {
+                                strings[r] = format(r);
+                            }
+                        }
+                    }
+                }
+            }
+            if (type != null) {
+                clearValues(type);
+            }
+            type = to;
+        }
+
+        private String format(int row) {
+            return switch (type) {
+                case LONG -> Long.toString(longs[row]);
+                case DOUBLE -> RecordBatch.formatDouble(doubles[row]);
+                case BOOLEAN -> Boolean.toString(booleans[row]);
+                case STRING -> strings[row];
+            };
+        }
+
+        Object values() {
+            return switch (type) {
+                case LONG -> longs;
+                case DOUBLE -> doubles;
+                case BOOLEAN -> booleans;
+                case STRING -> strings;
+            };
+        }
+
+        private void clearValues(ColumnType old) {
+            switch (old) {
+                case LONG -> longs = null;
+                case DOUBLE -> doubles = null;
+                case BOOLEAN -> booleans = null;
+                case STRING -> strings = null;
+            }
+        }
+
+        void clear() {
+            if (type != null) {
+                clearValues(type);
+            }
+            type = null;
+            nulls = null;
+            inexactLongs = false;
+        }
+    }
+}
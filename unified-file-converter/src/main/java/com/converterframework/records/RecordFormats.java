@@ -0,0 +1,65 @@
+package com.converterframework.records;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Creates record readers and writers by format name.
+ * Every format listed here can be both read and written, so any pair of them can be converted.
+ */
+public class RecordFormats {
+
+    private static final List<String> FORMATS = List.of("CSV", "JSON", "XML", "EXCEL");
+
+    /**
+     * Gets the formats that have a record reader and writer.
+     */
+    public static List<String> getFormats() {
+        return FORMATS;
+    }
+
+    /**
+     * Checks if a format has a record reader and writer.
+     */
+    public static boolean isSupported(String format) {
+        return FORMATS.contains(format);
+    }
+
+    /**
+     * Creates a reader for a format.
+     *
+     * @param format the format name
+     * @param input the stream to read from
+     * @return a new reader
+     * @throws IOException if the input cannot be opened
+     */
+    public static RecordReader newReader(String format, InputStream input) throws IOException {
+        return switch (format) {
+            case "CSV" -> new CSVBatchReader(input);
+            case "JSON" -> new JSONBatchReader(input);
+            case "XML" -> new XMLBatchReader(input);
+            case "EXCEL" -> new ExcelBatchReader(input);
+            default -> throw new IllegalArgumentException("No record reader for format: " + format);
+        };
+    }
+
+    /**
+     * Creates a writer for a format.
+     *
+     * @param format the format name
+     * @param output the stream to write to
+     * @return a new writer
+     * @throws IOException if the output cannot be started
+     */
+    public static RecordWriter newWriter(String format, OutputStream output) throws IOException {
+        return switch (format) {
+            case "CSV" -> new CSVBatchWriter(output);
+            case "JSON" -> new JSONBatchWriter(output);
+            case "XML" -> new XMLBatchWriter(output);
+            case "EXCEL" -> new ExcelBatchWriter(output);
+            default -> throw new IllegalArgumentException("No record writer for format: " + format);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.converterframework.records;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads a source format as a sequence of {@link RecordBatch}es.
+ * Closing a reader releases its own resources but not the stream it reads from.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Reads the next batch of rows.
+     *
+     * @return the next batch, or null at end of input
+     * @throws IOException if reading fails
+     */
+    RecordBatch readBatch() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        // Nothing to release by default
+    }
+}
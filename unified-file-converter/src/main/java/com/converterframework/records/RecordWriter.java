@@ -0,0 +1,34 @@
+package com.converterframework.records;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link RecordBatch}es in a target format.
+ */
+public interface RecordWriter {
+
+    /**
+     * Writes every row of a batch.
+     *
+     * @param batch the rows to write
+     * @throws IOException if writing fails
+     */
+    void writeBatch(RecordBatch batch) throws IOException;
+
+    /**
+     * Completes the output and flushes it. The stream written to is not closed.
+     *
+     * @throws IOException if writing fails
+     */
+    void finish() throws IOException;
+
+    /**
+     * Releases the writer's resources after a failure, without completing the output.
+     * Does nothing once the writer has finished.
+     *
+     * @throws IOException if releasing resources fails
+     */
+    default void abort() throws IOException {
+        // Nothing to release by default
+    }
+}
@@ -0,0 +1,112 @@
+package com.converterframework.records;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads XML into record batches.
+ * Each child of the document element is a row, and its attributes and child elements are the
+ * columns. The text of deeper elements is collected into the column of their enclosing field,
+ * and a row element that only holds text goes into a column named "value". Values are trimmed.
+ */
+public class XMLBatchReader implements RecordReader {
+
+    private static final String VALUE_COLUMN = "value";
+    private static final int RECORD_DEPTH = 2;
+    private static final int FIELD_DEPTH = 3;
+
+    private final XMLStreamReader reader;
+    private final RecordBatchBuilder builder;
+    private final StringBuilder text = new StringBuilder();
+    private int depth;
+    private int fieldColumn;
+    private boolean recordHasFields;
+    private boolean finished;
+
+    public XMLBatchReader(InputStream input) throws IOException {
+        this(input, RecordBatch.DEFAULT_SIZE);
+    }
+
+    public XMLBatchReader(InputStream input, int batchSize) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            this.reader = factory.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read XML: " + e.getMessage(), e);
+        }
+        this.builder = new RecordBatchBuilder(batchSize);
+    }
+
+    @Override
+    public RecordBatch readBatch() throws IOException {
+        try {
+            while (!finished && !builder.isFull()) {
+                if (!reader.hasNext()) {
+                    finished = true;
+                    break;
+                }
+
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> startElement();
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (depth >= RECORD_DEPTH) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> endElement();
+                    case XMLStreamConstants.END_DOCUMENT -> finished = true;
+                    default -> {
+                        // Comments and processing instructions carry no data
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read XML: " + e.getMessage(), e);
+        }
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to close XML reader: " + e.getMessage(), e);
+        }
+    }
+
+    private void startElement() {
+        depth++;
+        if (depth == RECORD_DEPTH) {
+            recordHasFields = false;
+            text.setLength(0);
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                builder.setText(builder.column(reader.getAttributeLocalName(i)), reader.getAttributeValue(i).trim());
+                recordHasFields = true;
+            }
+        } else if (depth == FIELD_DEPTH) {
+            recordHasFields = true;
+            fieldColumn = builder.column(reader.getLocalName());
+            text.setLength(0);
+        }
+    }
+
+    private void endElement() {
+        if (depth == FIELD_DEPTH) {
+            builder.setText(fieldColumn, text.toString().trim());
+            text.setLength(0);
+        } else if (depth == RECORD_DEPTH) {
+            if (!recordHasFields) {
+                builder.setText(builder.column(VALUE_COLUMN), text.toString().trim());
+            }
+            builder.endRow();
+        }
+        depth--;
+    }
+}
@@ -0,0 +1,111 @@
+package com.converterframework.records;
+
+import com.converterframework.utils.XmlNames;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes record batches as an indented XML document.
+ * Each row becomes an item element under the root, with one child element per value.
+ * Column names are converted to valid element names. Missing and empty values are written as
+ * elements without content, the same way {@link com.converterframework.converters.JSONToXMLConverter}
+ * writes empty JSON strings, so an empty CSV field looks the same whether it reached XML
+ * directly or through JSON.
+ */
+public class XMLBatchWriter implements RecordWriter {
+
+    private static final String ROOT_ELEMENT = "root";
+    private static final String ITEM_ELEMENT = "item";
+    private static final String INDENT = "  ";
+
+    private static final String AUTOMATIC_EMPTY_ELEMENTS = "org.codehaus.stax2.automaticEmptyElements";
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = newFactory();
+
+    private final XMLStreamWriter writer;
+    private String[] elementNames = new String[0];
+    private boolean hasItems;
+
+    public XMLBatchWriter(OutputStream output) throws IOException {
+        try {
+            // Closing a StAX writer does not close the underlying stream
+            this.writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+            writer.writeStartElement(ROOT_ELEMENT);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void writeBatch(RecordBatch batch) throws IOException {
+        try {
+            String[] names = elementNames(batch);
+            for (int r = 0; r < batch.getRowCount(); r++) {
+                writer.writeCharacters("\n" + INDENT);
+                writer.writeStartElement(ITEM_ELEMENT);
+                for (int c = 0; c < names.length; c++) {
+                    String value = batch.getString(c, r);
+                    writer.writeCharacters("\n" + INDENT + INDENT);
+                    writer.writeStartElement(names[c]);
+                    if (value != null) {
+                        writer.writeCharacters(value);
+                    }
+                    writer.writeEndElement();
+                }
+                if (names.length > 0) {
+                    writer.writeCharacters("\n" + INDENT);
+                }
+                writer.writeEndElement();
+                hasItems = true;
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            if (hasItems) {
+                writer.writeCharacters("\n");
+            }
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write XML: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a factory that writes elements without content the way JSONToXMLConverter does.
+     */
+    private static XMLOutputFactory newFactory() {
+        XMLOutputFactory factory = XMLOutputFactory.newFactory();
+        if (factory.isPropertySupported(AUTOMATIC_EMPTY_ELEMENTS)) {
+            factory.setProperty(AUTOMATIC_EMPTY_ELEMENTS, Boolean.TRUE);
+        }
+        return factory;
+    }
+
+    /**
+     * Gets the element name of each column, converting only columns not seen before.
+     */
+    private String[] elementNames(RecordBatch batch) {
+        int columnCount = batch.getColumnCount();
+        if (elementNames.length == columnCount) {
+            return elementNames;
+        }
+        String[] names = new String[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            names[c] = c < elementNames.length ? elementNames[c] : XmlNames.toXmlName(batch.getColumnName(c));
+        }
+        elementNames = names;
+        return names;
+    }
+}
@@ -1,7 +1,11 @@
 package com.converterframework.ui;
 
+import com.converterframework.core.ConversionJob;
 import com.converterframework.core.ConversionManager;
+import com.converterframework.core.ConversionProgress;
+import com.converterframework.core.ConversionResult;
 import com.converterframework.core.FormatDetector;
+import com.converterframework.utils.FileUtils;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,10 +16,16 @@ import java.io.File;
  */
 public class MainFrame extends JFrame {
 
+    /**
+     * How often the progress bar is updated while a conversion runs.
+     */
+    private static final int PROGRESS_INTERVAL_MILLIS = 100;
+
     private final ConversionManager conversionManager;
     private final FileChooserPanel fileChooserPanel;
     private final LogPanel logPanel;
     private final StatusPanel statusPanel;
+    private transient ConversionProgress progress;
 
     public MainFrame(ConversionManager conversionManager) {
         this.conversionManager = conversionManager;
@@ -38,6 +48,7 @@ public class MainFrame extends JFrame {
 
         // Add listeners
         fileChooserPanel.getConvertButton().addActionListener(e -> performConversion());
+        statusPanel.getCancelButton().addActionListener(e -> cancelConversion());
 
         // Populate output formats
         fileChooserPanel.setOutputFormats(new String[]{"JSON", "XML", "EXCEL", "PDF"});
@@ -72,31 +83,67 @@ public class MainFrame extends JFrame {
 
         if (result == JFileChooser.APPROVE_OPTION) {
             File outputFile = fileChooser.getSelectedFile();
+            ConversionProgress conversionProgress = new ConversionProgress();
+            progress = conversionProgress;
 
+            fileChooserPanel.getConvertButton().setEnabled(false);
             statusPanel.showBusy(true);
             statusPanel.setStatus("Converting...");
+            Timer progressTimer = new Timer(PROGRESS_INTERVAL_MILLIS, e -> showProgress(conversionProgress));
+            progressTimer.start();
 
-            new SwingWorker<Boolean, Void>() {
+            new SwingWorker<ConversionResult, Void>() {
                 @Override
-                protected Boolean doInBackground() {
-                    return conversionManager.convertFile(inputFile, outputFile, fromFormat, toFormat);
+                protected ConversionResult doInBackground() {
+                    return conversionManager.convert(
+                        new ConversionJob(inputFile, outputFile, fromFormat, toFormat), conversionProgress);
                 }
 
                 @Override
                 protected void done() {
+                    progressTimer.stop();
                     try {
-                        if (get()) {
+                        ConversionResult result = get();
+                        if (result.isSuccess()) {
                             statusPanel.setStatus("Conversion successful!");
+                        } else if (conversionProgress.isCancelled()) {
+                            statusPanel.setStatus("Conversion cancelled.");
                         } else {
-                            statusPanel.setStatus("Conversion failed.");
+                            statusPanel.setStatus("Conversion failed: " + result.getErrorMessage());
                         }
                     } catch (Exception e) {
                         statusPanel.setStatus("Conversion failed: " + e.getMessage());
                     }
                     statusPanel.showBusy(false);
+                    fileChooserPanel.getConvertButton().setEnabled(true);
+                    progress = null;
                     logPanel.refreshLogs();
                 }
             }.execute();
         }
     }
+
+    /**
+     * Asks the running conversion to stop. Its partial output is deleted when it does.
+     */
+    private void cancelConversion() {
+        if (progress != null) {
+            progress.cancel();
+            statusPanel.getCancelButton().setEnabled(false);
+            statusPanel.setStatus("Cancelling...");
+        }
+    }
+
+    /**
+     * Shows how much of the input the running conversion has processed.
+     */
+    private void showProgress(ConversionProgress conversionProgress) {
+        double fraction = conversionProgress.getFraction();
+        if (fraction < 0 || conversionProgress.isCancelled()) {
+            return;
+        }
+        statusPanel.setProgress((int) (fraction * 100));
+        statusPanel.setStatus("Converting... " + FileUtils.formatFileSize(conversionProgress.getBytesProcessed())
+            + " of " + FileUtils.formatFileSize(conversionProgress.getTotalBytes()));
+    }
 }
@@ -10,6 +10,7 @@ public class StatusPanel extends JPanel {
 
     private final JLabel statusLabel;
     private final JProgressBar progressBar;
+    private final JButton cancelButton;
 
     public StatusPanel() {
         setLayout(new BorderLayout());
@@ -19,9 +20,15 @@ public class StatusPanel extends JPanel {
         progressBar = new JProgressBar();
         progressBar.setIndeterminate(false);
         progressBar.setStringPainted(true);
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+
+        JPanel progressPanel = new JPanel(new BorderLayout(5, 0));
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(cancelButton, BorderLayout.EAST);
 
         add(statusLabel, BorderLayout.CENTER);
-        add(progressBar, BorderLayout.EAST);
+        add(progressPanel, BorderLayout.EAST);
     }
 
     /**
@@ -41,14 +48,20 @@ public class StatusPanel extends JPanel {
     public void setProgress(int value) {
         progressBar.setValue(value);
         progressBar.setIndeterminate(false);
+        progressBar.setString(null);
     }
 
     /**
-     * Shows an indeterminate progress bar.
+     * Shows an indeterminate progress bar, until progress is set, and enables the cancel button.
      */
     public void showBusy(boolean busy) {
         progressBar.setIndeterminate(busy);
         progressBar.setString(busy ? "Converting..." : "");
+        cancelButton.setEnabled(busy);
+    }
+
+    public JButton getCancelButton() {
+        return cancelButton;
     }
 
     /**
@@ -0,0 +1,66 @@
+package com.converterframework.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of growable byte buffers for in-memory conversions.
+ * Buffers keep their backing array between uses, so repeated conversions of similar size
+ * stop allocating once the pool is warm. Unusually large buffers are not returned to the pool.
+ */
+public class BufferPool {
+
+    private static final int MAX_POOLED = 32;
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+
+    private static final Queue<PooledBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    /**
+     * Takes an empty buffer from the pool, or creates one if the pool is empty.
+     *
+     * @return an empty buffer
+     */
+    public static PooledBuffer acquire() {
+        PooledBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            return new PooledBuffer();
+        }
+        POOLED.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterwards.
+     *
+     * @param buffer the buffer to return
+     */
+    public static void release(PooledBuffer buffer) {
+        if (buffer == null || buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            return;
+        }
+        buffer.reset();
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(buffer);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    /**
+     * A reusable in-memory output stream.
+     */
+    public static final class PooledBuffer extends ByteArrayOutputStream {
+
+        private PooledBuffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.converterframework.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory pipe connecting a writer thread to a reader thread.
+ * Unlike {@link java.io.PipedInputStream}, it does not poll, does not depend on which thread
+ * last touched it, and blocks with locks that virtual threads can unmount from.
+ * Closing the output ends the stream for the reader once the buffer is drained;
+ * closing the input makes further writes fail.
+ */
+public class BytePipe {
+
+    /**
+     * Default buffer capacity in bytes.
+     */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final byte[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int count;
+    private boolean writerClosed;
+    private boolean readerClosed;
+
+    private final InputStream input = new PipeInputStream();
+    private final OutputStream output = new PipeOutputStream();
+
+    public BytePipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BytePipe(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pipe capacity must be at least 1");
+        }
+        this.buffer = new byte[capacity];
+    }
+
+    public InputStream getInputStream() {
+        return input;
+    }
+
+    public OutputStream getOutputStream() {
+        return output;
+    }
+
+    private int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        lock.lock();
+        try {
+            while (count == 0 && !writerClosed && !readerClosed) {
+                notEmpty.await();
+            }
+            if (readerClosed) {
+                throw new IOException("Pipe closed");
+            }
+            if (count == 0) {
+                return -1;
+            }
+
+            int n = Math.min(len, count);
+            int first = Math.min(n, buffer.length - head);
+            System.arraycopy(buffer, head, b, off, first);
+            System.arraycopy(buffer, 0, b, off + first, n - first);
+            head = (head + n) % buffer.length;
+            count -= n;
+            notFull.signal();
+            return n;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading from pipe");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            while (len > 0) {
+                while (count == buffer.length && !readerClosed && !writerClosed) {
+                    notFull.await();
+                }
+                if (readerClosed) {
+                    throw new IOException("Pipe closed by reader");
+                }
+                if (writerClosed) {
+                    throw new IOException("Pipe closed");
+                }
+
+                int tail = (head + count) % buffer.length;
+                int n = Math.min(len, buffer.length - count);
+                int first = Math.min(n, buffer.length - tail);
+                System.arraycopy(b, off, buffer, tail, first);
+                System.arraycopy(b, off + first, buffer, 0, n - first);
+                count += n;
+                off += n;
+                len -= n;
+                notEmpty.signal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to pipe");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int available() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeReader() {
+        lock.lock();
+        try {
+            readerClosed = true;
+            notFull.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() {
+        lock.lock();
+        try {
+            writerClosed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class PipeInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return BytePipe.this.read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            return BytePipe.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return BytePipe.this.available();
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+
+    private final class PipeOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            BytePipe.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            BytePipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+}
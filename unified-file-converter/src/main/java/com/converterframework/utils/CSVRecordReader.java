@@ -0,0 +1,158 @@
+package com.converterframework.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental CSV reader that returns one record at a time.
+ * Handles quoted values, escaped quotes and quoted values spanning several lines.
+ * Values are trimmed and whitespace-only lines are skipped.
+ */
+public class CSVRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer;
+    private final StringBuilder current = new StringBuilder();
+    private final List<String> values = new ArrayList<>();
+
+    private int position;
+    private int limit;
+    private long recordCount;
+
+    public CSVRecordReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CSVRecordReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Creates a reader over text that is already in memory.
+     */
+    private CSVRecordReader(char[] text, char delimiter) {
+        this.reader = null;
+        this.delimiter = delimiter;
+        this.buffer = text;
+        this.limit = text.length;
+    }
+
+    /**
+     * Parses a single line of CSV text.
+     *
+     * @param line the line to parse
+     * @param delimiter the field separator
+     * @return the values of the first record in the line, or null if the line is blank
+     */
+    public static String[] parseLine(String line, char delimiter) {
+        try {
+            return new CSVRecordReader(line.toCharArray(), delimiter).readRecord();
+        } catch (IOException e) {
+            // In-memory text is never read from a stream
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record values, or null at end of input
+     * @throws IOException if reading fails
+     */
+    public String[] readRecord() throws IOException {
+        int c = read();
+        while (c != -1) {
+            values.clear();
+            current.setLength(0);
+            boolean inQuotes = false;
+            boolean blank = true;
+
+            while (c != -1) {
+                if (c > ' ') {
+                    blank = false;
+                }
+
+                if (c == '"') {
+                    if (inQuotes && peek() == '"') {
+                        // Escaped quote
+                        current.append('"');
+                        read(); // Skip next quote
+                    } else {
+                        // Toggle quote state
+                        inQuotes = !inQuotes;
+                    }
+                } else if ((c == '\n' || c == '\r') && !inQuotes) {
+                    // End of record
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    break;
+                } else if (c == delimiter && !inQuotes) {
+                    // Field separator
+                    values.add(current.toString().trim());
+                    current.setLength(0);
+                } else {
+                    current.append((char) c);
+                }
+                c = read();
+            }
+
+            if (!blank) {
+                values.add(current.toString().trim());
+                recordCount++;
+                return values.toArray(new String[0]);
+            }
+            c = read();
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of records returned so far.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
@@ -0,0 +1,165 @@
+package com.converterframework.utils;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Writes rows to the sheets of an XLSX workbook.
+ * Rows are streamed through an SXSSF workbook that keeps only a small window of rows in memory
+ * and spills the rest to temporary files. The header row is repeated at the top of every sheet,
+ * and rows that do not fit on one sheet continue on a new one.
+ */
+public class ExcelSheetWriter implements Closeable {
+
+    /**
+     * Default number of rows kept in memory before they are flushed to disk.
+     */
+    public static final int DEFAULT_ROW_WINDOW = 100;
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String SHEET_NAME = "Data";
+    private static final String DATE_FORMAT = "yyyy-mm-dd";
+    private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private static final Pattern DATE = Pattern.compile("[0-9]{4}-[0-9]{2}-[0-9]{2}");
+    private static final Pattern DATE_TIME = Pattern.compile("[0-9]{4}-[0-9]{2}-[0-9]{2}[ T][0-9]{2}:[0-9]{2}(:[0-9]{2})?");
+
+    private final SXSSFWorkbook workbook;
+    private final int maxRowsPerSheet;
+    private final Map<String, CellStyle> styles = new HashMap<>();
+    private final List<String> header = new ArrayList<>();
+
+    private Sheet sheet;
+    private int sheetCount;
+    private int rowIndex;
+    private boolean closed;
+
+    /**
+     * Creates a writer with a custom in-memory row window.
+     *
+     * @param rowWindow the number of rows kept in memory
+     */
+    public ExcelSheetWriter(int rowWindow) {
+        this(rowWindow, MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * Creates a writer that starts a new sheet after fewer rows than Excel allows, for tests.
+     */
+    ExcelSheetWriter(int rowWindow, int maxRowsPerSheet) {
+        if (rowWindow < 1) {
+            throw new IllegalArgumentException("Row window must be at least 1");
+        }
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        workbook.setCompressTempFiles(true);
+    }
+
+    /**
+     * Adds a column to the header of the sheets started from now on.
+     */
+    public void addColumn(String name) {
+        header.add(name);
+    }
+
+    /**
+     * Gets the number of columns in the header.
+     */
+    public int getColumnCount() {
+        return header.size();
+    }
+
+    /**
+     * Creates the next row, starting a new sheet when there is none yet or the current one is full.
+     */
+    public Row createRow() {
+        if (sheet == null || rowIndex >= maxRowsPerSheet) {
+            startSheet();
+        }
+        return sheet.createRow(rowIndex++);
+    }
+
+    /**
+     * Writes text as a date when it looks like one, otherwise as text.
+     */
+    public void setText(Cell cell, String value) {
+        try {
+            if (value.length() == 10 && DATE.matcher(value).matches()) {
+                cell.setCellValue(LocalDate.parse(value));
+                cell.setCellStyle(getStyle(DATE_FORMAT));
+                return;
+            }
+            if (value.length() >= 16 && DATE_TIME.matcher(value).matches()) {
+                cell.setCellValue(LocalDateTime.parse(value.replace(' ', 'T')));
+                cell.setCellStyle(getStyle(DATE_TIME_FORMAT));
+                return;
+            }
+        } catch (DateTimeParseException e) {
+            // Not a real date, so keep the text
+        }
+        cell.setCellValue(value);
+    }
+
+    /**
+     * Writes the workbook to a stream, with a sheet holding only the header if no rows were written.
+     *
+     * @param output the stream to write to, which is left open
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream output) throws IOException {
+        if (sheet == null) {
+            startSheet();
+        }
+        workbook.write(output);
+    }
+
+    /**
+     * Removes the temporary files backing the flushed rows and closes the workbook.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void startSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? SHEET_NAME : SHEET_NAME + " (" + sheetCount + ")");
+        rowIndex = 0;
+
+        Row row = sheet.createRow(rowIndex++);
+        for (int c = 0; c < header.size(); c++) {
+            row.createCell(c).setCellValue(header.get(c));
+        }
+    }
+
+    /**
+     * Returns a shared cell style for the given data format, creating it on first use.
+     */
+    private CellStyle getStyle(String dataFormat) {
+        return styles.computeIfAbsent(dataFormat, format -> {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(format));
+            return style;
+        });
+    }
+}
@@ -96,6 +96,24 @@ public class FileUtils {
         return lastDotIndex > 0 ? filename.substring(0, lastDotIndex) : filename;
     }
 
+    /**
+     * Gets the file extension used for output files of a format.
+     *
+     * @param format the format name, such as "JSON" or "EXCEL"
+     * @return the file extension (without the dot), or null if the format is unknown
+     */
+    public static String getFormatExtension(String format) {
+        return switch (format) {
+            case "CSV" -> "csv";
+            case "JSON" -> "json";
+            case "XML" -> "xml";
+            case "EXCEL" -> "xlsx";
+            case "TEXT" -> "txt";
+            case "PDF" -> "pdf";
+            default -> null;
+        };
+    }
+
     /**
      * Creates a file with the specified content.
      *
@@ -0,0 +1,628 @@
+package com.converterframework.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * CSV tokenizer that reads a file through memory-mapped windows and returns fields as byte slices.
+ * Parsing follows the same rules as {@link CSVRecordReader}, but works on the UTF-8 bytes of the
+ * file without decoding them, and copies the fields of each record into one reusable buffer
+ * instead of creating strings. Runs of ordinary bytes are skipped eight at a time by testing a
+ * whole {@code long} for delimiter, quote and line break bytes at once. Malformed UTF-8 is
+ * replaced with U+FFFD as a UTF-8 reader would decode it, so the buffer always holds valid UTF-8.
+ * Each window is unmapped as soon as the next one is mapped or the tokenizer is closed, so the
+ * file is not held open by mappings waiting for garbage collection.
+ */
+public class MappedCSVTokenizer implements Closeable {
+
+    /**
+     * Default size of the mapped window, which must hold at least one whole record.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUOTES = ONES * '"';
+    private static final long LINE_FEEDS = ONES * '\n';
+    private static final long CARRIAGE_RETURNS = ONES * '\r';
+    private static final MethodHandle UNMAPPER = findUnmapper();
+
+    private final FileChannel channel;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final byte delimiter;
+    private final long delimiters;
+    private int windowSize;
+
+    private MappedByteBuffer window;
+    private Consumer<MappedByteBuffer> windowListener;
+    private long windowStart;
+    private int position;
+    private int limit;
+
+    private byte[] data = new byte[4096];
+    private int dataLength;
+    private int[] fieldStarts = new int[64];
+    private int[] fieldLengths = new int[64];
+    private int fieldCount;
+    private long recordCount;
+
+    public MappedCSVTokenizer(Path file) throws IOException {
+        this(file, ',', DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a tokenizer for the records in part of a file.
+     * The range must start at a record boundary, such as one found by {@link #findRecordStart}.
+     *
+     * @param file the CSV file to read
+     * @param start the offset of the first byte to read
+     * @param end the offset just past the last byte to read
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedCSVTokenizer(Path file, long start, long end) throws IOException {
+        this(file, ',', DEFAULT_WINDOW_SIZE, start, end);
+    }
+
+    /**
+     * Creates a tokenizer with a custom delimiter and window size.
+     *
+     * @param file the CSV file to read
+     * @param delimiter the field separator, which must be an ASCII character
+     * @param windowSize the initial number of bytes mapped at a time
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedCSVTokenizer(Path file, char delimiter, int windowSize) throws IOException {
+        this(file, delimiter, windowSize, 0, Long.MAX_VALUE);
+    }
+
+    private MappedCSVTokenizer(Path file, char delimiter, int windowSize, long start, long end) throws IOException {
+        if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Delimiter must be an ASCII character other than a quote or line break");
+        }
+        if (windowSize < 8) {
+            throw new IllegalArgumentException("Window size must be at least 8 bytes");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.rangeStart = start;
+        this.rangeEnd = Math.min(end, channel.size());
+        this.delimiter = (byte) delimiter;
+        this.delimiters = ONES * delimiter;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Checks if mapped windows can be released as soon as the tokenizer is done with them.
+     * Where they cannot, a mapped file stays locked on Windows until the mappings are garbage
+     * collected, so callers that move or delete the file afterwards should read it as a stream.
+     */
+    public static boolean isMappingReleasable() {
+        return UNMAPPER != null || !System.getProperty("os.name", "").startsWith("Windows");
+    }
+
+    /**
+     * Sets a listener called with each window as it is mapped, before any of it is parsed.
+     * Mapped reads bypass input streams, so this is where they can be loaded or measured.
+     * The window is unmapped once the tokenizer moves past it, so the listener must not keep it.
+     *
+     * @param windowListener the listener, or null for none
+     */
+    public void setWindowListener(Consumer<MappedByteBuffer> windowListener) {
+        this.windowListener = windowListener;
+    }
+
+    /**
+     * Advances to the next record, skipping whitespace-only lines.
+     *
+     * @return false at end of input
+     * @throws IOException if reading fails
+     */
+    public boolean nextRecord() throws IOException {
+        if (window == null && !map(rangeStart)) {
+            return false;
+        }
+
+        while (true) {
+            int result = parseRecord();
+            if (result > 0) {
+                recordCount++;
+                return true;
+            }
+            // The record runs past the end of the window: map again from its start and retry
+            if (result == 0 || !map(windowStart + position)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of fields in the current record.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the buffer holding the fields of the current record.
+     * Its contents are replaced by the next call to {@link #nextRecord()}.
+     */
+    public byte[] getBuffer() {
+        return data;
+    }
+
+    /**
+     * Gets the offset of a field in {@link #getBuffer()}.
+     */
+    public int getFieldStart(int field) {
+        return fieldStarts[field];
+    }
+
+    /**
+     * Gets the length in bytes of a field.
+     */
+    public int getFieldLength(int field) {
+        return fieldLengths[field];
+    }
+
+    /**
+     * Decodes a field of the current record as a string.
+     */
+    public String getFieldString(int field) {
+        return new String(data, fieldStarts[field], fieldLengths[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes every field of the current record as strings.
+     */
+    public String[] getFieldStrings() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getFieldString(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Gets the file offset just past the current record.
+     */
+    public long getPosition() {
+        return windowStart + position;
+    }
+
+    /**
+     * Gets the number of records returned so far.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        unmap(window);
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Maps the window starting at a file offset, growing the window if it is already mapped
+     * there because a single record does not fit.
+     *
+     * @return false if the offset is at the end of the file
+     */
+    private boolean map(long start) throws IOException {
+        if (start >= rangeEnd) {
+            return false;
+        }
+        if (window != null && start == windowStart) {
+            if (windowSize > Integer.MAX_VALUE / 2) {
+                throw new IOException("CSV record is too large to map");
+            }
+            windowSize *= 2;
+        }
+
+        int size = (int) Math.min(windowSize, rangeEnd - start);
+        // The fields of the current record have been copied out, so the old window can go.
+        // It is dropped before mapping so that a failed map leaves no unmapped window in use
+        unmap(window);
+        window = null;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        if (windowListener != null) {
+            windowListener.accept(window);
+        }
+        windowStart = start;
+        position = 0;
+        limit = size;
+        return true;
+    }
+
+    /**
+     * Parses one record from the current position.
+     *
+     * @return 1 if a record was read, 0 at end of input, or -1 if the window ended mid-record
+     */
+    private int parseRecord() {
+        boolean atEnd = windowStart + limit >= rangeEnd;
+        int recordStart = position;
+        int index = position;
+
+        while (true) {
+            dataLength = 0;
+            fieldCount = 0;
+            int fieldStart = 0;
+            boolean inQuotes = false;
+            boolean blank = true;
+
+            while (true) {
+                int next = inQuotes ? findQuote(index) : findSpecial(index);
+                int length = next - index;
+                if (length > 0) {
+                    ensureData(length);
+                    window.get(index, data, dataLength, length);
+                    if (blank) {
+                        blank = isBlank(data, dataLength, length);
+                    }
+                    // Runs end at ASCII bytes, which also end any malformed sequence, so each
+                    // run is replaced exactly as a reader decoding the whole file would
+                    dataLength += replaceMalformed(dataLength, length);
+                }
+
+                if (next >= limit) {
+                    if (!atEnd) {
+                        position = recordStart;
+                        return -1;
+                    }
+                    position = limit;
+                    if (blank) {
+                        return 0;
+                    }
+                    endField(fieldStart);
+                    return 1;
+                }
+
+                byte b = window.get(next);
+                if (b == '"') {
+                    blank = false;
+                    if (inQuotes && next + 1 < limit && window.get(next + 1) == '"') {
+                        // Escaped quote
+                        ensureData(1);
+                        data[dataLength++] = '"';
+                        index = next + 2;
+                    } else if (inQuotes && next + 1 >= limit && !atEnd) {
+                        // Cannot tell an escaped quote from a closing one yet
+                        position = recordStart;
+                        return -1;
+                    } else {
+                        inQuotes = !inQuotes;
+                        index = next + 1;
+                    }
+                } else if (b == delimiter) {
+                    if ((b & 0xFF) > ' ') {
+                        blank = false;
+                    }
+                    endField(fieldStart);
+                    fieldStart = dataLength;
+                    index = next + 1;
+                } else {
+                    // Line break outside quotes ends the record
+                    index = next + 1;
+                    if (b == '\r') {
+                        if (index < limit && window.get(index) == '\n') {
+                            index++;
+                        } else if (index >= limit && !atEnd) {
+                            position = recordStart;
+                            return -1;
+                        }
+                    }
+                    if (!blank) {
+                        endField(fieldStart);
+                        position = index;
+                        return 1;
+                    }
+                    break;
+                }
+            }
+
+            // Whitespace-only line: start the next record after it
+            recordStart = index;
+            if (index >= limit) {
+                position = index;
+                return atEnd ? 0 : -1;
+            }
+        }
+    }
+
+    /**
+     * Finds the next quote, delimiter or line break at or after an index.
+     *
+     * @return the index of the byte, or the window limit if there is none
+     */
+    private int findSpecial(int index) {
+        while (index + 8 <= limit) {
+            long word = window.getLong(index);
+            long matches = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ delimiters)
+                | zeroBytes(word ^ LINE_FEEDS) | zeroBytes(word ^ CARRIAGE_RETURNS);
+            if (matches != 0) {
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+            index += 8;
+        }
+        while (index < limit) {
+            byte b = window.get(index);
+            if (b == '"' || b == delimiter || b == '\n' || b == '\r') {
+                return index;
+            }
+            index++;
+        }
+        return limit;
+    }
+
+    /**
+     * Finds the next quote at or after an index.
+     *
+     * @return the index of the quote, or the window limit if there is none
+     */
+    private int findQuote(int index) {
+        while (index + 8 <= limit) {
+            long matches = zeroBytes(window.getLong(index) ^ QUOTES);
+            if (matches != 0) {
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+            index += 8;
+        }
+        while (index < limit) {
+            if (window.get(index) == '"') {
+                return index;
+            }
+            index++;
+        }
+        return limit;
+    }
+
+    /**
+     * Counts the quote bytes in part of a file.
+     * The parity of the count up to an offset tells whether that offset is inside a quoted value.
+     *
+     * @param channel the file to read
+     * @param start the offset of the first byte to count
+     * @param end the offset just past the last byte to count
+     * @return the number of quotes
+     * @throws IOException if reading fails
+     */
+    public static long countQuotes(FileChannel channel, long start, long end) throws IOException {
+        return countQuotes(channel, start, end, null);
+    }
+
+    /**
+     * Counts the quote bytes in part of a file, passing each mapped window to a listener
+     * before counting it.
+     *
+     * @param channel the file to read
+     * @param start the offset of the first byte to count
+     * @param end the offset just past the last byte to count
+     * @param windowListener the listener, or null for none
+     * @return the number of quotes
+     * @throws IOException if reading fails
+     */
+    public static long countQuotes(FileChannel channel, long start, long end,
+                                   Consumer<MappedByteBuffer> windowListener) throws IOException {
+        long count = 0;
+        for (long offset = start; offset < end; offset += DEFAULT_WINDOW_SIZE) {
+            int size = (int) Math.min(DEFAULT_WINDOW_SIZE, end - offset);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            try {
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (windowListener != null) {
+                    windowListener.accept(buffer);
+                }
+
+                int index = 0;
+                for (; index + 8 <= size; index += 8) {
+                    long matches = buffer.getLong(index) ^ QUOTES;
+                    // Exact per-byte zero test, unlike zeroBytes which is only exact for the lowest match
+                    long zeros = ~(((matches & ~HIGH_BITS) + ~HIGH_BITS) | matches | ~HIGH_BITS);
+                    count += Long.bitCount(zeros);
+                }
+                for (; index < size; index++) {
+                    if (buffer.get(index) == '"') {
+                        count++;
+                    }
+                }
+            } finally {
+                unmap(buffer);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first record boundary at or after an offset: the position just past a line break
+     * that is outside quotes.
+     *
+     * @param channel the file to read
+     * @param offset the offset to search from
+     * @param inQuotes whether the offset is inside a quoted value
+     * @return the offset of the boundary, or the file size if there is none
+     * @throws IOException if reading fails
+     */
+    public static long findRecordStart(FileChannel channel, long offset, boolean inQuotes) throws IOException {
+        // Boundaries are usually a short way in, so read small blocks rather than mapping
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        int count;
+        while ((count = channel.read(buffer.clear(), offset)) > 0) {
+            for (int i = 0; i < count; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if ((b == '\n' || b == '\r') && !inQuotes) {
+                    return offset + i + 1;
+                }
+            }
+            offset += count;
+        }
+        return offset;
+    }
+
+    /**
+     * Releases a mapping right away rather than when the buffer is garbage collected.
+     * The buffer must not be used afterwards.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            // Left to the garbage collector
+        }
+    }
+
+    /**
+     * Looks up {@code Unsafe.invokeCleaner}, the only way to unmap a buffer before it is collected.
+     *
+     * @return a handle taking the buffer to unmap, or null if it is not available
+     */
+    private static MethodHandle findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces malformed UTF-8 in a run of bytes just copied to the end of the buffer with the
+     * UTF-8 bytes of U+FFFD, the way {@link java.io.InputStreamReader} decodes it.
+     *
+     * @return the length of the run afterwards
+     */
+    private int replaceMalformed(int start, int length) {
+        if (isWellFormed(data, start, length)) {
+            return length;
+        }
+        byte[] replaced = new String(data, start, length, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+        ensureData(replaced.length);
+        System.arraycopy(replaced, 0, data, start, replaced.length);
+        return replaced.length;
+    }
+
+    /**
+     * Checks that a range of bytes is well-formed UTF-8, rejecting overlong forms, surrogates
+     * and code points above U+10FFFF as the JDK decoder does.
+     */
+    static boolean isWellFormed(byte[] bytes, int offset, int length) {
+        int index = offset;
+        int end = offset + length;
+        while (index < end) {
+            int lead = bytes[index];
+            if (lead >= 0) {
+                index++;
+                continue;
+            }
+            lead &= 0xFF;
+            int continuations;
+            int secondMin = 0x80;
+            int secondMax = 0xBF;
+            if (lead >= 0xC2 && lead <= 0xDF) {
+                continuations = 1;
+            } else if (lead >= 0xE0 && lead <= 0xEF) {
+                continuations = 2;
+                if (lead == 0xE0) {
+                    secondMin = 0xA0;
+                } else if (lead == 0xED) {
+                    secondMax = 0x9F;
+                }
+            } else if (lead >= 0xF0 && lead <= 0xF4) {
+                continuations = 3;
+                if (lead == 0xF0) {
+                    secondMin = 0x90;
+                } else if (lead == 0xF4) {
+                    secondMax = 0x8F;
+                }
+            } else {
+                return false;
+            }
+            if (end - index <= continuations) {
+                return false;
+            }
+            int second = bytes[index + 1] & 0xFF;
+            if (second < secondMin || second > secondMax) {
+                return false;
+            }
+            for (int i = 2; i <= continuations; i++) {
+                if ((bytes[index + i] & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            index += continuations + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the high bit of each zero byte in a word. Bits above the lowest zero byte may be
+     * set spuriously, so only the lowest set bit is meaningful.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    /**
+     * Checks that a range holds only whitespace and control bytes, as {@link String#trim()} sees them.
+     */
+    private static boolean isBlank(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if ((bytes[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the field that started at an offset, trimmed like {@link CSVRecordReader} values.
+     */
+    private void endField(int fieldStart) {
+        int start = fieldStart;
+        int end = dataLength;
+        while (start < end && (data[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldLengths = Arrays.copyOf(fieldLengths, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldLengths[fieldCount] = end - start;
+        fieldCount++;
+    }
+
+    private void ensureData(int extra) {
+        if (dataLength + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + extra));
+        }
+    }
+}
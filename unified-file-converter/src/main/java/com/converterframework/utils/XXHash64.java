@@ -0,0 +1,180 @@
+package com.converterframework.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming implementation of the 64-bit xxHash algorithm.
+ * xxHash is not a cryptographic hash, but it is fast enough to hash a file at close to the speed
+ * it can be read, and its 64-bit result makes accidental collisions between files unlikely.
+ * Data can be added in pieces of any size; the result is the same as hashing it in one piece.
+ */
+public final class XXHash64 {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE = 32;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final long seed;
+    private final byte[] pending = new byte[STRIPE];
+    private int pendingLength;
+    private long totalLength;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    public XXHash64() {
+        this(0);
+    }
+
+    public XXHash64(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * Hashes the contents of a file.
+     *
+     * @param file the file to hash
+     * @return the hash of the file's bytes
+     * @throws IOException if the file cannot be read
+     */
+    public static long hash(Path file) throws IOException {
+        XXHash64 hash = new XXHash64();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                hash.update(buffer, 0, count);
+            }
+        }
+        return hash.getValue();
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of a string.
+     */
+    public static long hash(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        XXHash64 hash = new XXHash64();
+        hash.update(bytes, 0, bytes.length);
+        return hash.getValue();
+    }
+
+    /**
+     * Starts a new hash with the same seed.
+     */
+    public void reset() {
+        v1 = seed + PRIME1 + PRIME2;
+        v2 = seed + PRIME2;
+        v3 = seed;
+        v4 = seed - PRIME1;
+        pendingLength = 0;
+        totalLength = 0;
+    }
+
+    /**
+     * Adds bytes to the hash.
+     */
+    public void update(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException("Invalid range: offset " + offset + ", length " + length);
+        }
+        totalLength += length;
+        int end = offset + length;
+
+        // Complete a stripe left over from the previous update
+        if (pendingLength > 0) {
+            int count = Math.min(STRIPE - pendingLength, length);
+            System.arraycopy(data, offset, pending, pendingLength, count);
+            pendingLength += count;
+            offset += count;
+            if (pendingLength < STRIPE) {
+                return;
+            }
+            processStripe(pending, 0);
+            pendingLength = 0;
+        }
+
+        for (; offset <= end - STRIPE; offset += STRIPE) {
+            processStripe(data, offset);
+        }
+
+        if (offset < end) {
+            System.arraycopy(data, offset, pending, 0, end - offset);
+            pendingLength = end - offset;
+        }
+    }
+
+    /**
+     * Gets the hash of the bytes added so far. More bytes may be added afterwards.
+     */
+    public long getValue() {
+        long h;
+        if (totalLength >= STRIPE) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME5;
+        }
+        h += totalLength;
+
+        int i = 0;
+        for (; i <= pendingLength - 8; i += 8) {
+            h ^= round(0, (long) LONGS.get(pending, i));
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+        }
+        if (i <= pendingLength - 4) {
+            h ^= ((int) INTS.get(pending, i) & 0xFFFFFFFFL) * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            i += 4;
+        }
+        for (; i < pendingLength; i++) {
+            h ^= (pending[i] & 0xFFL) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private void processStripe(byte[] data, int offset) {
+        v1 = round(v1, (long) LONGS.get(data, offset));
+        v2 = round(v2, (long) LONGS.get(data, offset + 8));
+        v3 = round(v3, (long) LONGS.get(data, offset + 16));
+        v4 = round(v4, (long) LONGS.get(data, offset + 24));
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME1 + PRIME4;
+    }
+}
@@ -0,0 +1,54 @@
+package com.converterframework.utils;
+
+/**
+ * Utility for turning field and column names into valid XML element names.
+ */
+public class XmlNames {
+
+    /**
+     * Converts a name into a valid XML element name.
+     * Characters that are not allowed are replaced with '_', and a name that does not start
+     * with a letter or '_' gets a '_' prefix.
+     *
+     * @param name the name to convert
+     * @return a valid XML element name
+     */
+    public static String toXmlName(String name) {
+        if (name == null || name.isEmpty()) {
+            return "_";
+        }
+        if (isXmlName(name)) {
+            return name;
+        }
+
+        StringBuilder result = new StringBuilder(name.length() + 1);
+        if (!isNameStart(name.charAt(0))) {
+            result.append('_');
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            result.append(isNamePart(c) ? c : '_');
+        }
+        return result.toString();
+    }
+
+    private static boolean isXmlName(String name) {
+        if (!isNameStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (!isNamePart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+}
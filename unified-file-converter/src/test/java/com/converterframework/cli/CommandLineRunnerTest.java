@@ -0,0 +1,70 @@
+package com.converterframework.cli;
+
+import com.converterframework.converters.BuiltInConverterProvider;
+import com.converterframework.core.ConversionManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that {@code **}{@code /} in glob inputs also matches files with no directory in
+ * between, and that a glob matching no file is reported as an invalid argument.
+ */
+class CommandLineRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    void doubleStarMatchesFilesDirectlyInBaseDirectory() throws IOException {
+        Path reports = directory.resolve("reports");
+        Files.createDirectories(reports.resolve("2026").resolve("q1"));
+        Files.writeString(reports.resolve("top.csv"), "id,name\n1,x\n");
+        Files.writeString(reports.resolve("2026").resolve("year.csv"), "id,name\n2,x\n");
+        Files.writeString(reports.resolve("2026").resolve("q1").resolve("quarter.csv"), "id,name\n3,x\n");
+        Files.writeString(reports.resolve("notes.txt"), "not a match");
+        Path output = directory.resolve("out");
+
+        int exitCode = run("--to", "JSON", "--out", output.toString(), reports + "/**/*.csv");
+
+        Assertions.assertEquals(CommandLineRunner.EXIT_SUCCESS, exitCode, err.toString(StandardCharsets.UTF_8));
+        Assertions.assertEquals(List.of("quarter.json", "top.json", "year.json"), list(output));
+    }
+
+    @Test
+    void globMatchingNothingIsInvalidArgument() throws IOException {
+        Files.createDirectories(directory.resolve("reports"));
+        Files.writeString(directory.resolve("reports").resolve("data.csv"), "id,name\n1,x\n");
+
+        int exitCode = run("--to", "JSON", directory.resolve("reports") + "/**/*.xml");
+
+        Assertions.assertEquals(CommandLineRunner.EXIT_USAGE, exitCode);
+        Assertions.assertTrue(err.toString(StandardCharsets.UTF_8).contains("No files match"));
+    }
+
+    private int run(String... args) {
+        ConversionManager manager = new ConversionManager();
+        manager.registerProvider(new BuiltInConverterProvider());
+        CommandLineRunner runner = new CommandLineRunner(manager,
+            new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        return runner.run(args);
+    }
+
+    private static List<String> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
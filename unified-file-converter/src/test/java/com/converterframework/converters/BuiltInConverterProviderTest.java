@@ -0,0 +1,52 @@
+package com.converterframework.converters;
+
+import com.converterframework.Main;
+import com.converterframework.core.ConversionManager;
+import com.converterframework.core.ConverterDescriptor;
+import com.converterframework.interfaces.ConverterProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Checks that the built-in converters are discovered as a service, and that describing and
+ * registering them creates none until a conversion needs one.
+ */
+class BuiltInConverterProviderTest {
+
+    @Test
+    void builtInProviderIsDiscovered() {
+        List<Class<?>> providers = ServiceLoader.load(ConverterProvider.class).stream()
+            .<Class<?>>map(ServiceLoader.Provider::type)
+            .toList();
+
+        Assertions.assertTrue(providers.contains(BuiltInConverterProvider.class), "Found " + providers);
+    }
+
+    @Test
+    void discoveredConvertersAreRegistered() {
+        ConversionManager manager = Main.createConversionManager();
+
+        Assertions.assertEquals("CSV to JSON Converter", manager.getConverter("CSV", "JSON").getConverterName());
+        Assertions.assertEquals("Text to PDF Converter", manager.getConverter("TEXT", "PDF").getConverterName());
+        Assertions.assertTrue(manager.getSupportedToFormats("CSV").containsAll(List.of("JSON", "XML", "EXCEL")));
+    }
+
+    @Test
+    void convertersAreCreatedOnFirstUse() {
+        List<ConverterDescriptor> descriptors = new BuiltInConverterProvider().getConverters();
+        ConversionManager manager = new ConversionManager();
+        manager.registerProvider(() -> descriptors);
+        manager.getSupportedFromFormats();
+        descriptors.forEach(descriptor -> Assertions.assertFalse(descriptor.isLoaded(), descriptor.getConverterName()));
+
+        manager.getConverter("JSON", "XML");
+
+        for (ConverterDescriptor descriptor : descriptors) {
+            Assertions.assertEquals(descriptor.supportsFormat("JSON", "XML"), descriptor.isLoaded(),
+                descriptor.getConverterName());
+        }
+    }
+}
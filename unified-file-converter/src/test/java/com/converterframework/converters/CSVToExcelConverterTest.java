@@ -0,0 +1,97 @@
+package com.converterframework.converters;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checks that values that look like numbers, booleans or dates are written as typed cells and
+ * everything else as text, and that rows beyond the in-memory window are all written.
+ */
+class CSVToExcelConverterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void valuesAreWrittenAsTypedCells() throws Exception {
+        String csv = "value\n42\n-3.5\n1e3\nTRUE\nfalse\n2024-02-29\n2024-02-29 13:45:10\n"
+            + "007\n2024-02-30\n12345678901234567\nplain\n";
+
+        try (Workbook workbook = convert(new CSVToExcelConverter(), csv)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assertions.assertEquals("value", cell(sheet, 0).getStringCellValue());
+            Assertions.assertEquals(42, cell(sheet, 1).getNumericCellValue());
+            Assertions.assertEquals(-3.5, cell(sheet, 2).getNumericCellValue());
+            Assertions.assertEquals(1000, cell(sheet, 3).getNumericCellValue());
+            Assertions.assertTrue(cell(sheet, 4).getBooleanCellValue());
+            Assertions.assertFalse(cell(sheet, 5).getBooleanCellValue());
+            Assertions.assertEquals(LocalDate.of(2024, 2, 29).atStartOfDay(), cell(sheet, 6).getLocalDateTimeCellValue());
+            Assertions.assertEquals("yyyy-mm-dd", cell(sheet, 6).getCellStyle().getDataFormatString());
+            Assertions.assertEquals(LocalDateTime.of(2024, 2, 29, 13, 45, 10), cell(sheet, 7).getLocalDateTimeCellValue());
+            // Leading zeros, impossible dates and numbers too long for a double stay text
+            Assertions.assertEquals("007", cell(sheet, 8).getStringCellValue());
+            Assertions.assertEquals("2024-02-30", cell(sheet, 9).getStringCellValue());
+            Assertions.assertEquals("12345678901234567", cell(sheet, 10).getStringCellValue());
+            Assertions.assertEquals(CellType.STRING, cell(sheet, 11).getCellType());
+        }
+    }
+
+    @Test
+    void emptyFieldLeavesNoCell() throws Exception {
+        try (Workbook workbook = convert(new CSVToExcelConverter(), "a,b\n,1\n")) {
+            Row row = workbook.getSheetAt(0).getRow(1);
+            Assertions.assertNull(row.getCell(0));
+            Assertions.assertEquals(1, row.getCell(1).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void rowsBeyondWindowAreWritten() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(",name").append(i).append('\n');
+        }
+
+        try (Workbook workbook = convert(new CSVToExcelConverter(10), csv.toString())) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assertions.assertEquals(1000, sheet.getLastRowNum());
+            for (int i = 0; i < 1000; i++) {
+                Row row = sheet.getRow(i + 1);
+                Assertions.assertEquals(i, row.getCell(0).getNumericCellValue());
+                Assertions.assertEquals("name" + i, row.getCell(1).getStringCellValue());
+            }
+        }
+    }
+
+    @Test
+    void emptyInputIsRejected() throws Exception {
+        File input = Files.writeString(directory.resolve("empty.csv"), "").toFile();
+        File output = directory.resolve("empty.xlsx").toFile();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CSVToExcelConverter().convert(input, output));
+    }
+
+    private static Workbook convert(CSVToExcelConverter converter, String csv) throws Exception {
+        byte[] xlsx = converter.convert(csv.getBytes(StandardCharsets.UTF_8));
+        return new XSSFWorkbook(new ByteArrayInputStream(xlsx));
+    }
+
+    private static Cell cell(Sheet sheet, int row) {
+        return sheet.getRow(row).getCell(0);
+    }
+}
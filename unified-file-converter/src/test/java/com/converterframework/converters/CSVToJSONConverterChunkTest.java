@@ -0,0 +1,78 @@
+package com.converterframework.converters;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks that converting a file in parallel chunks produces the same bytes as converting it in one pass.
+ * Surefire runs the tests with a common pool of 4 threads.
+ */
+class CSVToJSONConverterChunkTest {
+
+    private static final String[] VALUES = {
+        "", "plain", "42", "-3.5", "true", "a,b", "say \"hi\"", "two\nlines", "cr\r\nlf", "été", " padded ", "\""
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parallelChunksMatchSequentialConversion() throws Exception {
+        Assertions.assertEquals(4, ForkJoinPool.getCommonPoolParallelism());
+        Random random = new Random(17);
+        for (int input = 0; input < 40; input++) {
+            File csv = directory.resolve("input" + input + ".csv").toFile();
+            Files.write(csv.toPath(), randomCsv(random).getBytes(StandardCharsets.UTF_8));
+
+            File expected = directory.resolve("expected" + input + ".json").toFile();
+            new CSVToJSONConverter().convert(csv, expected);
+            byte[] sequential = Files.readAllBytes(expected.toPath());
+
+            for (int chunkSize = 1; chunkSize <= 12; chunkSize++) {
+                File actual = directory.resolve("chunked" + input + "-" + chunkSize + ".json").toFile();
+                new CSVToJSONConverter(chunkSize).convert(csv, actual);
+                Assertions.assertArrayEquals(sequential, Files.readAllBytes(actual.toPath()),
+                    "Input " + input + " with chunks of " + chunkSize + " bytes");
+            }
+        }
+    }
+
+    private static String randomCsv(Random random) {
+        int columns = 1 + random.nextInt(4);
+        String lineEnd = random.nextBoolean() ? "\n" : "\r\n";
+        StringBuilder csv = new StringBuilder();
+        for (int column = 0; column < columns; column++) {
+            csv.append(column > 0 ? "," : "").append("col").append(column);
+        }
+        int rows = 1 + random.nextInt(30);
+        for (int row = 0; row < rows; row++) {
+            csv.append(lineEnd);
+            // Some rows are shorter than the header
+            int fields = random.nextInt(8) == 0 ? 1 + random.nextInt(columns) : columns;
+            for (int field = 0; field < fields; field++) {
+                csv.append(field > 0 ? "," : "").append(quote(VALUES[random.nextInt(VALUES.length)], random));
+            }
+        }
+        if (random.nextBoolean()) {
+            csv.append(lineEnd);
+        }
+        return csv.toString();
+    }
+
+    private static String quote(String value, Random random) {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (needsQuotes || random.nextInt(4) == 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
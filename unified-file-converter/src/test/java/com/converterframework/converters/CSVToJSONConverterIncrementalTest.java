@@ -0,0 +1,154 @@
+package com.converterframework.converters;
+
+import com.converterframework.core.ConversionCheckpoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Checks that continuing a conversion from a checkpoint gives the same output as converting
+ * the whole input again.
+ */
+class CSVToJSONConverterIncrementalTest {
+
+    private static final String HEADER = "id,name,note\n";
+
+    @TempDir
+    Path directory;
+
+    private final CSVToJSONConverter converter = new CSVToJSONConverter();
+
+    @Test
+    void appendedRowsMatchFullConversion() throws Exception {
+        File input = write("1,one,plain\n2,two,\"with, comma\"\n");
+        File output = directory.resolve("output.json").toFile();
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+        Assertions.assertNotNull(checkpoint);
+        Assertions.assertEquals(2, checkpoint.getRecordCount());
+
+        String[] additions = {
+            "3,three,\"two\nlines\"\n",
+            "4,four,\"say \"\"hi\"\"\"\r\n5,five,\r\n",
+            "\n6,six,after a blank line\n",
+        };
+        for (String addition : additions) {
+            append(input, addition);
+            ConversionCheckpoint next = converter.convert(input, output, checkpoint);
+            Assertions.assertNotNull(next);
+            Assertions.assertEquals(input.length(), next.getInputOffset());
+            Assertions.assertTrue(next.getRecordCount() > checkpoint.getRecordCount());
+            assertSameAsFullConversion(input, output);
+            checkpoint = next;
+        }
+        Assertions.assertEquals(6, checkpoint.getRecordCount());
+    }
+
+    @Test
+    void onlyBlankLinesKeepOutput() throws Exception {
+        File input = write("1,one,plain\n");
+        File output = directory.resolve("output.json").toFile();
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+        byte[] before = Files.readAllBytes(output.toPath());
+
+        append(input, "\n  \n");
+        ConversionCheckpoint next = converter.convert(input, output, checkpoint);
+        Assertions.assertNotNull(next);
+        Assertions.assertEquals(1, next.getRecordCount());
+        Assertions.assertArrayEquals(before, Files.readAllBytes(output.toPath()));
+    }
+
+    @Test
+    void changedRowsAreConvertedAgain() throws Exception {
+        File input = write("1,one,plain\n2,two,plain\n");
+        File output = directory.resolve("output.json").toFile();
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+
+        // Same length, so only the hash of the converted rows tells the files apart
+        Files.write(input.toPath(), (HEADER + "1,one,plain\n2,TWO,plain\n3,three,new\n").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertFalse(checkpoint.matches(input.toPath()));
+        ConversionCheckpoint next = converter.convert(input, output, checkpoint);
+        Assertions.assertEquals(3, next.getRecordCount());
+        assertSameAsFullConversion(input, output);
+    }
+
+    @Test
+    void changedHeaderIsConvertedAgain() throws Exception {
+        File input = write("1,one,plain\n");
+        File output = directory.resolve("output.json").toFile();
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+
+        Files.write(input.toPath(), ("id,NAME,note\n1,one,plain\n2,two,plain\n").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertFalse(checkpoint.matches(input.toPath()));
+        converter.convert(input, output, checkpoint);
+        assertSameAsFullConversion(input, output);
+    }
+
+    @Test
+    void outputWithoutClosingBracketIsConvertedAgain() throws Exception {
+        File input = write("1,one,plain\n");
+        File output = directory.resolve("output.json").toFile();
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+
+        // An output that was cut short cannot be patched
+        byte[] converted = Files.readAllBytes(output.toPath());
+        Files.write(output.toPath(), Arrays.copyOf(converted, converted.length - 1));
+        append(input, "2,two,plain\n");
+        converter.convert(input, output, checkpoint);
+        assertSameAsFullConversion(input, output);
+    }
+
+    @Test
+    void missingTrailingLineBreakIsNotContinued() throws Exception {
+        File input = write("1,one,plain\n2,two,still being writ");
+        File output = directory.resolve("output.json").toFile();
+        Assertions.assertNull(converter.convert(input, output, null));
+
+        // Once the row is complete, the next run converts the whole file
+        append(input, "ten\n");
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+        Assertions.assertNotNull(checkpoint);
+        Assertions.assertEquals(2, checkpoint.getRecordCount());
+        assertSameAsFullConversion(input, output);
+
+        // Rows appended without a line break are converted, but cannot be continued
+        append(input, "3,three,plain\n4,four,unfinished");
+        Assertions.assertNull(converter.convert(input, output, checkpoint));
+        assertSameAsFullConversion(input, output);
+    }
+
+    @Test
+    void openQuotedValueIsNotContinued() throws Exception {
+        File input = write("1,one,plain\n");
+        File output = directory.resolve("output.json").toFile();
+        ConversionCheckpoint checkpoint = converter.convert(input, output, null);
+
+        // The line break is inside the quoted value, so the last row is not complete yet
+        append(input, "2,two,\"open\n");
+        Assertions.assertNull(converter.convert(input, output, checkpoint));
+        assertSameAsFullConversion(input, output);
+    }
+
+    private File write(String rows) throws IOException {
+        Path input = directory.resolve("input.csv");
+        Files.write(input, (HEADER + rows).getBytes(StandardCharsets.UTF_8));
+        return input.toFile();
+    }
+
+    private static void append(File input, String rows) throws IOException {
+        Files.write(input.toPath(), rows.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private void assertSameAsFullConversion(File input, File output) throws Exception {
+        File full = directory.resolve("full.json").toFile();
+        new CSVToJSONConverter().convert(input, full, null);
+        Assertions.assertEquals(Files.readString(full.toPath()), Files.readString(output.toPath()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.converterframework.converters;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Checks that converting a file through memory-mapped windows gives the same bytes as converting
+ * it as a stream, and leaves nothing mapped once the conversion returns.
+ */
+class CSVToJSONConverterMappedTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void inputCanBeMovedAndDeletedRightAfterConversion() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int row = 0; row < 2000; row++) {
+            csv.append(row).append(",\"name ").append(row).append("\"\n");
+        }
+        // One pass, and parallel chunks that also map the file to count quotes
+        for (int chunkSize : new int[] {CSVToJSONConverter.DEFAULT_CHUNK_SIZE, 1024}) {
+            Path input = Files.writeString(directory.resolve("input-" + chunkSize + ".csv"), csv);
+            File output = directory.resolve("output-" + chunkSize + ".json").toFile();
+            new CSVToJSONConverter(chunkSize).convert(input.toFile(), output);
+
+            Path moved = Files.move(input, directory.resolve("processed-" + chunkSize + ".csv"));
+            Files.delete(moved);
+            Assertions.assertTrue(output.length() > 0);
+        }
+    }
+
+    @Test
+    void malformedUtf8MatchesStreamConversion() throws Exception {
+        byte[] csv = {
+            'a', ',', 'b', '\n',
+            (byte) 0xC3, ',', (byte) 0xE2, (byte) 0x82, '\n',
+            '"', (byte) 0xC3, '"', (byte) 0xA9, ',', (byte) 0xFF, 'x', '\n',
+            (byte) 0xED, (byte) 0xA0, (byte) 0x80, ',', (byte) 0xC3, (byte) 0xA9, '\n',
+        };
+        Path input = Files.write(directory.resolve("input.csv"), csv);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        new CSVToJSONConverter().convert(new ByteArrayInputStream(csv), streamed);
+        for (int chunkSize : new int[] {CSVToJSONConverter.DEFAULT_CHUNK_SIZE, 1, 4}) {
+            File output = directory.resolve("output-" + chunkSize + ".json").toFile();
+            new CSVToJSONConverter(chunkSize).convert(input.toFile(), output);
+            Assertions.assertArrayEquals(streamed.toByteArray(), Files.readAllBytes(output.toPath()),
+                "Chunks of " + chunkSize + " bytes");
+        }
+        Assertions.assertTrue(streamed.toString(StandardCharsets.UTF_8).contains("�"));
+    }
+}
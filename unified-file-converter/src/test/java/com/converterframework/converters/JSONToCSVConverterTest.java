@@ -0,0 +1,67 @@
+package com.converterframework.converters;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Checks that headers come from the sampled elements only, in order of first appearance, that
+ * later elements are streamed against those headers, and that values are escaped for CSV.
+ */
+class JSONToCSVConverterTest {
+
+    @Test
+    void headersComeFromSampledElementsInOrderOfFirstAppearance() throws Exception {
+        String json = "[{\"b\":1,\"a\":2},{\"c\":3,\"a\":4},{\"d\":5,\"a\":6}]";
+
+        Assertions.assertEquals("b,a,c\n1,2,\n,4,3\n,6,\n", convert(new JSONToCSVConverter(2), json));
+        Assertions.assertEquals("b,a,c,d\n1,2,,\n,4,3,\n,6,,5\n", convert(new JSONToCSVConverter(), json));
+    }
+
+    @Test
+    void declaredHeadersSelectColumns() throws Exception {
+        String json = "[{\"a\":1,\"b\":2},{\"b\":3,\"z\":4}]";
+
+        Assertions.assertEquals("b,x\n2,\n3,\n", convert(new JSONToCSVConverter(List.of("b", "x")), json));
+    }
+
+    @Test
+    void valuesAreEscaped() throws Exception {
+        String json = "[{\"comma\":\"a,b\",\"quote\":\"say \\\"hi\\\"\",\"line\":\"one\\ntwo\","
+            + "\"null\":null,\"number\":1.5,\"flag\":true}]";
+
+        Assertions.assertEquals("comma,quote,line,null,number,flag\n"
+            + "\"a,b\",\"say \"\"hi\"\"\",\"one\ntwo\",,1.5,true\n", convert(new JSONToCSVConverter(), json));
+    }
+
+    @Test
+    void elementsBeyondSampleAreStreamed() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        StringBuilder expected = new StringBuilder("id,name\n");
+        for (int i = 0; i < 5000; i++) {
+            json.append(i > 0 ? "," : "").append("{\"id\":").append(i).append(",\"name\":\"n").append(i).append("\"}");
+            expected.append(i).append(",n").append(i).append('\n');
+        }
+        json.append(']');
+
+        Assertions.assertEquals(expected.toString(), convert(new JSONToCSVConverter(1), json.toString()));
+    }
+
+    @Test
+    void emptyArrayWritesNothing() throws Exception {
+        Assertions.assertEquals("", convert(new JSONToCSVConverter(), " [ ] "));
+    }
+
+    @Test
+    void inputMustBeArray() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> convert(new JSONToCSVConverter(), "{\"a\":1}"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JSONToCSVConverter(0));
+    }
+
+    private static String convert(JSONToCSVConverter converter, String json) throws Exception {
+        String csv = new String(converter.convert(json.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        return csv.replace(System.lineSeparator(), "\n");
+    }
+}
@@ -0,0 +1,75 @@
+package com.converterframework.converters;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Checks that field names become valid element names, that arrays repeat their field element
+ * or use the item element, and that nulls, empty strings and empty containers are written as
+ * elements without content. StAX implementations differ in how they write an element without
+ * content, so outputs are compared with both forms written as an empty-element tag.
+ */
+class JSONToXMLConverterTest {
+
+    @Test
+    void fieldNamesBecomeValidElementNames() throws Exception {
+        String json = "{\"first name\":\"a\",\"2nd\":\"b\",\"\":\"c\",\"ok-name.x\":\"d\"}";
+
+        Assertions.assertEquals("<root><first_name>a</first_name><_2nd>b</_2nd><_>c</_><ok-name.x>d</ok-name.x></root>",
+            convert(compact(), json));
+    }
+
+    @Test
+    void arraysRepeatFieldOrUseItemElement() throws Exception {
+        String json = "[{\"tags\":[\"x\",\"y\"],\"grid\":[[1,2]]},3]";
+
+        Assertions.assertEquals("<root><item><tags>x</tags><tags>y</tags><grid><item>1</item><item>2</item></grid></item>"
+            + "<item>3</item></root>", convert(compact(), json));
+        Assertions.assertEquals("<rows><row>1</row></rows>",
+            convert(new JSONToXMLConverter("rows", "row", false), "[1]"));
+    }
+
+    @Test
+    void emptyValuesAreElementsWithoutContent() throws Exception {
+        String json = "{\"null\":null,\"empty\":\"\",\"object\":{},\"array\":[],\"nested\":[[]]}";
+
+        // An empty array field repeats its element no times, so it leaves nothing, while an
+        // empty array inside one is a single field element
+        Assertions.assertEquals("<root><null/><empty/><object/><nested/></root>", convert(compact(), json));
+    }
+
+    @Test
+    void valuesAreEscapedAndKeepTheirText() throws Exception {
+        String json = "{\"text\":\"a < b & \\\"c\\\"\",\"number\":1.50,\"flag\":false}";
+
+        Assertions.assertEquals("<root><text>a &lt; b &amp; \"c\"</text><number>1.50</number><flag>false</flag></root>",
+            convert(compact(), json));
+    }
+
+    @Test
+    void prettyPrintIndentsNestedElements() throws Exception {
+        String json = "{\"a\":{\"b\":1},\"c\":\"\"}";
+
+        Assertions.assertEquals("<root>\n  <a>\n    <b>1</b>\n  </a>\n  <c/>\n</root>\n", convert(new JSONToXMLConverter(), json));
+    }
+
+    @Test
+    void emptyInputIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> convert(compact(), " "));
+    }
+
+    private static JSONToXMLConverter compact() {
+        return new JSONToXMLConverter(JSONToXMLConverter.DEFAULT_ROOT_ELEMENT, JSONToXMLConverter.DEFAULT_ITEM_ELEMENT,
+            false);
+    }
+
+    /**
+     * Converts JSON and drops the XML declaration, writing elements without content as empty-element tags.
+     */
+    private static String convert(JSONToXMLConverter converter, String json) throws Exception {
+        String xml = new String(converter.convert(json.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        return xml.replaceFirst("^<\\?xml[^>]*\\?>", "").replaceAll("<([^/>\\s]+)></\\1>", "<$1/>");
+    }
+}
@@ -0,0 +1,63 @@
+package com.converterframework.converters;
+
+import com.converterframework.core.ConversionManager;
+import com.converterframework.interfaces.FileConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Checks that built-in conversions between record formats run a single record converter, and
+ * that CSV to XML writes the same document, empty fields included, as CSV to JSON to XML.
+ */
+class RecordConverterTest {
+
+    private static final String CSV = "id,name,joined\n1,Ann,\n2,\"Bo, Jr\",2020\n3,,\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void csvToXmlMatchesConversionThroughJson() throws Exception {
+        File input = Files.writeString(directory.resolve("input.csv"), CSV).toFile();
+        File direct = directory.resolve("direct.xml").toFile();
+        File json = directory.resolve("input.json").toFile();
+        File throughJson = directory.resolve("through-json.xml").toFile();
+
+        new RecordConverter("CSV", "XML").convert(input, direct);
+        new CSVToJSONConverter().convert(input, json);
+        new JSONToXMLConverter().convert(json, throughJson);
+
+        String xml = Files.readString(direct.toPath());
+        Assertions.assertEquals(Files.readString(throughJson.toPath()), xml);
+        // Every item keeps every column, empty or not
+        Assertions.assertEquals(3, count(xml, "<joined"));
+        Assertions.assertEquals(3, count(xml, "<name"));
+    }
+
+    @Test
+    void builtInRecordConversionsRunOneConverter() {
+        ConversionManager manager = new ConversionManager();
+        manager.registerProvider(new BuiltInConverterProvider());
+
+        for (String[] pair : new String[][] {{"CSV", "XML"}, {"JSON", "EXCEL"}, {"XML", "CSV"}, {"EXCEL", "JSON"}}) {
+            List<FileConverter> plan = manager.planConversion(pair[0], pair[1]);
+            Assertions.assertEquals(1, plan.size(), pair[0] + " to " + pair[1]);
+            Assertions.assertInstanceOf(RecordConverter.class, plan.get(0));
+        }
+        Assertions.assertInstanceOf(CSVToJSONConverter.class, manager.planConversion("CSV", "JSON").get(0));
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
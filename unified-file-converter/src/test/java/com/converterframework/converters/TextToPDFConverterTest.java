@@ -0,0 +1,82 @@
+package com.converterframework.converters;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that long text continues over full pages in order, that blank lines keep their space,
+ * and that empty input still makes a document with one page.
+ */
+class TextToPDFConverterTest {
+
+    @Test
+    void linesContinueOverFullPagesInOrder() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+
+        List<List<String>> pages = convert(text.toString());
+
+        Assertions.assertTrue(pages.size() > 1, "Expected several pages, got " + pages.size());
+        int perPage = pages.get(0).size();
+        List<String> lines = new ArrayList<>();
+        for (int p = 0; p < pages.size(); p++) {
+            if (p < pages.size() - 1) {
+                Assertions.assertEquals(perPage, pages.get(p).size(), "Page " + (p + 1) + " is not full");
+            }
+            lines.addAll(pages.get(p));
+        }
+        Assertions.assertEquals(500, lines.size());
+        for (int i = 0; i < 500; i++) {
+            Assertions.assertEquals("line " + i, lines.get(i));
+        }
+    }
+
+    @Test
+    void blankLinesTakeUpSpace() throws Exception {
+        StringBuilder text = new StringBuilder();
+        StringBuilder spaced = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("line ").append(i).append('\n');
+            spaced.append("line ").append(i).append(i % 2 == 0 ? "\n\n" : "\n   \n");
+        }
+
+        int perPage = convert(text.toString()).get(0).size();
+        Assertions.assertEquals(perPage / 2, convert(spaced.toString()).get(0).size());
+    }
+
+    @Test
+    void emptyInputMakesOnePage() throws Exception {
+        Assertions.assertEquals(1, convert("").size());
+    }
+
+    /**
+     * Converts text and extracts the non-blank lines of each page.
+     */
+    private static List<List<String>> convert(String text) throws Exception {
+        byte[] pdf = new TextToPDFConverter().convert(text.getBytes(StandardCharsets.UTF_8));
+        List<List<String>> pages = new ArrayList<>();
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            for (int p = 1; p <= document.getNumberOfPages(); p++) {
+                List<String> lines = new ArrayList<>();
+                for (String line : PdfTextExtractor.getTextFromPage(document.getPage(p)).split("\n")) {
+                    // Blank lines are written as a non-breaking space
+                    if (!line.replace('\u00A0', ' ').isBlank()) {
+                        lines.add(line.strip());
+                    }
+                }
+                pages.add(lines);
+            }
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,234 @@
+package com.converterframework.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks that cache entries follow the input content and conversion key rather than file names,
+ * that eviction order survives reopening the cache, and that concurrent misses convert once.
+ * Outputs of inputs that change during their conversion are not stored, and threads waiting for
+ * another conversion of the same input stop waiting when they are cancelled.
+ */
+class ConversionCacheTest {
+
+    private static final String KEY = "csv>json";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void renamedOrCopiedInputHits() throws Exception {
+        ConversionCache cache = new ConversionCache(directory.resolve("cache"), 1024);
+        File input = write("input.csv", "id,name\n1,one\n");
+        AtomicInteger runs = new AtomicInteger();
+
+        Assertions.assertFalse(cache.convert(input, output("first.json"), KEY, counting(runs, "first.json")));
+
+        File renamed = directory.resolve("renamed.csv").toFile();
+        Files.move(input.toPath(), renamed.toPath());
+        Assertions.assertTrue(cache.convert(renamed, output("second.json"), KEY, counting(runs, "second.json")));
+
+        File copy = directory.resolve("copy.csv").toFile();
+        Files.copy(renamed.toPath(), copy.toPath());
+        Assertions.assertTrue(cache.convert(copy, output("third.json"), KEY, counting(runs, "third.json")));
+
+        Assertions.assertEquals(1, runs.get());
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(read("first.json"), read("second.json"));
+        Assertions.assertEquals(read("first.json"), read("third.json"));
+    }
+
+    @Test
+    void differentConversionKeyMisses() throws Exception {
+        ConversionCache cache = new ConversionCache(directory.resolve("cache"), 1024);
+        File input = write("input.csv", "id,name\n1,one\n");
+        AtomicInteger runs = new AtomicInteger();
+
+        Assertions.assertFalse(cache.convert(input, output("a.json"), KEY, counting(runs, "a.json")));
+        Assertions.assertFalse(cache.convert(input, output("b.json"), KEY + ";pretty", counting(runs, "b.json")));
+        Assertions.assertTrue(cache.convert(input, output("c.json"), KEY, counting(runs, "c.json")));
+
+        Assertions.assertEquals(2, runs.get());
+        Assertions.assertEquals(2, cache.getEntryCount());
+    }
+
+    @Test
+    void reopenedCacheEvictsLeastRecentlyUsed() throws Exception {
+        Path cacheDir = directory.resolve("cache");
+        ConversionCache cache = new ConversionCache(cacheDir, 1024);
+        File[] inputs = {
+            write("a.csv", "id\n1\n"),
+            write("b.csv", "id\n2\n"),
+            write("c.csv", "id\n3\n"),
+        };
+        AtomicInteger runs = new AtomicInteger();
+        Path[] entries = new Path[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            Set<Path> before = listEntries(cacheDir);
+            cache.convert(inputs[i], output("out.json"), KEY, counting(runs, "out.json"));
+            Set<Path> after = listEntries(cacheDir);
+            after.removeAll(before);
+            Assertions.assertEquals(1, after.size());
+            entries[i] = after.iterator().next();
+        }
+
+        // Use order b, c, a: b becomes the least recently used entry
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(entries[1], FileTime.fromMillis(now - 30_000));
+        Files.setLastModifiedTime(entries[2], FileTime.fromMillis(now - 20_000));
+        Files.setLastModifiedTime(entries[0], FileTime.fromMillis(now - 10_000));
+
+        long entrySize = cache.getSize() / 3;
+        ConversionCache reopened = new ConversionCache(cacheDir, entrySize * 2);
+        Assertions.assertEquals(2, reopened.getEntryCount());
+
+        runs.set(0);
+        Assertions.assertTrue(reopened.convert(inputs[0], output("a.json"), KEY, counting(runs, "a.json")));
+        Assertions.assertTrue(reopened.convert(inputs[2], output("c.json"), KEY, counting(runs, "c.json")));
+        Assertions.assertEquals(0, runs.get());
+        Assertions.assertFalse(reopened.convert(inputs[1], output("b.json"), KEY, counting(runs, "b.json")));
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    @Test
+    void concurrentMissesConvertOnce() throws Exception {
+        ConversionCache cache = new ConversionCache(directory.resolve("cache"), 1024);
+        File input = write("input.csv", "id,name\n1,one\n");
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        FutureTask<Boolean> first = new FutureTask<>(() -> cache.convert(input, output("first.json"), KEY, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+            Files.writeString(directory.resolve("first.json"), "converted", StandardCharsets.UTF_8);
+        }));
+        FutureTask<Boolean> second = new FutureTask<>(() -> cache.convert(input, output("second.json"), KEY,
+            counting(runs, "second.json")));
+
+        Thread firstThread = new Thread(first);
+        firstThread.start();
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        Thread secondThread = new Thread(second);
+        secondThread.start();
+        // Let the second thread reach the in-flight conversion before the first one finishes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (secondThread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        Assertions.assertFalse(first.get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(second.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, runs.get());
+        Assertions.assertEquals("converted", read("second.json"));
+    }
+
+    @Test
+    void inputChangedDuringConversionIsNotStored() throws Exception {
+        ConversionCache cache = new ConversionCache(directory.resolve("cache"), 1024);
+        File input = write("input.csv", "id,name\n1,one\n");
+        AtomicInteger runs = new AtomicInteger();
+
+        Assertions.assertFalse(cache.convert(input, output("first.json"), KEY, () -> {
+            runs.incrementAndGet();
+            // The output is of the appended content, not of the content the key was built from
+            Files.writeString(input.toPath(), "2,two\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            Files.writeString(directory.resolve("first.json"), "converted appended", StandardCharsets.UTF_8);
+        }));
+        Assertions.assertEquals(0, cache.getEntryCount());
+
+        // The original content misses instead of getting the output of the appended one
+        Files.writeString(input.toPath(), "id,name\n1,one\n", StandardCharsets.UTF_8);
+        Assertions.assertFalse(cache.convert(input, output("second.json"), KEY, counting(runs, "second.json")));
+        Assertions.assertEquals(2, runs.get());
+        Assertions.assertEquals(1, cache.getEntryCount());
+    }
+
+    @Test
+    void cancellingWaiterEndsItsWait() throws Exception {
+        ConversionCache cache = new ConversionCache(directory.resolve("cache"), 1024);
+        File input = write("input.csv", "id,name\n1,one\n");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        FutureTask<Boolean> first = new FutureTask<>(() -> cache.convert(input, output("first.json"), KEY, () -> {
+            started.countDown();
+            Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+            Files.writeString(directory.resolve("first.json"), "converted", StandardCharsets.UTF_8);
+        }));
+        new Thread(first).start();
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        ConversionProgress progress = new ConversionProgress();
+        AtomicInteger runs = new AtomicInteger();
+        FutureTask<Boolean> waiter = new FutureTask<>(() -> {
+            ConversionContext.bind(new ConversionContext(progress));
+            return cache.convert(input, output("second.json"), KEY, counting(runs, "second.json"));
+        });
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (waiterThread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        progress.cancel();
+
+        ExecutionException failure = Assertions.assertThrows(ExecutionException.class,
+            () -> waiter.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(CancellationException.class, failure.getCause());
+        Assertions.assertEquals(0, runs.get());
+
+        release.countDown();
+        Assertions.assertFalse(first.get(10, TimeUnit.SECONDS));
+    }
+
+    private ConversionCache.Conversion counting(AtomicInteger runs, String outputName) {
+        return () -> {
+            runs.incrementAndGet();
+            Files.writeString(directory.resolve(outputName), "converted " + runs.get(), StandardCharsets.UTF_8);
+        };
+    }
+
+    private static Set<Path> listEntries(Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    private File write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file.toFile();
+    }
+
+    private File output(String name) {
+        return directory.resolve(name).toFile();
+    }
+
+    private String read(String name) throws IOException {
+        return Files.readString(directory.resolve(name), StandardCharsets.UTF_8);
+    }
+}
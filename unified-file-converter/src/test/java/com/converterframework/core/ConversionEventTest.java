@@ -0,0 +1,138 @@
+package com.converterframework.core;
+
+import com.converterframework.converters.CSVToJSONConverter;
+import com.converterframework.interfaces.FileConverter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Checks that a recorded conversion emits a conversion event with its formats, converter, sizes
+ * and result, a format detection event when the source format is detected, and read and write
+ * events, named after the file they touch, that add up to the bytes it moved. Other tests may
+ * convert while the recording runs, so events are picked out by file name.
+ */
+class ConversionEventTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordedConversionEmitsStageEvents() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append(i).append(",name").append(i).append('\n');
+        }
+        File input = Files.writeString(directory.resolve("recorded-input.csv"), csv).toFile();
+        File output = directory.resolve("recorded-output.json").toFile();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new CSVToJSONConverter());
+
+        List<RecordedEvent> events = record(() -> {
+            ConversionResult result = manager.convert(new ConversionJob(input, output, null, "JSON"));
+            Assertions.assertTrue(result.isSuccess(), result.getErrorMessage());
+        });
+
+        RecordedEvent conversion = single(events, "com.converterframework.Conversion", "inputFile", input.getName());
+        Assertions.assertEquals(output.getName(), conversion.getString("outputFile"));
+        Assertions.assertEquals("CSV", conversion.getString("fromFormat"));
+        Assertions.assertEquals("JSON", conversion.getString("toFormat"));
+        Assertions.assertEquals("CSV to JSON Converter", conversion.getString("converter"));
+        Assertions.assertTrue(conversion.getBoolean("success"));
+        Assertions.assertFalse(conversion.getBoolean("cached"));
+        Assertions.assertEquals(input.length(), conversion.getLong("inputBytes"));
+        Assertions.assertEquals(output.length(), conversion.getLong("outputBytes"));
+        Assertions.assertEquals(2000, conversion.getLong("records"));
+
+        RecordedEvent detection = single(events, "com.converterframework.FormatDetection", "file", input.getName());
+        Assertions.assertEquals("CSV", detection.getString("format"));
+
+        Assertions.assertEquals(input.length(), sumBytes(events, "com.converterframework.ConversionRead", input.getName()));
+        Assertions.assertEquals(output.length(), sumBytes(events, "com.converterframework.ConversionWrite", output.getName()));
+    }
+
+    @Test
+    void failedConversionIsRecordedWithItsError() throws Exception {
+        File input = Files.writeString(directory.resolve("failing-input.csv"), "id,name\n1,x\n").toFile();
+        File output = directory.resolve("failing-output.json").toFile();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new FailingConverter());
+
+        List<RecordedEvent> events = record(() -> {
+            ConversionResult result = manager.convert(new ConversionJob(input, output, "CSV", "JSON"));
+            Assertions.assertFalse(result.isSuccess());
+        });
+
+        RecordedEvent conversion = single(events, "com.converterframework.Conversion", "inputFile", input.getName());
+        Assertions.assertFalse(conversion.getBoolean("success"));
+        Assertions.assertEquals("Converter failed", conversion.getString("errorMessage"));
+        Assertions.assertEquals("Failing Converter", conversion.getString("converter"));
+    }
+
+    /**
+     * Runs an action while recording the converter events, with no thresholds.
+     */
+    private List<RecordedEvent> record(Action action) throws Exception {
+        Path dump = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Conversion", "FormatDetection", "ConversionRead", "ConversionWrite")) {
+                recording.enable("com.converterframework." + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(dump);
+        }
+        return RecordingFile.readAllEvents(dump);
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String type, String field, String value) {
+        List<RecordedEvent> matching = events.stream()
+            .filter(event -> event.getEventType().getName().equals(type))
+            .filter(event -> value.equals(event.getString(field)))
+            .toList();
+        Assertions.assertEquals(1, matching.size(), type);
+        return matching.get(0);
+    }
+
+    private static long sumBytes(List<RecordedEvent> events, String type, String file) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(type))
+            .filter(event -> file.equals(event.getString("file")))
+            .mapToLong(event -> event.getLong("bytes"))
+            .sum();
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static final class FailingConverter implements FileConverter {
+
+        @Override
+        public boolean supportsFormat(String fromFormat, String toFormat) {
+            return "CSV".equals(fromFormat) && "JSON".equals(toFormat);
+        }
+
+        @Override
+        public void convert(File inputFile, File outputFile) throws IOException {
+            throw new IOException("Converter failed");
+        }
+
+        @Override
+        public String getConverterName() {
+            return "Failing Converter";
+        }
+    }
+}
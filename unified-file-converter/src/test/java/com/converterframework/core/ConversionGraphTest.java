@@ -0,0 +1,101 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.FileConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Checks that the fastest of several converters for the same conversion is chosen, that a tie
+ * goes to the last one registered, and that converters registered directly take precedence over
+ * the converters of providers however fast those are.
+ */
+class ConversionGraphTest {
+
+    @Test
+    void fastestProviderConverterIsChosen() {
+        ConverterDescriptor fast = descriptor("Fast", 20);
+        ConverterDescriptor slow = descriptor("Slow", 5);
+        ConversionManager manager = new ConversionManager();
+        manager.registerProvider(() -> List.of(fast, slow));
+
+        Assertions.assertEquals("Fast", manager.getConverter("CSV", "JSON").getConverterName());
+        // Ranking reads the descriptors only, so the other converter is never created
+        Assertions.assertFalse(slow.isLoaded());
+    }
+
+    @Test
+    void fastestRegisteredConverterIsChosen() {
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new NamedConverter("Slow"), new ConverterCapabilities().expectedMBps(5));
+        manager.registerConverter(new NamedConverter("Fast"), new ConverterCapabilities().expectedMBps(20));
+        manager.registerConverter(new NamedConverter("Unknown"));
+
+        Assertions.assertEquals("Fast", manager.getConverter("CSV", "JSON").getConverterName());
+    }
+
+    @Test
+    void lastRegisteredConverterWinsTie() {
+        ConversionManager manager = new ConversionManager();
+        manager.registerProvider(() -> List.of(descriptor("First", 10), descriptor("Second", 10)));
+
+        Assertions.assertEquals("Second", manager.getConverter("CSV", "JSON").getConverterName());
+    }
+
+    @Test
+    void registeredConverterTakesPrecedenceOverProviders() {
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new NamedConverter("Registered"), new ConverterCapabilities().expectedMBps(1));
+        manager.registerProvider(() -> List.of(descriptor("Provided", 100)));
+
+        Assertions.assertEquals("Registered", manager.getConverter("CSV", "JSON").getConverterName());
+        Assertions.assertEquals(List.of("Registered"), names(manager.planConversion("CSV", "JSON")));
+    }
+
+    @Test
+    void registeredConverterOfUnknownThroughputTakesPrecedenceOverProviders() {
+        ConversionManager manager = new ConversionManager();
+        manager.registerProvider(() -> List.of(descriptor("Provided", 100)));
+        manager.registerConverter(new NamedConverter("Registered"));
+
+        Assertions.assertEquals("Registered", manager.getConverter("CSV", "JSON").getConverterName());
+    }
+
+    private static ConverterDescriptor descriptor(String name, double expectedMBps) {
+        return new ConverterDescriptor(name, "CSV", "JSON", new ConverterCapabilities().expectedMBps(expectedMBps),
+            () -> new NamedConverter(name));
+    }
+
+    private static List<String> names(List<FileConverter> converters) {
+        return converters.stream().map(FileConverter::getConverterName).toList();
+    }
+
+    /**
+     * Converts CSV to JSON in name only; the tests never run a conversion.
+     */
+    private static final class NamedConverter implements FileConverter {
+
+        private final String name;
+
+        NamedConverter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean supportsFormat(String fromFormat, String toFormat) {
+            return "CSV".equals(fromFormat) && "JSON".equals(toFormat);
+        }
+
+        @Override
+        public void convert(File inputFile, File outputFile) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getConverterName() {
+            return name;
+        }
+    }
+}
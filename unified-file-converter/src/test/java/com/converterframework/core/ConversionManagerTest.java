@@ -0,0 +1,114 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.FileConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that default batches start a bounded number of jobs at once, and that conversions
+ * reading or writing EXCEL share one limit whichever converter runs them.
+ */
+class ConversionManagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void defaultBatchRunsBoundedNumberOfJobs() throws IOException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new SlowConverter("CSV", "JSON", running, maxRunning));
+        manager.setBatchConcurrency(3);
+
+        List<ConversionResult> results = manager.convertBatch(jobs("CSV", "JSON", 30));
+
+        Assertions.assertEquals(30, results.size());
+        results.forEach(result -> Assertions.assertTrue(result.isSuccess(), result.getErrorMessage()));
+        Assertions.assertTrue(maxRunning.get() <= 3, "Ran " + maxRunning.get() + " jobs at once");
+    }
+
+    @Test
+    void excelConversionsShareOneLimit() throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new SlowConverter("CSV", "EXCEL", running, maxRunning));
+        manager.registerConverter(new SlowConverter("JSON", "EXCEL", running, maxRunning));
+        manager.registerConverter(new SlowConverter("EXCEL", "CSV", running, maxRunning));
+        manager.setBatchConcurrency(12 * cores);
+
+        List<ConversionJob> jobs = new ArrayList<>();
+        jobs.addAll(jobs("CSV", "EXCEL", 3 * cores));
+        jobs.addAll(jobs("JSON", "EXCEL", 3 * cores));
+        jobs.addAll(jobs("EXCEL", "CSV", 3 * cores));
+        List<ConversionResult> results = manager.convertBatch(jobs);
+
+        results.forEach(result -> Assertions.assertTrue(result.isSuccess(), result.getErrorMessage()));
+        Assertions.assertTrue(maxRunning.get() <= cores, "Ran " + maxRunning.get() + " workbook conversions at once");
+    }
+
+    @Test
+    void batchConcurrencyMustBePositive() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConversionManager().setBatchConcurrency(0));
+    }
+
+    private List<ConversionJob> jobs(String fromFormat, String toFormat, int count) throws IOException {
+        List<ConversionJob> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = fromFormat.toLowerCase() + "-" + toFormat.toLowerCase() + "-" + i;
+            File input = Files.writeString(directory.resolve(name + ".in"), "data " + i).toFile();
+            jobs.add(new ConversionJob(input, directory.resolve(name + ".out").toFile(), fromFormat, toFormat));
+        }
+        return jobs;
+    }
+
+    /**
+     * Copies its input slowly, recording how many conversions run at once.
+     */
+    private static final class SlowConverter implements FileConverter {
+
+        private final String fromFormat;
+        private final String toFormat;
+        private final AtomicInteger running;
+        private final AtomicInteger maxRunning;
+
+        SlowConverter(String fromFormat, String toFormat, AtomicInteger running, AtomicInteger maxRunning) {
+            this.fromFormat = fromFormat;
+            this.toFormat = toFormat;
+            this.running = running;
+            this.maxRunning = maxRunning;
+        }
+
+        @Override
+        public boolean supportsFormat(String fromFormat, String toFormat) {
+            return this.fromFormat.equals(fromFormat) && this.toFormat.equals(toFormat);
+        }
+
+        @Override
+        public void convert(File inputFile, File outputFile) throws Exception {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                Files.copy(inputFile.toPath(), outputFile.toPath());
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String getConverterName() {
+            return fromFormat + " to " + toFormat + " Test Converter";
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.FileConverter;
+import com.converterframework.interfaces.StreamConverter;
+import com.converterframework.utils.BytePipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Checks that a conversion no single converter handles is planned as a chain of stream
+ * converters, that data larger than the pipes flows through every step, and that the error of
+ * the step that failed first is reported rather than the errors it caused in its neighbours.
+ */
+class ConversionPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void chainConvertsThroughEveryStep() throws Exception {
+        ConversionManager manager = chain(-1);
+        List<FileConverter> plan = manager.planConversion("TEXT", "XML");
+        Assertions.assertEquals(3, plan.size());
+
+        String content = "line of input\n".repeat(3 * BytePipe.DEFAULT_CAPACITY / 10);
+        File input = Files.writeString(directory.resolve("input.txt"), content).toFile();
+        File output = directory.resolve("output.xml").toFile();
+        ConversionResult result = manager.convert(new ConversionJob(input, output, "TEXT", "XML"));
+
+        Assertions.assertTrue(result.isSuccess(), result.getErrorMessage());
+        Assertions.assertEquals(content + "|CSV|JSON|XML", Files.readString(output.toPath()));
+    }
+
+    @Test
+    void firstFailureIsReported() throws Exception {
+        String content = "line of input\n".repeat(3 * BytePipe.DEFAULT_CAPACITY / 10);
+        File input = Files.writeString(directory.resolve("input.txt"), content).toFile();
+
+        // The middle step fails part way, which makes the first step fail to write and the last
+        // one see a truncated input; only the middle step's error is reported
+        for (int run = 0; run < 20; run++) {
+            ConversionManager manager = chain(BytePipe.DEFAULT_CAPACITY);
+            File output = directory.resolve("output-" + run + ".xml").toFile();
+            ConversionResult result = manager.convert(new ConversionJob(input, output, "TEXT", "XML"));
+
+            Assertions.assertFalse(result.isSuccess());
+            Assertions.assertEquals("Step to JSON failed", result.getErrorMessage());
+        }
+    }
+
+    /**
+     * Registers TEXT to CSV, CSV to JSON and JSON to XML steps, and no direct converter.
+     *
+     * @param failAfter the number of bytes after which the CSV to JSON step fails, or -1 for never
+     */
+    private static ConversionManager chain(int failAfter) {
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new MarkingStep("TEXT", "CSV", -1));
+        manager.registerConverter(new MarkingStep("CSV", "JSON", failAfter));
+        manager.registerConverter(new MarkingStep("JSON", "XML", -1));
+        return manager;
+    }
+
+    /**
+     * Copies its input and appends the name of its target format. Unless it reads the original
+     * input, it checks that its input ends with the mark of the step before it.
+     */
+    private static final class MarkingStep implements StreamConverter {
+
+        private final String fromFormat;
+        private final String toFormat;
+        private final int failAfter;
+
+        MarkingStep(String fromFormat, String toFormat, int failAfter) {
+            this.fromFormat = fromFormat;
+            this.toFormat = toFormat;
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public boolean supportsFormat(String from, String to) {
+            return fromFormat.equals(from) && toFormat.equals(to);
+        }
+
+        @Override
+        public void convert(InputStream input, OutputStream output) throws IOException {
+            if (failAfter >= 0) {
+                output.write(input.readNBytes(failAfter));
+                throw new IllegalStateException("Step to " + toFormat + " failed");
+            }
+            byte[] data = input.readAllBytes();
+            String mark = "|" + fromFormat;
+            if (!"TEXT".equals(fromFormat)
+                    && !new String(data, StandardCharsets.UTF_8).endsWith(mark)) {
+                throw new IOException("Truncated input to " + toFormat);
+            }
+            output.write(data);
+            output.write(("|" + toFormat).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String getConverterName() {
+            return fromFormat + " to " + toFormat + " Marking Step";
+        }
+    }
+}
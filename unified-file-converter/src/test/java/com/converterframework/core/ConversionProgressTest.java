@@ -0,0 +1,160 @@
+package com.converterframework.core;
+
+import com.converterframework.converters.CSVToJSONConverter;
+import com.converterframework.interfaces.StreamConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that conversions report the bytes and records they process, that cancelling a running
+ * conversion stops it and deletes its partial output, and that cancelling a batch fails the
+ * jobs that have not started while leaving their outputs alone.
+ */
+class ConversionProgressTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void finishedConversionReportsAllBytesAndRecords() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 0; i < 3000; i++) {
+            csv.append(i).append(",name").append(i).append('\n');
+        }
+        File input = Files.writeString(directory.resolve("data.csv"), csv).toFile();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(new CSVToJSONConverter());
+        ConversionProgress progress = new ConversionProgress();
+        Assertions.assertEquals(-1, progress.getFraction());
+
+        ConversionResult result = manager.convert(
+            new ConversionJob(input, directory.resolve("data.json").toFile(), "CSV", "JSON"), progress);
+
+        Assertions.assertTrue(result.isSuccess(), result.getErrorMessage());
+        Assertions.assertEquals(input.length(), progress.getTotalBytes());
+        Assertions.assertEquals(input.length(), progress.getBytesProcessed());
+        Assertions.assertEquals(1.0, progress.getFraction());
+        Assertions.assertEquals(3000, progress.getRecordCount());
+    }
+
+    @Test
+    void cancellingRunningConversionDeletesPartialOutput() throws Exception {
+        File input = Files.writeString(directory.resolve("data.csv"), "id,name\n1,x\n").toFile();
+        File output = directory.resolve("data.json").toFile();
+        BlockingConverter converter = new BlockingConverter();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(converter);
+        ConversionProgress progress = new ConversionProgress();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ConversionResult> running = executor.submit(() ->
+                manager.convert(new ConversionJob(input, output, "CSV", "JSON"), progress));
+            Assertions.assertTrue(converter.started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            Assertions.assertTrue(output.exists());
+
+            progress.cancel();
+            converter.mayContinue.countDown();
+            ConversionResult result = running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            Assertions.assertFalse(result.isSuccess());
+            Assertions.assertEquals("Conversion cancelled", result.getErrorMessage());
+            Assertions.assertFalse(output.exists());
+            Assertions.assertTrue(progress.isCancelled());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancelledBatchFailsJobsNotStartedAndLeavesTheirOutputs() throws Exception {
+        BlockingConverter converter = new BlockingConverter();
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(converter);
+        ConversionProgress progress = new ConversionProgress();
+
+        List<ConversionJob> jobs = new ArrayList<>();
+        long totalBytes = 0;
+        for (int i = 0; i < 4; i++) {
+            File input = Files.writeString(directory.resolve("data" + i + ".csv"), "id,name\n" + i + ",x\n").toFile();
+            File output = Files.writeString(directory.resolve("data" + i + ".json"), "earlier output").toFile();
+            jobs.add(new ConversionJob(input, output, "CSV", "JSON"));
+            totalBytes += input.length();
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<ConversionResult>> batch = caller.submit(() -> manager.convertBatch(jobs, executor, progress));
+            Assertions.assertTrue(converter.started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            // Every input is counted before the first job finishes
+            Assertions.assertEquals(totalBytes, progress.getTotalBytes());
+
+            progress.cancel();
+            converter.mayContinue.countDown();
+            List<ConversionResult> results = batch.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            for (ConversionResult result : results) {
+                Assertions.assertFalse(result.isSuccess());
+                Assertions.assertEquals("Conversion cancelled", result.getErrorMessage());
+            }
+            // The running job's partial output is deleted; the others never started
+            Assertions.assertFalse(jobs.get(0).getOutputFile().exists());
+            for (int i = 1; i < jobs.size(); i++) {
+                Assertions.assertEquals("earlier output", Files.readString(jobs.get(i).getOutputFile().toPath()));
+            }
+            Assertions.assertEquals(1, converter.conversions);
+            Assertions.assertEquals(1.0, progress.getFraction());
+        } finally {
+            caller.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes part of its output, then waits to be released before copying its input.
+     */
+    private static final class BlockingConverter implements StreamConverter {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch mayContinue = new CountDownLatch(1);
+        private volatile int conversions;
+
+        @Override
+        public boolean supportsFormat(String fromFormat, String toFormat) {
+            return "CSV".equals(fromFormat) && "JSON".equals(toFormat);
+        }
+
+        @Override
+        public void convert(InputStream input, OutputStream output) throws Exception {
+            conversions++;
+            output.write('[');
+            output.flush();
+            started.countDown();
+            Assertions.assertTrue(mayContinue.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            input.transferTo(output);
+            output.write(']');
+        }
+
+        @Override
+        public String getConverterName() {
+            return "Blocking CSV to JSON Converter";
+        }
+    }
+}
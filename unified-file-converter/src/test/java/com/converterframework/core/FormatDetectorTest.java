@@ -0,0 +1,123 @@
+package com.converterframework.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Checks that content checks look for the magic bytes of binary formats and only read an 8 KB
+ * prefix, and that cached results are reused until a file's size or modification time changes.
+ */
+class FormatDetectorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void excelNeedsZipOrOle2Magic() throws IOException {
+        Assertions.assertEquals("EXCEL", detect("book.xlsx", new byte[] {0x50, 0x4B, 0x03, 0x04, 0x14, 0x00}));
+        Assertions.assertEquals("EXCEL", detect("book.xls", new byte[] {
+            (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1, 0x00}));
+        Assertions.assertEquals("UNKNOWN", detect("renamed.xlsx", bytes("id,name\n1,x\n")));
+        // A truncated magic number is not enough
+        Assertions.assertEquals("UNKNOWN", detect("short.xlsx", new byte[] {0x50, 0x4B, 0x03}));
+    }
+
+    @Test
+    void pdfHeaderMayFollowLeadingBytes() throws IOException {
+        Assertions.assertEquals("PDF", detect("doc.pdf", bytes("%PDF-1.7\n")));
+        Assertions.assertEquals("PDF", detect("junk.pdf", bytes(" ".repeat(1000) + "%PDF-1.4\n")));
+        // Readers only look for the header in the first 1024 bytes
+        Assertions.assertEquals("UNKNOWN", detect("late.pdf", bytes(" ".repeat(1020) + "%PDF-1.4\n")));
+        Assertions.assertEquals("UNKNOWN", detect("text.pdf", bytes("plain text\n")));
+    }
+
+    @Test
+    void csvNeedsDelimiterInFirstLine() throws IOException {
+        Assertions.assertEquals("CSV", detect("comma.csv", bytes("id,name\n1,x\n")));
+        Assertions.assertEquals("CSV", detect("semicolon.csv", bytes("id;name\n")));
+        Assertions.assertEquals("CSV", detect("tab.csv", bytes("id\tname\n")));
+        Assertions.assertEquals("UNKNOWN", detect("single.csv", bytes("id\n1,x\n")));
+        Assertions.assertEquals("UNKNOWN", detect("empty.csv", new byte[0]));
+    }
+
+    @Test
+    void csvDelimiterBeyondPrefixIsNotSeen() throws IOException {
+        // The first line runs past the 8 KB prefix before its first delimiter
+        Assertions.assertEquals("UNKNOWN", detect("wide.csv", bytes("x".repeat(8 * 1024) + ",y\n")));
+        Assertions.assertEquals("CSV", detect("narrower.csv", bytes("x".repeat(8 * 1024 - 1) + ",y\n")));
+    }
+
+    @Test
+    void jsonAndXmlSkipByteOrderMarkAndWhitespace() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        Assertions.assertEquals("JSON", detect("bom.json", concat(bom, bytes("\n  [1]"))));
+        Assertions.assertEquals("JSON", detect("object.json", bytes("{}")));
+        Assertions.assertEquals("UNKNOWN", detect("text.json", bytes("null")));
+        Assertions.assertEquals("XML", detect("bom.xml", concat(bom, bytes(" <root/>"))));
+        Assertions.assertEquals("UNKNOWN", detect("text.xml", bytes("root")));
+    }
+
+    @Test
+    void unknownExtensionOrMissingFileIsUnknown() throws IOException {
+        Assertions.assertEquals("UNKNOWN", detect("data.bin", bytes("id,name\n")));
+        Assertions.assertEquals("UNKNOWN", FormatDetector.detectFormat(directory.resolve("missing.csv").toFile()));
+        Assertions.assertEquals("UNKNOWN", FormatDetector.detectFormat(null));
+    }
+
+    @Test
+    void cachedResultIsKeptWhileSizeAndModificationTimeMatch() throws IOException {
+        Path file = directory.resolve("data.csv");
+        Files.writeString(file, "id,name\n");
+        FileTime modified = FileTime.fromMillis(1_600_000_000_000L);
+        Files.setLastModifiedTime(file, modified);
+        Assertions.assertEquals("CSV", FormatDetector.detectFormat(file.toFile()));
+
+        // Same size and modification time: the file is not read again
+        Files.writeString(file, "id_name\n");
+        Files.setLastModifiedTime(file, modified);
+        Assertions.assertEquals("CSV", FormatDetector.detectFormat(file.toFile()));
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 1000));
+        Assertions.assertEquals("UNKNOWN", FormatDetector.detectFormat(file.toFile()));
+
+        Files.writeString(file, "id,name,more\n");
+        Assertions.assertEquals("CSV", FormatDetector.detectFormat(file.toFile()));
+    }
+
+    @Test
+    void invalidatedFileIsReadAgain() throws IOException {
+        Path file = directory.resolve("data.json");
+        Files.writeString(file, "[]");
+        FileTime modified = Files.getLastModifiedTime(file);
+        Assertions.assertEquals("JSON", FormatDetector.detectFormat(file.toFile()));
+
+        Files.writeString(file, "--");
+        Files.setLastModifiedTime(file, modified);
+        FormatDetector.invalidate(file.toFile());
+        Assertions.assertEquals("UNKNOWN", FormatDetector.detectFormat(file.toFile()));
+    }
+
+    private String detect(String name, byte[] content) throws IOException {
+        File file = Files.write(directory.resolve(name), content).toFile();
+        return FormatDetector.detectFormat(file);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
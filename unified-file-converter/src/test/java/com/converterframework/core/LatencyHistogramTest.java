@@ -0,0 +1,85 @@
+package com.converterframework.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Checks that every duration falls in a bucket whose bounds hold it within the stated 12%,
+ * that bucket bounds meet without gaps, and that percentiles never exceed the largest duration.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void shortDurationsAreExact() {
+        for (long micros = 0; micros < 16; micros++) {
+            Assertions.assertEquals(micros, upperBound(micros));
+        }
+    }
+
+    @Test
+    void bucketHoldsDurationWithinPrecision() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            // Up to about 12 days, so the duration still fits in nanoseconds
+            long micros = 16 + (random.nextLong() >>> (24 + random.nextInt(40)));
+            long upper = upperBound(micros);
+            Assertions.assertTrue(upper >= micros, micros + " above its bucket");
+            Assertions.assertTrue(upper - micros <= micros / 8, micros + " in a bucket ending at " + upper);
+        }
+    }
+
+    @Test
+    void bucketsMeetWithoutGaps() {
+        for (int exponent = 4; exponent < 40; exponent++) {
+            long power = 1L << exponent;
+            for (long micros : new long[] {power - 1, power, power + 1}) {
+                long upper = upperBound(micros);
+                // The next duration starts the next bucket
+                Assertions.assertEquals(upper, upperBound(upper));
+                Assertions.assertTrue(upperBound(upper + 1) > upper);
+            }
+        }
+    }
+
+    @Test
+    void extremeDurationsAreRecorded() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        Assertions.assertEquals(2, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getPercentileMillis(0.5));
+        Assertions.assertEquals(Long.MAX_VALUE / 1000 / 1000.0, histogram.getPercentileMillis(1));
+    }
+
+    @Test
+    void percentilesAreCappedAtMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        Assertions.assertEquals(100, histogram.getMaxMillis());
+        Assertions.assertEquals(50.5, histogram.getMeanMillis());
+        Assertions.assertEquals(100, histogram.getPercentileMillis(1));
+        double p50 = histogram.getPercentileMillis(0.5);
+        Assertions.assertTrue(p50 >= 50 && p50 <= 50 * 1.125, "p50 was " + p50);
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getPercentileMillis(0.99));
+    }
+
+    /**
+     * Gets the upper bound of the bucket holding a duration, by recording it below a far longer
+     * one so the maximum does not cap it.
+     */
+    private static long upperBound(long micros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(micros * 1000);
+        histogram.record(Long.MAX_VALUE);
+        return Math.round(histogram.getPercentileMillis(0.5) * 1000);
+    }
+}
@@ -0,0 +1,224 @@
+package com.converterframework.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Checks that the active log is sealed once it reaches its size in UTF-8 bytes, that queries
+ * only see lines that have been flushed, and that queries skip sealed segments by their
+ * manifest summary and still find every matching entry. Recent entries are read from the end,
+ * across segments, and returned oldest first. Entries that were not flushed when a
+ * write failed can be discarded and written again without repeating or splitting lines.
+ */
+class LogStoreTest {
+
+    private static final String HEADER = "Date,Input File,Output File,From Format,To Format,Status,Error Message";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rotatesAtSizeLimitCountingUtf8Bytes() throws IOException {
+        // Each entry is far longer in UTF-8 bytes than in characters
+        String note = "日本語のメモ é ü 😀".repeat(4);
+        int lineBytes = (line(0, "CSV", "JSON", "SUCCESS") + note + System.lineSeparator())
+            .getBytes(StandardCharsets.UTF_8).length;
+        long limit = 5L * lineBytes;
+        LogStore store = newStore(new LogSegmentPolicy().maxSegmentBytes(limit));
+
+        int entries = 40;
+        for (int i = 0; i < entries; i++) {
+            store.append(line(i, "CSV", "JSON", "SUCCESS") + note, START.plusSeconds(i), "SUCCESS", "CSV", "JSON");
+        }
+        store.flush();
+        store.close();
+
+        List<byte[]> sealed = readSegments();
+        Assertions.assertFalse(sealed.isEmpty());
+        for (byte[] segment : sealed) {
+            // Sealed as soon as it reached the limit, so the last entry took it over
+            Assertions.assertTrue(segment.length >= limit, "Segment of " + segment.length + " bytes");
+            Assertions.assertTrue(segment.length - lineBytes < limit, "Segment of " + segment.length + " bytes");
+        }
+        Assertions.assertTrue(Files.size(directory.resolve("log.csv")) < limit + lineBytes);
+
+        List<String[]> all = store.query(new LogQuery().limit(entries));
+        Assertions.assertEquals(entries, all.size());
+        for (int i = 0; i < entries; i++) {
+            Assertions.assertEquals("in" + i + ".csv", all.get(i)[1]);
+            Assertions.assertEquals(note, all.get(i)[6]);
+        }
+    }
+
+    @Test
+    void recentEntriesAreTheNewestAcrossSegmentsOldestFirst() throws IOException {
+        int lineBytes = (line(0, "CSV", "JSON", "SUCCESS") + System.lineSeparator()).getBytes(StandardCharsets.UTF_8).length;
+        LogStore store = newStore(new LogSegmentPolicy().maxSegmentBytes(3L * lineBytes));
+        for (int i = 0; i < 20; i++) {
+            append(store, i, "CSV", "JSON", "SUCCESS");
+        }
+
+        // The newest entries span the active log and two sealed segments
+        Assertions.assertEquals(List.of("in13.csv", "in14.csv", "in15.csv", "in16.csv", "in17.csv", "in18.csv", "in19.csv"),
+            inputs(store.query(new LogQuery().limit(7))));
+        Assertions.assertEquals(20, store.query(new LogQuery().limit(100)).size());
+        Assertions.assertEquals(List.of(), store.query(new LogQuery().limit(0)));
+        store.close();
+    }
+
+    @Test
+    void queryDuringHalfWrittenBatchSeesOnlyFlushedLines() throws IOException {
+        LogStore store = newStore(new LogSegmentPolicy());
+        append(store, 0, "CSV", "JSON", "SUCCESS");
+        append(store, 1, "CSV", "JSON", "SUCCESS");
+
+        // Enough unflushed text that the file writer's buffer spills part of it to disk,
+        // usually ending in the middle of a line
+        String padding = "x".repeat(997);
+        for (int i = 2; i < 100; i++) {
+            store.append(line(i, "CSV", "JSON", "FAILED") + padding, START.plusMinutes(i), "FAILED", "CSV", "JSON");
+        }
+        long flushed = (HEADER + System.lineSeparator() + line(0, "CSV", "JSON", "SUCCESS") + System.lineSeparator()
+            + line(1, "CSV", "JSON", "SUCCESS") + System.lineSeparator()).getBytes(StandardCharsets.UTF_8).length;
+        Assertions.assertTrue(Files.size(directory.resolve("log.csv")) > flushed);
+
+        Assertions.assertEquals(List.of("in0.csv", "in1.csv"), inputs(store.query(new LogQuery())));
+        Assertions.assertTrue(store.query(new LogQuery().status("FAILED")).isEmpty());
+
+        store.flush();
+        Assertions.assertEquals(98, store.query(new LogQuery().status("FAILED")).size());
+        store.close();
+    }
+
+    @Test
+    void discardingUnflushedEntriesLetsThemBeWrittenAgainOnce() throws IOException {
+        LogStore store = newStore(new LogSegmentPolicy());
+        append(store, 0, "CSV", "JSON", "SUCCESS");
+
+        // A failed batch, part of which already spilled from the writer's buffer into the file
+        String padding = "x".repeat(997);
+        for (int i = 1; i < 50; i++) {
+            store.append(line(i, "CSV", "JSON", "SUCCESS") + padding, START.plusMinutes(i), "SUCCESS", "CSV", "JSON");
+        }
+        store.discardUnflushed();
+        Assertions.assertEquals(List.of("in0.csv"), inputs(store.query(new LogQuery())));
+
+        // The writer retries the whole batch
+        for (int i = 1; i < 50; i++) {
+            store.append(line(i, "CSV", "JSON", "SUCCESS") + padding, START.plusMinutes(i), "SUCCESS", "CSV", "JSON");
+        }
+        store.flush();
+        store.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve("log.csv"), StandardCharsets.UTF_8);
+        Assertions.assertEquals(51, lines.size());
+        Assertions.assertEquals(HEADER, lines.get(0));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add("in" + i + ".csv");
+        }
+        Assertions.assertEquals(expected, inputs(store.query(new LogQuery().limit(100))));
+    }
+
+    @Test
+    void appendReportsSealingTheActiveFile() throws IOException {
+        LogStore store = newStore(new LogSegmentPolicy().maxSegmentBytes(1));
+        Assertions.assertFalse(store.append(line(0, "CSV", "JSON", "SUCCESS"), START, "SUCCESS", "CSV", "JSON"));
+        Assertions.assertTrue(store.append(line(1, "CSV", "JSON", "SUCCESS"), START, "SUCCESS", "CSV", "JSON"));
+        store.close();
+    }
+
+    @Test
+    void statusAndFormatQueriesSkipSegmentsWithoutMatches() throws IOException {
+        LogStore store = newStore(new LogSegmentPolicy().maxSegmentBytes(1).compressSealedSegments(false));
+        // Each entry after the first seals the one before it into its own segment
+        append(store, 0, "CSV", "JSON", "SUCCESS");
+        append(store, 1, "CSV", "JSON", "FAILED");
+        append(store, 2, "JSON", "XML", "SUCCESS");
+        append(store, 3, "CSV", "JSON", "SUCCESS");
+        store.close();
+
+        Assertions.assertEquals(List.of("in1.csv"), inputs(store.query(new LogQuery().status("FAILED"))));
+        Assertions.assertEquals(List.of("in2.csv"), inputs(store.query(new LogQuery().formats("JSON", null))));
+        Assertions.assertEquals(List.of("in0.csv", "in3.csv"),
+            inputs(store.query(new LogQuery().status("SUCCESS").formats(null, "JSON"))));
+
+        // A segment whose summary rules a query out is not read at all
+        Path first = directory.resolve("segments").resolve("segment-000001.csv");
+        Files.writeString(first, HEADER + System.lineSeparator() + line(0, "CSV", "JSON", "FAILED") + System.lineSeparator());
+        Assertions.assertEquals(List.of("in1.csv"), inputs(store.query(new LogQuery().status("FAILED"))));
+    }
+
+    @Test
+    void summariesSurviveReopening() throws IOException {
+        LogSegmentPolicy policy = new LogSegmentPolicy().maxSegmentBytes(1).maxSegmentAge(Duration.ofDays(1));
+        LogStore store = newStore(policy);
+        append(store, 0, "CSV", "JSON", "SUCCESS");
+        append(store, 1, "EXCEL", "PDF", "FAILED");
+        store.close();
+
+        // The reopened store rebuilds the summary of the active file before sealing it
+        LogStore reopened = newStore(policy);
+        append(reopened, 2, "CSV", "JSON", "SUCCESS");
+        reopened.close();
+
+        LogStore queried = newStore(policy);
+        Assertions.assertEquals(List.of("in1.csv"), inputs(queried.query(new LogQuery().formats("EXCEL", "PDF"))));
+        Assertions.assertEquals(List.of("in1.csv"), inputs(queried.query(new LogQuery().status("FAILED"))));
+        Assertions.assertEquals(3, queried.query(new LogQuery()).size());
+    }
+
+    private LogStore newStore(LogSegmentPolicy policy) {
+        LogStore store = new LogStore(directory.resolve("log.csv"), directory.resolve("segments"), HEADER);
+        store.setPolicy(policy);
+        return store;
+    }
+
+    /**
+     * Reads the sealed segments in order, decompressing them.
+     */
+    private List<byte[]> readSegments() throws IOException {
+        List<byte[]> segments = new ArrayList<>();
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(directory.resolve("segments"))) {
+            files = listed.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+        for (Path file : files) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                segments.add(in.readAllBytes());
+            }
+        }
+        return segments;
+    }
+
+    private static void append(LogStore store, int index, String fromFormat, String toFormat, String status)
+            throws IOException {
+        store.append(line(index, fromFormat, toFormat, status), START.plusMinutes(index), status, fromFormat, toFormat);
+        store.flush();
+    }
+
+    private static String line(int index, String fromFormat, String toFormat, String status) {
+        return START.plusMinutes(index).format(FORMATTER) + ",in" + index + ".csv,out" + index + ","
+            + fromFormat + "," + toFormat + "," + status + ",";
+    }
+
+    private static List<String> inputs(List<String[]> entries) {
+        return entries.stream().map(entry -> entry[1]).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.converterframework.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that entries logged before a flush are readable once it returns, and that entries
+ * logged before shutdown are written before the writer stops, while later ones are not.
+ * Shutdown stops the writer for good, so it runs in a separate JVM.
+ */
+class LoggerServiceTest {
+
+    private static final int ENTRIES = 500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void flushWaitsForEveryEarlierEntry() throws Exception {
+        String fromFormat = "FLUSH" + System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < ENTRIES; i++) {
+                    LoggerService.logSuccess("thread" + thread + "-" + i, "out", fromFormat, "JSON");
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LoggerService.flush();
+        List<String[]> logs = LoggerService.queryLogs(new LogQuery().formats(fromFormat, null).limit(10 * ENTRIES));
+        Assertions.assertEquals(4 * ENTRIES, logs.size());
+
+        // Entries from one thread are written in the order they were logged
+        int[] next = new int[4];
+        for (String[] entry : logs) {
+            String[] parts = entry[1].substring("thread".length()).split("-");
+            int thread = Integer.parseInt(parts[0]);
+            Assertions.assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    void shutdownWritesEarlierEntriesOnly() throws Exception {
+        List<String> lines = runLogger("shutdown");
+        Assertions.assertEquals(ENTRIES, count(lines, "before"));
+        Assertions.assertEquals(0, count(lines, "after"));
+    }
+
+    @Test
+    void exitWritesPendingEntries() throws Exception {
+        // The shutdown hook writes entries still queued when the JVM exits
+        List<String> lines = runLogger("exit");
+        Assertions.assertEquals(ENTRIES, count(lines, "before"));
+    }
+
+    /**
+     * Runs {@link LoggerMain} in a new JVM in the temporary directory and reads the log it wrote.
+     */
+    private List<String> runLogger(String mode) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                LoggerMain.class.getName(), mode)
+            .directory(directory.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(directory.resolve("process.out").toFile())
+            .start();
+        Assertions.assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, process.exitValue(), Files.readString(directory.resolve("process.out")));
+
+        File log = directory.resolve("conversion_log.csv").toFile();
+        return Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static long count(List<String> lines, String prefix) {
+        return lines.stream().filter(line -> line.contains("," + prefix + "-")).count();
+    }
+
+    /**
+     * Logs entries in a fresh JVM, then either shuts the logger down and logs more, or just exits.
+     */
+    static final class LoggerMain {
+
+        public static void main(String[] args) {
+            for (int i = 0; i < ENTRIES; i++) {
+                LoggerService.logSuccess("before-" + i, "out", "CSV", "JSON");
+            }
+            if (args[0].equals("shutdown")) {
+                LoggerService.shutdown();
+                for (int i = 0; i < ENTRIES; i++) {
+                    LoggerService.logSuccess("after-" + i, "out", "CSV", "JSON");
+                }
+                LoggerService.flush();
+            }
+        }
+    }
+}
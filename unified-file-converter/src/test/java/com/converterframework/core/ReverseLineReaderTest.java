@@ -0,0 +1,91 @@
+package com.converterframework.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that lines read backwards match the file read forwards, including lines that cross
+ * block boundaries, split multibyte characters, are longer than a block or end with CRLF, and
+ * that an end offset hides what was written after it.
+ */
+class ReverseLineReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void linesMatchForwardReading() throws IOException {
+        Random random = new Random(11);
+        for (int file = 0; file < 20; file++) {
+            List<String> lines = new ArrayList<>();
+            int count = 1 + random.nextInt(2000);
+            for (int i = 0; i < count; i++) {
+                lines.add(randomLine(random));
+            }
+            boolean crlf = random.nextBoolean();
+            boolean terminated = random.nextBoolean();
+            String content = String.join(crlf ? "\r\n" : "\n", lines) + (terminated ? (crlf ? "\r\n" : "\n") : "");
+            Path path = Files.writeString(directory.resolve("log" + file + ".csv"), content);
+
+            Assertions.assertEquals(lines, readBackwards(path, Long.MAX_VALUE), "File " + file);
+        }
+    }
+
+    @Test
+    void linesLongerThanBlockAreRead() throws IOException {
+        List<String> lines = List.of("first", "é".repeat(100_000), "", "x".repeat(200_000), "last");
+        Path path = Files.writeString(directory.resolve("long.csv"), String.join("\n", lines) + "\n");
+
+        Assertions.assertEquals(lines, readBackwards(path, Long.MAX_VALUE));
+    }
+
+    @Test
+    void endOffsetHidesLaterBytes() throws IOException {
+        Path path = Files.writeString(directory.resolve("partial.csv"), "a\nb\nhalf-writ");
+
+        Assertions.assertEquals(List.of("a", "b"), readBackwards(path, 4));
+        Assertions.assertEquals(List.of(), readBackwards(path, 0));
+    }
+
+    @Test
+    void emptyFileHasNoLines() throws IOException {
+        Path path = Files.writeString(directory.resolve("empty.csv"), "");
+
+        Assertions.assertEquals(List.of(), readBackwards(path, Long.MAX_VALUE));
+    }
+
+    /**
+     * Reads every line backwards and returns them in file order.
+     */
+    private static List<String> readBackwards(Path path, long end) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (ReverseLineReader reader = new ReverseLineReader(path, end)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        Collections.reverse(lines);
+        return lines;
+    }
+
+    private static String randomLine(Random random) {
+        String[] pieces = {"", "a", "timestamp,", "é", "€", "😀", "long text ".repeat(50)};
+        StringBuilder line = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            line.append(pieces[random.nextInt(pieces.length)]);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,251 @@
+package com.converterframework.core;
+
+import com.converterframework.interfaces.FileConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the watch folder waits for files to stop changing, publishes outputs only once
+ * their conversion has succeeded, moves inputs by result, and leaves inputs that change during
+ * their conversion in the inbox to be converted again. Each input is logged once, with the
+ * output it was published as.
+ */
+class WatchFolderServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    Path directory;
+
+    private Path inbox;
+    private Path outputDir;
+    private Path processedDir;
+    private Path failedDir;
+    private final BlockingQueue<ConversionResult> results = new LinkedBlockingQueue<>();
+    private WatchFolderService service;
+
+    @BeforeEach
+    void createDirectories() {
+        inbox = directory.resolve("inbox");
+        outputDir = directory.resolve("output");
+        processedDir = directory.resolve("processed");
+        failedDir = directory.resolve("failed");
+    }
+
+    @AfterEach
+    void stopService() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void fileStillBeingWrittenIsConvertedOnceComplete() throws Exception {
+        CopyingConverter converter = new CopyingConverter();
+        start(converter);
+
+        Path input = inbox.resolve("slow.csv");
+        StringBuilder written = new StringBuilder("id,name\n");
+        try (OutputStream out = Files.newOutputStream(input)) {
+            out.write(written.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            // Each write lands well within the quiet period of the one before
+            for (int row = 0; row < 10; row++) {
+                Thread.sleep(60);
+                String line = row + ",name" + row + "\n";
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                written.append(line);
+            }
+        }
+
+        ConversionResult result = nextResult();
+        Assertions.assertTrue(result.isSuccess(), result.getErrorMessage());
+        Assertions.assertEquals(List.of(written.toString()), converter.inputs);
+        Assertions.assertEquals(written.toString(), Files.readString(outputDir.resolve("slow.json")));
+        Assertions.assertTrue(Files.exists(processedDir.resolve("slow.csv")));
+        Assertions.assertFalse(Files.exists(input));
+    }
+
+    @Test
+    void outputIsWrittenToPartFileAndRenamedOnSuccess() throws Exception {
+        CopyingConverter converter = new CopyingConverter();
+        start(converter);
+
+        write(inbox.resolve("data.csv"), "id,name\n1,one\n");
+        ConversionResult result = nextResult();
+
+        Assertions.assertTrue(result.isSuccess(), result.getErrorMessage());
+        Assertions.assertEquals(List.of(".data.csv.part"), converter.outputNames);
+        Assertions.assertEquals(List.of(false), converter.outputPublishedDuringConversion);
+        Assertions.assertEquals(outputDir.resolve("data.json").toFile().getAbsoluteFile(),
+            result.getJob().getOutputFile().getAbsoluteFile());
+        Assertions.assertEquals(List.of("data.json"), list(outputDir));
+        Assertions.assertEquals(1, service.getConvertedCount());
+        assertLogged(inbox.resolve("data.csv"), outputDir.resolve("data.json"), "SUCCESS");
+    }
+
+    @Test
+    void failedConversionMovesInputToFailedDirectory() throws Exception {
+        CopyingConverter converter = new CopyingConverter();
+        converter.failing = true;
+        start(converter);
+
+        write(inbox.resolve("broken.csv"), "id,name\n1,one\n");
+        ConversionResult result = nextResult();
+
+        Assertions.assertFalse(result.isSuccess());
+        Assertions.assertEquals("Converter failed", result.getErrorMessage());
+        Assertions.assertTrue(Files.exists(failedDir.resolve("broken.csv")));
+        Assertions.assertFalse(Files.exists(inbox.resolve("broken.csv")));
+        Assertions.assertFalse(Files.exists(processedDir.resolve("broken.csv")));
+        // The partial output is removed and nothing is published
+        Assertions.assertEquals(List.of(), list(outputDir));
+        Assertions.assertEquals(1, service.getFailedCount());
+        assertLogged(inbox.resolve("broken.csv"), outputDir.resolve("broken.json"), "FAILED");
+    }
+
+    @Test
+    void inputModifiedDuringConversionStaysInInbox() throws Exception {
+        CopyingConverter converter = new CopyingConverter();
+        converter.firstConversionStarted = new CountDownLatch(1);
+        converter.firstConversionMayFinish = new CountDownLatch(1);
+        start(converter);
+
+        Path input = inbox.resolve("growing.csv");
+        write(input, "id,name\n1,one\n");
+        Assertions.assertTrue(converter.firstConversionStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        Files.writeString(input, "2,two\n", StandardOpenOption.APPEND);
+        converter.firstConversionMayFinish.countDown();
+
+        // The first conversion saw old content, so it neither publishes nor moves the input
+        waitFor(() -> converter.inputs.size() == 1 && !Files.exists(outputDir.resolve(".growing.csv.part")));
+        Assertions.assertTrue(Files.exists(input));
+        Assertions.assertFalse(Files.exists(outputDir.resolve("growing.json")));
+        Assertions.assertFalse(Files.exists(processedDir.resolve("growing.csv")));
+
+        // Once stable again it is converted with all of its content
+        ConversionResult result = nextResult();
+        Assertions.assertTrue(result.isSuccess(), result.getErrorMessage());
+        Assertions.assertEquals(List.of("id,name\n1,one\n", "id,name\n1,one\n2,two\n"), converter.inputs);
+        Assertions.assertEquals("id,name\n1,one\n2,two\n", Files.readString(outputDir.resolve("growing.json")));
+        Assertions.assertTrue(Files.exists(processedDir.resolve("growing.csv")));
+        Assertions.assertFalse(Files.exists(input));
+        Assertions.assertNull(results.poll(500, TimeUnit.MILLISECONDS));
+        // The dropped first conversion is not logged
+        assertLogged(input, outputDir.resolve("growing.json"), "SUCCESS");
+    }
+
+    private void start(FileConverter converter) throws IOException {
+        ConversionManager manager = new ConversionManager();
+        manager.registerConverter(converter);
+        service = new WatchFolderService(manager, "JSON", inbox, outputDir, processedDir, failedDir);
+        service.setWorkers(2);
+        service.setListener(results::add);
+        service.start();
+    }
+
+    private ConversionResult nextResult() throws InterruptedException {
+        ConversionResult result = results.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Assertions.assertNotNull(result, "No conversion finished");
+        return result;
+    }
+
+    /**
+     * Writes a file outside the inbox and moves it in, so it appears complete.
+     */
+    private void write(Path file, String content) throws IOException {
+        Path staged = Files.writeString(directory.resolve(file.getFileName() + ".staged"), content);
+        Files.move(staged, file);
+    }
+
+    /**
+     * Checks that an input was logged once, with its published output rather than its partial one.
+     */
+    private static void assertLogged(Path input, Path output, String status) {
+        LoggerService.flush();
+        List<String[]> entries = LoggerService.queryLogs(new LogQuery().limit(Integer.MAX_VALUE)).stream()
+            .filter(entry -> entry[1].equals(input.toAbsolutePath().toString()))
+            .toList();
+        Assertions.assertEquals(1, entries.size());
+        Assertions.assertEquals(output.toAbsolutePath().toString(), entries.get(0)[2]);
+        Assertions.assertEquals(status, entries.get(0)[5]);
+    }
+
+    private static List<String> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Copies CSV input to the output, recording what it read and where it wrote.
+     * It can fail after writing part of its output, or hold its first conversion until released.
+     */
+    private static final class CopyingConverter implements FileConverter {
+
+        private final List<String> inputs = new CopyOnWriteArrayList<>();
+        private final List<String> outputNames = new CopyOnWriteArrayList<>();
+        private final List<Boolean> outputPublishedDuringConversion = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile CountDownLatch firstConversionStarted;
+        private volatile CountDownLatch firstConversionMayFinish;
+
+        @Override
+        public boolean supportsFormat(String fromFormat, String toFormat) {
+            return "CSV".equals(fromFormat) && "JSON".equals(toFormat);
+        }
+
+        @Override
+        public void convert(File inputFile, File outputFile) throws Exception {
+            String content = Files.readString(inputFile.toPath());
+            inputs.add(content);
+            outputNames.add(outputFile.getName());
+            Path published = outputFile.toPath().resolveSibling(
+                inputFile.getName().replaceAll("\\.csv$", ".json"));
+            outputPublishedDuringConversion.add(Files.exists(published));
+
+            Files.writeString(outputFile.toPath(), content);
+            if (failing) {
+                throw new IOException("Converter failed");
+            }
+            if (inputs.size() == 1 && firstConversionStarted != null) {
+                firstConversionStarted.countDown();
+                Assertions.assertTrue(firstConversionMayFinish.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            }
+        }
+
+        @Override
+        public String getConverterName() {
+            return "Copying CSV to JSON Converter";
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.converterframework.interfaces;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Checks that the file, channel and byte array conversions all produce what the stream
+ * conversion writes, that channels are left open with every byte written, and that byte array
+ * results stay intact after their pooled buffer is reused.
+ */
+class StreamConverterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fileConversionMatchesStreamConversion() throws Exception {
+        File input = Files.writeString(directory.resolve("in.txt"), "mixed Case").toFile();
+        File output = directory.resolve("out.txt").toFile();
+
+        new UpperCaseConverter().convert(input, output);
+
+        Assertions.assertEquals("MIXED CASE", Files.readString(output.toPath()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new UpperCaseConverter().convert(directory.resolve("missing.txt").toFile(), output));
+    }
+
+    @Test
+    void channelsAreLeftOpenWithEveryByteWritten() throws Exception {
+        String text = "abc".repeat(50_000);
+        Path in = Files.writeString(directory.resolve("in.txt"), text);
+        Path out = directory.resolve("out.txt");
+
+        try (ReadableByteChannel input = FileChannel.open(in);
+             SeekableByteChannel output = Files.newByteChannel(out, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            new UpperCaseConverter().convert(input, output);
+
+            Assertions.assertTrue(input.isOpen());
+            Assertions.assertTrue(output.isOpen());
+            Assertions.assertEquals(text.length(), output.size());
+            // The channel still accepts writes after the conversion
+            output.write(ByteBuffer.wrap(new byte[] {'!'}));
+        }
+        Assertions.assertEquals(text.toUpperCase() + "!", Files.readString(out));
+    }
+
+    @Test
+    void byteArrayResultsOutliveTheirBuffer() throws Exception {
+        UpperCaseConverter converter = new UpperCaseConverter();
+
+        byte[] first = converter.convert(bytes("first"));
+        byte[] second = converter.convert(bytes("second, longer"));
+        byte[] large = converter.convert(bytes("x".repeat(5 * 1024 * 1024)));
+        byte[] third = converter.convert(bytes("3"));
+
+        Assertions.assertEquals("FIRST", text(first));
+        Assertions.assertEquals("SECOND, LONGER", text(second));
+        Assertions.assertEquals(5 * 1024 * 1024, large.length);
+        Assertions.assertEquals("3", text(third));
+        Assertions.assertEquals("", text(converter.convert(new byte[0])));
+    }
+
+    @Test
+    void failedByteArrayConversionLeavesNothingBehind() throws Exception {
+        UpperCaseConverter converter = new UpperCaseConverter();
+
+        Assertions.assertThrows(IOException.class, () -> converter.convert(bytes("partial then fail")));
+        // The buffer that held the partial output comes back empty
+        Assertions.assertEquals("NEXT", text(converter.convert(bytes("next"))));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Upper-cases ASCII text, failing after writing it if the text ends with "fail".
+     */
+    private static final class UpperCaseConverter implements StreamConverter {
+
+        @Override
+        public boolean supportsFormat(String fromFormat, String toFormat) {
+            return "TEXT".equals(fromFormat) && "TEXT".equals(toFormat);
+        }
+
+        @Override
+        public void convert(InputStream input, OutputStream output) throws IOException {
+            String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            output.write(bytes(text.toUpperCase()));
+            if (text.endsWith("fail")) {
+                throw new IOException("Conversion failed");
+            }
+        }
+
+        @Override
+        public String getConverterName() {
+            return "Upper Case Converter";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.converterframework.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that writes larger than the buffer wrap around it intact, that closing the input
+ * fails the writer, and that closing the output ends the stream once the buffer is drained.
+ */
+class BytePipeTest {
+
+    @Test
+    void writesLargerThanCapacityWrapAround() throws Exception {
+        BytePipe pipe = new BytePipe(7);
+        byte[] data = new byte[10_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+
+        FutureTask<Void> writer = start(() -> {
+            try (OutputStream out = pipe.getOutputStream()) {
+                // One write far larger than the buffer, then writes that keep moving its ends
+                out.write(data, 0, 5_000);
+                for (int off = 5_000; off < data.length; off += 3) {
+                    out.write(data, off, Math.min(3, data.length - off));
+                }
+            }
+            return null;
+        });
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] chunk = new byte[5];
+        try (InputStream in = pipe.getInputStream()) {
+            int n;
+            while ((n = in.read(chunk, 0, chunk.length)) != -1) {
+                received.write(chunk, 0, n);
+            }
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        Assertions.assertArrayEquals(data, received.toByteArray());
+    }
+
+    @Test
+    void closingInputFailsBlockedWriter() throws Exception {
+        BytePipe pipe = new BytePipe(16);
+        FutureTask<Void> writer = start(() -> {
+            pipe.getOutputStream().write(new byte[1024]);
+            return null;
+        });
+
+        InputStream in = pipe.getInputStream();
+        Assertions.assertEquals(16, in.readNBytes(16).length);
+        in.close();
+
+        ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> writer.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IOException.class, failure.getCause());
+        Assertions.assertEquals("Pipe closed by reader", failure.getCause().getMessage());
+        Assertions.assertThrows(IOException.class, () -> pipe.getOutputStream().write(1));
+    }
+
+    @Test
+    void closingOutputEndsStreamAfterBufferedBytes() throws Exception {
+        BytePipe pipe = new BytePipe(16);
+        OutputStream out = pipe.getOutputStream();
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        InputStream in = pipe.getInputStream();
+        Assertions.assertEquals(3, in.available());
+        Assertions.assertArrayEquals(new byte[] {1, 2, 3}, in.readAllBytes());
+        Assertions.assertEquals(-1, in.read());
+        Assertions.assertThrows(IOException.class, () -> out.write(4));
+    }
+
+    @Test
+    void closingOutputWakesBlockedReader() throws Exception {
+        BytePipe pipe = new BytePipe(16);
+        FutureTask<Integer> reader = start(() -> pipe.getInputStream().read());
+
+        Thread.sleep(50);
+        pipe.getOutputStream().close();
+        Assertions.assertEquals(-1, reader.get(10, TimeUnit.SECONDS));
+    }
+
+    private static <T> FutureTask<T> start(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        Thread thread = new Thread(future);
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+}
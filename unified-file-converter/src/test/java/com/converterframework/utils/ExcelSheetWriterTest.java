@@ -0,0 +1,69 @@
+package com.converterframework.utils;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Checks that rows continue on a new sheet, headed like the first, once a sheet is full, and
+ * that rows flushed out of the in-memory window are still written.
+ */
+class ExcelSheetWriterTest {
+
+    @Test
+    void fullSheetContinuesOnNewSheetWithHeader() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ExcelSheetWriter writer = new ExcelSheetWriter(2, 4)) {
+            writer.addColumn("id");
+            writer.addColumn("name");
+            for (int i = 0; i < 7; i++) {
+                Row row = writer.createRow();
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("row" + i);
+            }
+            writer.write(output);
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            // Each sheet holds the header and three rows
+            Assertions.assertEquals(3, workbook.getNumberOfSheets());
+            Assertions.assertEquals("Data", workbook.getSheetName(0));
+            Assertions.assertEquals("Data (2)", workbook.getSheetName(1));
+            Assertions.assertEquals("Data (3)", workbook.getSheetName(2));
+
+            int next = 0;
+            for (Sheet sheet : workbook) {
+                Assertions.assertEquals("id", sheet.getRow(0).getCell(0).getStringCellValue());
+                Assertions.assertEquals("name", sheet.getRow(0).getCell(1).getStringCellValue());
+                for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+                    Assertions.assertEquals(next, sheet.getRow(r).getCell(0).getNumericCellValue());
+                    Assertions.assertEquals("row" + next, sheet.getRow(r).getCell(1).getStringCellValue());
+                    next++;
+                }
+            }
+            Assertions.assertEquals(7, next);
+        }
+    }
+
+    @Test
+    void workbookWithoutRowsHasHeaderSheet() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ExcelSheetWriter writer = new ExcelSheetWriter(1)) {
+            writer.addColumn("id");
+            writer.write(output);
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            Assertions.assertEquals(1, workbook.getNumberOfSheets());
+            Assertions.assertEquals(0, workbook.getSheetAt(0).getLastRowNum());
+            Assertions.assertEquals("id", workbook.getSheetAt(0).getRow(0).getCell(0).getStringCellValue());
+        }
+    }
+}
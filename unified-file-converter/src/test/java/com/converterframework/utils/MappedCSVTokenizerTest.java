@@ -0,0 +1,162 @@
+package com.converterframework.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that the mapped tokenizer splits files into the same fields as {@link CSVRecordReader}
+ * whatever the size of its mapped window, including files that are not valid UTF-8.
+ */
+class MappedCSVTokenizerTest {
+
+    private static final int[] WINDOW_SIZES = {8, 9, 13, 16, 31, 64, 1024, MappedCSVTokenizer.DEFAULT_WINDOW_SIZE};
+
+    private static final String[] INPUTS = {
+        "a,b,c\n1,2,3\n",
+        "a,b,c\n1,2,3",
+        "a,b\r\n1,2\r\n3,4\r\n",
+        "a,b\r1,2\r3,4",
+        "a,b\n\n1,2\n   \n\r\n3,4\n\n",
+        "name,note\n\"Smith, John\",\"said \"\"hi\"\"\"\n",
+        "name,note\nx,\"first line\nsecond line\r\nthird line\"\ny,z\n",
+        "a,b\n\"\",\"\"\n,\n",
+        "a,b\nplain \"inner\" quotes,x\"y\n",
+        "a,b\n\"unbalanced,value\n1,2\n",
+        "a,b\n1,\"never closed",
+        "a,b\n1,2\n\"",
+        "été,naïve\n\"日本\",\"ü,ö\"\n",
+        "only\n",
+        ",,\n,,\n",
+        "a,b\n\"quoted\"tail,x\n",
+        "a;b\n1;2\n",
+    };
+
+    private static final byte[][] MALFORMED_INPUTS = {
+        bytes("a,b\n", 0xC3, ",", 0xE2, 0x82, "\n"),
+        bytes("a,b\n\"", 0xC3, "\"", 0xA9, ",x", 0xFF, 0xFE, "y\n"),
+        bytes("a,b\n", 0xED, 0xA0, 0x80, ",", 0xF4, 0x90, 0x80, 0x80, "\n"),
+        bytes("a,b\n", 0xC0, 0xAF, ",", 0xE0, 0x80, 0xAF, "\n"),
+        bytes("a,b\n", 0xF0, 0x9F, 0x98, ",", 0x80, 0x80, "\n"),
+        bytes("a,b\n\"", 0xE2, 0x82, "\n", 0xAC, "\"\r\n", 0xE2, 0x82, 0xAC, ",ok\n"),
+        bytes("a,b\nx,y", 0xE2, 0x82),
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fixedInputsMatchRecordReader() throws IOException {
+        for (String input : INPUTS) {
+            assertSameFields(input);
+        }
+    }
+
+    @Test
+    void randomInputsMatchRecordReader() throws IOException {
+        String[] pieces = {"a", "bc", "1.5", " ", ",", ",", "\"", "\"\"", "\n", "\r\n", "\r", "\n\n", "é", "xyzxyzxyz"};
+        Random random = new Random(16);
+        for (int i = 0; i < 300; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int piece = 0; piece < length; piece++) {
+                input.append(pieces[random.nextInt(pieces.length)]);
+            }
+            assertSameFields(input.toString());
+        }
+    }
+
+    @Test
+    void malformedInputsMatchRecordReader() throws IOException {
+        for (byte[] input : MALFORMED_INPUTS) {
+            assertSameFields(input);
+        }
+    }
+
+    @Test
+    void randomMalformedInputsMatchRecordReader() throws IOException {
+        int[] pieces = {'a', ',', '"', '\n', '\r', 0x80, 0xBF, 0xC3, 0xA9, 0xE2, 0x82, 0xAC, 0xED, 0xF0, 0x9F, 0xFF};
+        Random random = new Random(1616);
+        for (int i = 0; i < 300; i++) {
+            byte[] input = new byte[random.nextInt(40)];
+            for (int b = 0; b < input.length; b++) {
+                input[b] = (byte) pieces[random.nextInt(pieces.length)];
+            }
+            assertSameFields(input);
+        }
+    }
+
+    private void assertSameFields(String input) throws IOException {
+        assertSameFields(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertSameFields(byte[] input) throws IOException {
+        List<String[]> expected = new ArrayList<>();
+        try (CSVRecordReader reader = new CSVRecordReader(
+                new InputStreamReader(new ByteArrayInputStream(input), StandardCharsets.UTF_8))) {
+            for (String[] record = reader.readRecord(); record != null; record = reader.readRecord()) {
+                expected.add(record);
+            }
+        }
+
+        Path file = Files.write(directory.resolve("input.csv"), input);
+        String described = describe(new String(input, StandardCharsets.UTF_8));
+        for (int windowSize : WINDOW_SIZES) {
+            List<String[]> actual = new ArrayList<>();
+            try (MappedCSVTokenizer tokenizer = new MappedCSVTokenizer(file, ',', windowSize)) {
+                while (tokenizer.nextRecord()) {
+                    actual.add(tokenizer.getFieldStrings());
+                    for (int field = 0; field < tokenizer.getFieldCount(); field++) {
+                        // Field bytes go to JSON as they are, so they must already be valid UTF-8
+                        byte[] slice = Arrays.copyOfRange(tokenizer.getBuffer(), tokenizer.getFieldStart(field),
+                            tokenizer.getFieldStart(field) + tokenizer.getFieldLength(field));
+                        Assertions.assertArrayEquals(tokenizer.getFieldString(field).getBytes(StandardCharsets.UTF_8),
+                            slice, "Field bytes for " + described);
+                    }
+                }
+                Assertions.assertEquals(actual.size(), tokenizer.getRecordCount());
+            }
+            Assertions.assertEquals(describe(expected), describe(actual),
+                "Window of " + windowSize + " bytes for " + described);
+        }
+    }
+
+    /**
+     * Joins text and single bytes given as ints into the bytes of a file.
+     */
+    private static byte[] bytes(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object part : parts) {
+            if (part instanceof String text) {
+                out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.write((Integer) part);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> describe(List<String[]> records) {
+        List<String> described = new ArrayList<>();
+        for (String[] record : records) {
+            described.add(describe(Arrays.toString(record)));
+        }
+        return described;
+    }
+
+    private static String describe(String text) {
+        return text.replace("\r", "\\r").replace("\n", "\\n");
+    }
+}